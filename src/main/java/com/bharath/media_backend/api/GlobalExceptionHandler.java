@@ -1,5 +1,6 @@
 package com.bharath.media_backend.api;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -7,6 +8,10 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.bharath.media_backend.exception.InvalidCredentialsException;
 import com.bharath.media_backend.exception.MediaNotFoundException;
+import com.bharath.media_backend.exception.UploadCapacityExceededException;
+import com.bharath.media_backend.exception.UploadJobNotFoundException;
+import com.bharath.media_backend.exception.UploadSessionConflictException;
+import com.bharath.media_backend.exception.UploadSessionNotFoundException;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -44,6 +49,60 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorBody, HttpStatus.UNAUTHORIZED);
     }
 
+    /**
+     * Handle UploadCapacityExceededException
+     */
+    @ExceptionHandler(UploadCapacityExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleUploadCapacityExceeded(UploadCapacityExceededException ex) {
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp", Instant.now());
+        errorBody.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorBody.put("error", "Service Unavailable");
+        errorBody.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(errorBody);
+    }
+
+    /**
+     * Handle UploadSessionNotFoundException
+     */
+    @ExceptionHandler(UploadSessionNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleUploadSessionNotFound(UploadSessionNotFoundException ex) {
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp", Instant.now());
+        errorBody.put("status", HttpStatus.NOT_FOUND.value());
+        errorBody.put("error", "Not Found");
+        errorBody.put("message", ex.getMessage());
+        return new ResponseEntity<>(errorBody, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handle UploadJobNotFoundException
+     */
+    @ExceptionHandler(UploadJobNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleUploadJobNotFound(UploadJobNotFoundException ex) {
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp", Instant.now());
+        errorBody.put("status", HttpStatus.NOT_FOUND.value());
+        errorBody.put("error", "Not Found");
+        errorBody.put("message", ex.getMessage());
+        return new ResponseEntity<>(errorBody, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handle UploadSessionConflictException
+     */
+    @ExceptionHandler(UploadSessionConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleUploadSessionConflict(UploadSessionConflictException ex) {
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp", Instant.now());
+        errorBody.put("status", HttpStatus.CONFLICT.value());
+        errorBody.put("error", "Conflict");
+        errorBody.put("message", ex.getMessage());
+        return new ResponseEntity<>(errorBody, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handle all other RuntimeExceptions
      */
@@ -0,0 +1,22 @@
+package com.bharath.media_backend.api.dto;
+
+import com.bharath.media_backend.domain.MediaRendition;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter @Setter @AllArgsConstructor
+public class RenditionResponse {
+    private String format;
+    private String status;
+    private int progress;
+    private String variants;
+    private String error;
+    private Instant createdAt;
+    private Instant finishedAt;
+
+    public static RenditionResponse from(MediaRendition rendition) {
+        return new RenditionResponse(rendition.getFormat().name(), rendition.getStatus().name(), rendition.getProgress(),
+                rendition.getVariants(), rendition.getLastError(), rendition.getCreatedAt(), rendition.getFinishedAt());
+    }
+}
@@ -0,0 +1,10 @@
+package com.bharath.media_backend.api.dto;
+
+import lombok.*;
+
+@Getter @Setter @AllArgsConstructor
+public class TopMediaEntry {
+    private Long mediaId;
+    private String title; // null if the media has been deleted
+    private long views;
+}
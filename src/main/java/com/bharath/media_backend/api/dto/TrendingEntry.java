@@ -0,0 +1,10 @@
+package com.bharath.media_backend.api.dto;
+
+import lombok.*;
+
+@Getter @Setter @AllArgsConstructor
+public class TrendingEntry {
+    private Long mediaId;
+    private String title;
+    private double score; // views decayed by half every window
+}
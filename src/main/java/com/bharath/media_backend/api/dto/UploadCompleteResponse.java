@@ -0,0 +1,10 @@
+package com.bharath.media_backend.api.dto;
+
+import lombok.*;
+
+@Getter @Setter @AllArgsConstructor
+public class UploadCompleteResponse {
+    private String fileUrl;
+    private Long jobId; // target=cloudinary: poll GET /media/jobs/{jobId}
+    private String message;
+}
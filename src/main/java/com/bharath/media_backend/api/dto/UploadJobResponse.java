@@ -0,0 +1,23 @@
+package com.bharath.media_backend.api.dto;
+
+import com.bharath.media_backend.domain.UploadJob;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter @Setter @AllArgsConstructor
+public class UploadJobResponse {
+    private Long id;
+    private String status;
+    private int attempts;
+    private Long mediaId;
+    private String fileUrl;
+    private String error;
+    private Instant createdAt;
+    private Instant finishedAt;
+
+    public static UploadJobResponse from(UploadJob job) {
+        return new UploadJobResponse(job.getId(), job.getStatus().name(), job.getAttempts(), job.getMediaId(),
+                job.getFileUrl(), job.getLastError(), job.getCreatedAt(), job.getFinishedAt());
+    }
+}
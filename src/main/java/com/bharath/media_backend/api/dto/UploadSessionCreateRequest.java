@@ -0,0 +1,10 @@
+package com.bharath.media_backend.api.dto;
+
+import lombok.*;
+
+@Getter @Setter
+public class UploadSessionCreateRequest {
+    private String filename;
+    private long size;
+    private String contentType;
+}
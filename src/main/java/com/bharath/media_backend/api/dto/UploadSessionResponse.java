@@ -0,0 +1,15 @@
+package com.bharath.media_backend.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter @AllArgsConstructor
+public class UploadSessionResponse {
+    private String id;
+    private String filename;
+    private long size;
+    private long receivedBytes;
+    private List<long[]> receivedRanges; // [start, end] inclusive
+    private boolean complete;
+}
@@ -0,0 +1,24 @@
+package com.bharath.media_backend.api.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter @Setter @AllArgsConstructor
+public class ViewAnalyticsResponse {
+    private Long mediaId;
+    private Instant from;
+    private Instant to;
+    private String granularity;
+    private long totalViews;
+    private long uniqueIps; // exact, over the whole range
+    private List<Bucket> buckets;
+
+    @Getter @Setter @AllArgsConstructor
+    public static class Bucket {
+        private Instant start;
+        private long views;
+        private long uniqueIps;
+    }
+}
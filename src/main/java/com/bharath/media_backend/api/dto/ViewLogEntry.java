@@ -0,0 +1,14 @@
+package com.bharath.media_backend.api.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/** One view log row; a constructor projection, so exports don't fill the persistence context */
+@Getter @Setter @AllArgsConstructor
+public class ViewLogEntry {
+    private Long id;
+    private Long mediaId;
+    private String viewedByIp;
+    private Instant timestamp;
+}
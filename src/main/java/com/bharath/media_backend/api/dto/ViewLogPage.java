@@ -0,0 +1,11 @@
+package com.bharath.media_backend.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter @AllArgsConstructor
+public class ViewLogPage {
+    private List<ViewLogEntry> items;
+    private String nextCursor; // null on the last page
+}
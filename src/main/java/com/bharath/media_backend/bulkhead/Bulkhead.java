@@ -0,0 +1,98 @@
+package com.bharath.media_backend.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one class of routes: at most {@code maxConcurrent}
+ * requests run, at most {@code maxQueue} more wait up to {@code maxWait} for a
+ * slot, and anything beyond that is rejected at once.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Counter rejected;
+    private final Timer waitTimer;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, Duration maxWait, MeterRegistry meterRegistry) {
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("maxConcurrent must be positive");
+        if (maxQueue < 0) throw new IllegalArgumentException("maxQueue must not be negative");
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrent);
+
+        Gauge.builder("media.bulkhead.active", this, Bulkhead::active)
+                .description("Requests running in the bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("media.bulkhead.queued", queued, AtomicInteger::get)
+                .description("Requests waiting for a bulkhead slot")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("media.bulkhead.saturation", this, b -> (double) b.active() / b.maxConcurrent)
+                .description("Share of bulkhead slots in use (0-1)")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("media.bulkhead.rejected")
+                .description("Requests rejected with 503 because the bulkhead was full")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("media.bulkhead.wait")
+                .description("Time queued requests waited for a slot")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    /** Take a slot, waiting in the queue if there is room; false means reject. Pair with {@link #release()}. */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) return true;
+
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return true;
+            }
+            rejected.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+}
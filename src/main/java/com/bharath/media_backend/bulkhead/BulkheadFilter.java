@@ -0,0 +1,81 @@
+package com.bharath.media_backend.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs each request inside the bulkhead of its {@link RouteClass}, so a burst
+ * of large uploads cannot take the capacity stream redirects need (and vice
+ * versa). Ordered before Spring Security: a full bulkhead costs no JWT work.
+ */
+public class BulkheadFilter extends OncePerRequestFilter implements Ordered {
+
+    private final Map<RouteClass, Bulkhead> bulkheads;
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(Map<RouteClass, Bulkhead> bulkheads, ObjectMapper objectMapper) {
+        this.bulkheads = new EnumMap<>(bulkheads);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteClass routeClass = RouteClass.of(request.getMethod(), request.getServletPath());
+        Bulkhead bulkhead = routeClass == null ? null : bulkheads.get(routeClass);
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(response, bulkhead);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private void reject(HttpServletResponse response, Bulkhead bulkhead) throws IOException {
+        Map<String, Object> errorBody = new LinkedHashMap<>();
+        errorBody.put("timestamp", Instant.now().toString());
+        errorBody.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorBody.put("error", "Service Unavailable");
+        errorBody.put("message", "Too many concurrent " + bulkhead.name() + " requests, retry shortly");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorBody);
+    }
+
+    @Override
+    public int getOrder() {
+        // After the observation filter (so rejections show in http.server.requests), before security
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bharath.media_backend.bulkhead;
+
+import org.springframework.util.AntPathMatcher;
+
+/** Groups of routes that get their own bulkhead */
+public enum RouteClass {
+
+    UPLOAD, STREAMING, ANALYTICS, AUTH;
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    /** The bulkhead a request belongs to, or null for routes that are not bulkheaded */
+    public static RouteClass of(String method, String path) {
+        if (path.startsWith("/auth/")) return AUTH;
+        if (path.startsWith("/files/") || path.startsWith("/media/files/")
+                || MATCHER.match("/media/*/stream", path) || MATCHER.match("/media/*/stream-url", path)
+                || MATCHER.match("/media/*/abr/*", path)) {
+            return STREAMING;
+        }
+        if (path.startsWith("/media/uploads") || path.equals("/media/upload")
+                || ("POST".equals(method) && path.equals("/media"))) {
+            return UPLOAD;
+        }
+        if (path.startsWith("/media/analytics/") || path.startsWith("/media/trending")
+                || MATCHER.match("/media/*/analytics/**", path) || MATCHER.match("/media/*/view-log/**", path)) {
+            return ANALYTICS;
+        }
+        return null;
+    }
+}
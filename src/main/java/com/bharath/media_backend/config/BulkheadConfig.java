@@ -0,0 +1,47 @@
+package com.bharath.media_backend.config;
+
+import com.bharath.media_backend.bulkhead.Bulkhead;
+import com.bharath.media_backend.bulkhead.BulkheadFilter;
+import com.bharath.media_backend.bulkhead.RouteClass;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/** One bulkhead per route class, sized by {@code app.bulkhead.<class>.*} */
+@Configuration
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    /** Defaults: max-concurrent, max-queue, max-wait */
+    private record Limits(int maxConcurrent, int maxQueue, Duration maxWait) {}
+
+    private static final Map<RouteClass, Limits> DEFAULTS = Map.of(
+            RouteClass.UPLOAD, new Limits(16, 32, Duration.ofSeconds(2)),
+            RouteClass.STREAMING, new Limits(400, 800, Duration.ofMillis(200)),
+            RouteClass.ANALYTICS, new Limits(32, 64, Duration.ofSeconds(1)),
+            RouteClass.AUTH, new Limits(16, 64, Duration.ofSeconds(1)));
+
+    @Bean
+    public BulkheadFilter bulkheadFilter(Environment env, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        Map<RouteClass, Bulkhead> bulkheads = new EnumMap<>(RouteClass.class);
+        for (RouteClass routeClass : RouteClass.values()) {
+            String name = routeClass.name().toLowerCase(Locale.ROOT);
+            String prefix = "app.bulkhead." + name + ".";
+            Limits defaults = DEFAULTS.get(routeClass);
+            bulkheads.put(routeClass, new Bulkhead(name,
+                    env.getProperty(prefix + "max-concurrent", Integer.class, defaults.maxConcurrent()),
+                    env.getProperty(prefix + "max-queue", Integer.class, defaults.maxQueue()),
+                    env.getProperty(prefix + "max-wait", Duration.class, defaults.maxWait()),
+                    meterRegistry));
+        }
+        return new BulkheadFilter(bulkheads, objectMapper);
+    }
+}
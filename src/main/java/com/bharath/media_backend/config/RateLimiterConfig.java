@@ -0,0 +1,62 @@
+package com.bharath.media_backend.config;
+
+import com.bharath.media_backend.ratelimit.FailoverRateLimiter;
+import com.bharath.media_backend.ratelimit.InMemoryRateLimiter;
+import com.bharath.media_backend.ratelimit.RateLimitPolicy;
+import com.bharath.media_backend.ratelimit.RateLimiter;
+import com.bharath.media_backend.ratelimit.RedisRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class RateLimiterConfig {
+
+    @Value("${app.ratelimit.backend:redis}")
+    private String backend; // redis | memory
+
+    @Value("${app.ratelimit.memory.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${app.ratelimit.memory.stripes:64}")
+    private int stripes;
+
+    @Bean
+    public InMemoryRateLimiter inMemoryRateLimiter() {
+        return new InMemoryRateLimiter(maxKeys, stripes);
+    }
+
+    @Bean
+    @Primary
+    public RateLimiter rateLimiter(InMemoryRateLimiter inMemoryRateLimiter,
+                                   StringRedisTemplate stringRedisTemplate,
+                                   MeterRegistry meterRegistry) {
+        if ("memory".equalsIgnoreCase(backend)) {
+            return inMemoryRateLimiter;
+        }
+        Counter fallbacks = Counter.builder("media.ratelimit.fallback")
+                .description("Rate limit checks answered in-process because Redis was unavailable")
+                .register(meterRegistry);
+        return new FailoverRateLimiter(new RedisRateLimiter(stringRedisTemplate), inMemoryRateLimiter, fallbacks);
+    }
+
+    /** Limit for POST /media/{id}/view */
+    @Bean
+    public RateLimitPolicy viewRateLimitPolicy(@Value("${app.ratelimit.view.permits:5}") int permits,
+                                               @Value("${app.ratelimit.view.window:60s}") Duration window) {
+        return new RateLimitPolicy("view", permits, window);
+    }
+
+    /** Limit for GET /media/{id}/stream */
+    @Bean
+    public RateLimitPolicy streamRateLimitPolicy(@Value("${app.ratelimit.stream.permits:30}") int permits,
+                                                 @Value("${app.ratelimit.stream.window:60s}") Duration window) {
+        return new RateLimitPolicy("stream", permits, window);
+    }
+}
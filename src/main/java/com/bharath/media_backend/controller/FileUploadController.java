@@ -1,27 +1,30 @@
 package com.bharath.media_backend.controller;
 
+import com.bharath.media_backend.service.FileStreamingService;
 import com.bharath.media_backend.service.FileUploadService;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
+import com.bharath.media_backend.service.StoredFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.util.Optional;
 
 @RestController
-@RequestMapping("/media")
 public class FileUploadController {
 
     private final FileUploadService fileUploadService;
+    private final FileStreamingService fileStreamingService;
 
-    public FileUploadController(FileUploadService fileUploadService) {
+    public FileUploadController(FileUploadService fileUploadService, FileStreamingService fileStreamingService) {
         this.fileUploadService = fileUploadService;
+        this.fileStreamingService = fileStreamingService;
     }
 
     /** Upload a file */
-    @PostMapping("/upload")
+    @PostMapping("/media/upload")
     public ResponseEntity<String> upload(@RequestParam("file") MultipartFile file) {
         try {
             String fileUrl = fileUploadService.storeFile(file);
@@ -33,21 +36,47 @@ public class FileUploadController {
         }
     }
 
-    /** Download a file */
-    @GetMapping("/files/{filename:.+}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String filename) {
+    /**
+     * Store content the server already has by its SHA-256, without sending the bytes.
+     * 404 means the hash is unknown and the client should upload the file normally.
+     */
+    @PostMapping("/media/upload/by-hash")
+    public ResponseEntity<String> uploadByHash(@RequestParam String sha256, @RequestParam String filename) {
         try {
-            Resource resource = fileUploadService.loadFileAsResource(filename);
+            return fileUploadService.storeExisting(sha256, filename)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body("File upload failed: " + e.getMessage());
+        }
+    }
+
+    /** Download a file (attachment, range requests supported) */
+    @RequestMapping(value = "/media/files/{filename:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void downloadFile(@PathVariable String filename,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        serve(filename, true, request, response);
+    }
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
+    /** Stream a file inline (the URLs returned by upload; players seek with Range) */
+    @RequestMapping(value = "/files/{filename:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void streamFile(@PathVariable String filename,
+                           HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+        serve(filename, false, request, response);
+    }
 
-        } catch (MalformedURLException e) {
-            return ResponseEntity.badRequest().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+    private void serve(String filename, boolean attachment,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Names are only looked up in the index, so a crafted path never reaches the filesystem
+        Optional<StoredFile> file = fileUploadService.lookup(filename);
+        if (file.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        fileStreamingService.serve(file.get(), attachment, request, response);
     }
 }
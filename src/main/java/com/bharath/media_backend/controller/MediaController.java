@@ -1,18 +1,31 @@
 package com.bharath.media_backend.controller;
 
-import com.bharath.media_backend.api.dto.MediaCreateRequest;
+import com.bharath.media_backend.api.dto.RenditionResponse;
 import com.bharath.media_backend.api.dto.StreamUrlResponse;
-import com.bharath.media_backend.domain.MediaViewLog;
+import com.bharath.media_backend.api.dto.TopMediaEntry;
+import com.bharath.media_backend.api.dto.UploadJobResponse;
+import com.bharath.media_backend.api.dto.ViewAnalyticsResponse;
+import com.bharath.media_backend.api.dto.ViewLogPage;
+import com.bharath.media_backend.domain.UploadJob;
 import com.bharath.media_backend.service.MediaService;
+import com.bharath.media_backend.service.UploadJobService;
+import com.bharath.media_backend.service.ViewAnalyticsService;
+import com.bharath.media_backend.service.ViewLogQueryService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -20,30 +33,35 @@ import java.util.Map;
 public class MediaController {
 
     private final MediaService mediaService;
+    private final UploadJobService uploadJobService;
+    private final ViewLogQueryService viewLogQueryService;
+    private final ViewAnalyticsService viewAnalyticsService;
 
-    public MediaController(MediaService mediaService) {
+    public MediaController(MediaService mediaService, UploadJobService uploadJobService,
+                           ViewLogQueryService viewLogQueryService, ViewAnalyticsService viewAnalyticsService) {
         this.mediaService = mediaService;
+        this.uploadJobService = uploadJobService;
+        this.viewLogQueryService = viewLogQueryService;
+        this.viewAnalyticsService = viewAnalyticsService;
     }
 
-    // --- Create media (upload to Cloudinary + save record) ---
+    // --- Create media: stage the file and queue the storage upload + record (202 + job id) ---
     @PostMapping
-    public String createMedia(
+    public ResponseEntity<UploadJobResponse> createMedia(
             @RequestParam("title") String title,
             @RequestParam("type") String type,   // video/audio
             @RequestParam("file") MultipartFile file
     ) throws IOException {
+        UploadJob job = uploadJobService.submit(title, type, file);
+        return ResponseEntity.accepted()
+                .location(URI.create("/media/jobs/" + job.getId()))
+                .body(UploadJobResponse.from(job));
+    }
 
-        // Create a MediaCreateRequest
-        MediaCreateRequest request = new MediaCreateRequest();
-        request.setTitle(title);
-        request.setType(type);
-
-        // Upload file to Cloudinary
-        String cloudUrl = mediaService.uploadToCloudinary(file);
-        request.setFileUrl(cloudUrl);
-
-        // Save record
-        return mediaService.createMedia(request);
+    // --- Upload job status ---
+    @GetMapping("/jobs/{jobId}")
+    public UploadJobResponse getUploadJob(@PathVariable Long jobId) {
+        return UploadJobResponse.from(uploadJobService.getJob(jobId));
     }
 
     // --- Generate stream URL ---
@@ -52,15 +70,49 @@ public class MediaController {
         return mediaService.generateStreamUrl(id);
     }
 
-    // --- Stream media (redirect to Cloudinary) ---
+    // --- Stream media (verify signed URL, redirect to the storage backend) ---
     @GetMapping("/{id}/stream")
     public ResponseEntity<Resource> streamMedia(
             HttpServletRequest request,
             @PathVariable Long id,
-            @RequestParam("exp") long exp,
-            @RequestParam("sig") String sig
+            @RequestParam(value = "t", required = false) String token,
+            @RequestParam(value = "exp", required = false) Long exp,
+            @RequestParam(value = "sig", required = false) String sig,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range
+    ) throws IOException {
+        if (token != null) {
+            return mediaService.streamMedia(request, id, token, range);
+        }
+        if (exp == null || sig == null) {
+            throw new IllegalArgumentException("Missing stream token");
+        }
+        // URLs issued before signed tokens
+        return mediaService.streamMedia(request, id, exp, sig, range);
+    }
+
+    // --- Adaptive stream: HLS/DASH playlists and segments, signed with the stream-url token ---
+    @RequestMapping(value = "/{id}/abr/{name:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void streamRendition(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @PathVariable Long id,
+            @PathVariable String name,
+            @RequestParam("t") String token
     ) throws IOException {
-        return mediaService.streamMedia(request, id, exp, sig, null);
+        mediaService.streamRendition(request, response, id, name, token);
+    }
+
+    // --- Rendition status (progress while transcoding) ---
+    @GetMapping("/{id}/renditions")
+    public List<RenditionResponse> getRenditions(@PathVariable Long id) {
+        return mediaService.getRenditions(id).stream().map(RenditionResponse::from).toList();
+    }
+
+    // --- Build or rebuild renditions (202; poll GET /renditions) ---
+    @PostMapping("/{id}/renditions")
+    public ResponseEntity<List<RenditionResponse>> rebuildRenditions(@PathVariable Long id) {
+        return ResponseEntity.accepted()
+                .body(mediaService.rebuildRenditions(id).stream().map(RenditionResponse::from).toList());
     }
 
     // --- Analytics ---
@@ -75,10 +127,77 @@ public class MediaController {
         return ResponseEntity.ok().headers(headers).body(analytics);
     }
 
-    // --- View logs ---
+    // --- Unique viewers over a date range (merged daily sketches) ---
+    @GetMapping("/{id}/analytics/unique-viewers")
+    public Map<String, Object> getUniqueViewers(
+            @PathVariable Long id,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return mediaService.getUniqueViewers(id, from, to);
+    }
+
+    // --- Exact views over a time range, bucketed by hour/day/week (aggregated in Postgres) ---
+    @GetMapping("/{id}/analytics/views")
+    public ViewAnalyticsResponse getViewStats(
+            @PathVariable Long id,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(value = "granularity", defaultValue = "day") String granularity
+    ) {
+        ViewAnalyticsService.Granularity bucket;
+        try {
+            bucket = ViewAnalyticsService.Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("granularity must be hour, day or week");
+        }
+        return viewAnalyticsService.viewStats(id, from, to, bucket);
+    }
+
+    // --- Most viewed media over a time range ---
+    @GetMapping("/analytics/top")
+    public List<TopMediaEntry> getTopMedia(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        return viewAnalyticsService.topMedia(from, to, limit);
+    }
+
+    // --- Rebuild analytics rollups from raw view logs (admin) ---
+    @PostMapping("/analytics/rollups/rebuild")
+    public Map<String, Object> rebuildViewRollups() {
+        return Map.of("rows", mediaService.rebuildViewRollups());
+    }
+
+    // --- View logs: keyset pages in (timestamp, id) order; pass nextCursor back as cursor ---
     @GetMapping("/{id}/view-log")
-    public List<MediaViewLog> getViewLogs(@PathVariable Long id) {
-        return mediaService.getViewLogs(id);
+    public ViewLogPage getViewLogs(
+            @PathVariable Long id,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return viewLogQueryService.page(id, from, to, cursor, limit);
+    }
+
+    // --- View log export (ndjson | csv), streamed from a database cursor ---
+    @GetMapping("/{id}/view-log/export")
+    public void exportViewLogs(
+            @PathVariable Long id,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            HttpServletResponse response
+    ) throws IOException {
+        ViewLogQueryService.Format exportFormat;
+        try {
+            exportFormat = ViewLogQueryService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("format must be ndjson or csv");
+        }
+        viewLogQueryService.export(id, from, to, exportFormat, response);
     }
 
     // --- Record view ---
@@ -0,0 +1,91 @@
+package com.bharath.media_backend.controller;
+
+import com.bharath.media_backend.api.dto.UploadCompleteResponse;
+import com.bharath.media_backend.api.dto.UploadSessionCreateRequest;
+import com.bharath.media_backend.api.dto.UploadSessionResponse;
+import com.bharath.media_backend.domain.UploadJob;
+import com.bharath.media_backend.service.FileUploadService;
+import com.bharath.media_backend.service.ResumableUploadService;
+import com.bharath.media_backend.service.UploadJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Resumable upload sessions: open, PUT chunks at offsets (retryable, parallel),
+ * then complete to store locally or queue the Cloudinary upload and media record.
+ */
+@RestController
+@RequestMapping("/media/uploads")
+public class ResumableUploadController {
+
+    private final ResumableUploadService uploadService;
+    private final FileUploadService fileUploadService;
+    private final UploadJobService uploadJobService;
+
+    public ResumableUploadController(ResumableUploadService uploadService,
+                                     FileUploadService fileUploadService,
+                                     UploadJobService uploadJobService) {
+        this.uploadService = uploadService;
+        this.fileUploadService = fileUploadService;
+        this.uploadJobService = uploadJobService;
+    }
+
+    // --- Open session ---
+    @PostMapping
+    public ResponseEntity<UploadSessionResponse> create(@RequestBody UploadSessionCreateRequest request) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(uploadService.create(request));
+    }
+
+    // --- Upload one chunk (raw request body) ---
+    @PutMapping("/{id}/chunks")
+    public UploadSessionResponse uploadChunk(
+            @PathVariable String id,
+            @RequestParam("offset") long offset,
+            HttpServletRequest request
+    ) throws IOException {
+        return uploadService.writeChunk(id, offset, request.getContentLengthLong(), request.getInputStream());
+    }
+
+    // --- Received ranges, so a client can resume after a dropped connection ---
+    @GetMapping("/{id}")
+    public UploadSessionResponse status(@PathVariable String id) throws IOException {
+        return uploadService.status(id);
+    }
+
+    // --- Assemble; target=local stores under /files, target=cloudinary queues an upload job (202) ---
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<UploadCompleteResponse> complete(
+            @PathVariable String id,
+            @RequestParam(value = "target", defaultValue = "local") String target,
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "type", required = false) String type
+    ) throws IOException {
+        if ("local".equals(target)) {
+            String fileUrl = uploadService.complete(id, fileUploadService::storeFile);
+            return ResponseEntity.ok(new UploadCompleteResponse(fileUrl, null, "File stored"));
+        }
+        if (!"cloudinary".equals(target)) {
+            throw new IllegalArgumentException("Unknown upload target: " + target);
+        }
+        if (title == null || type == null) {
+            throw new IllegalArgumentException("title and type are required for target=cloudinary");
+        }
+
+        UploadJob job = uploadService.complete(id, (file, filename) -> uploadJobService.submit(title, type, file, filename));
+        return ResponseEntity.accepted()
+                .location(URI.create("/media/jobs/" + job.getId()))
+                .body(new UploadCompleteResponse(null, job.getId(), "Upload queued"));
+    }
+
+    // --- Abort session ---
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> abort(@PathVariable String id) throws IOException {
+        uploadService.abort(id);
+        return ResponseEntity.noContent().build();
+    }
+}
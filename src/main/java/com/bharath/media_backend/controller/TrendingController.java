@@ -0,0 +1,28 @@
+package com.bharath.media_backend.controller;
+
+import com.bharath.media_backend.api.dto.TrendingEntry;
+import com.bharath.media_backend.service.TrendingService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/** Media ranked by exponentially decayed view counts */
+@RestController
+@RequestMapping("/media/trending")
+public class TrendingController {
+
+    private final TrendingService trendingService;
+
+    public TrendingController(TrendingService trendingService) {
+        this.trendingService = trendingService;
+    }
+
+    // --- Trending media; window is the decay half-life and must be configured in app.trending.windows ---
+    @GetMapping
+    public List<TrendingEntry> trending(
+            @RequestParam(value = "window", defaultValue = "1h") String window,
+            @RequestParam(value = "limit", defaultValue = "50") int limit
+    ) {
+        return trendingService.trending(window, limit);
+    }
+}
@@ -0,0 +1,54 @@
+package com.bharath.media_backend.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Adaptive-bitrate version of a MediaAsset (one per format); also the transcoding job */
+@Entity
+@Table(name="media_renditions")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class MediaRendition {
+
+    public enum Format { HLS, DASH }
+
+    public enum Status { PENDING, PROCESSING, READY, FAILED }
+
+    @Id @GeneratedValue(strategy=GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable=false)
+    private Long mediaId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable=false, length=8)
+    private Format format;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable=false, length=16)
+    private Status status;
+    @Column(nullable=false)
+    private int progress; // percent
+    private String variants; // e.g. 1080p,720p,480p
+    // Stored name (under /files) of the master playlist or MPD
+    private String manifestName;
+    @Column(nullable=false)
+    private int attempts;
+    @Column(nullable=false)
+    private Instant nextAttemptAt;
+    private Instant claimedAt;
+    @Column(length=1000)
+    private String lastError;
+    @Column(nullable=false)
+    private Instant createdAt;
+    private Instant finishedAt;
+}
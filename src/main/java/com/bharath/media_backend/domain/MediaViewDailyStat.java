@@ -0,0 +1,36 @@
+package com.bharath.media_backend.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Per-media, per-day (UTC) view count rollup maintained alongside media_view_logs */
+@Entity
+@Table(name="media_view_daily_stats")
+@IdClass(MediaViewDailyStat.Key.class)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class MediaViewDailyStat {
+    @Id
+    private Long mediaId;
+    @Id
+    private LocalDate viewDate;
+    @Column(nullable=false)
+    private long viewCount;
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long mediaId;
+        private LocalDate viewDate;
+    }
+}
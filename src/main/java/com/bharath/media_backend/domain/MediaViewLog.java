@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,11 +15,15 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/** Raw view; the table is range-partitioned by timestamp (V2 migration, ViewLogPartitionManager) */
 @Entity
 @Table(name="media_view_logs")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class MediaViewLog {
-    @Id @GeneratedValue(strategy=GenerationType.IDENTITY)
+    // Sequence (not IDENTITY) so Hibernate can JDBC-batch inserts from ViewLogWriter
+    @Id
+    @GeneratedValue(strategy=GenerationType.SEQUENCE, generator="media_view_logs_seq")
+    @SequenceGenerator(name="media_view_logs_seq", sequenceName="media_view_logs_seq", allocationSize=100)
     private Long id;
     @Column(nullable=false)
     private Long mediaId;
@@ -0,0 +1,61 @@
+package com.bharath.media_backend.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Persisted upload-processing job: staged local file -> primary storage backend -> MediaAsset */
+@Entity
+@Table(name="upload_jobs")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class UploadJob {
+
+    public enum Status { PENDING, PROCESSING, SUCCEEDED, FAILED }
+
+    @Id @GeneratedValue(strategy=GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable=false, length=16)
+    private Status status;
+    @Column(nullable=false)
+    private String title;
+    @Column(nullable=false)
+    private String type; // video/audio
+    @Column(nullable=false)
+    private String originalFilename;
+    @Column(nullable=false)
+    private String stagedPath;
+    // Node whose disk holds stagedPath; only that node's worker claims the job
+    private String stagedOn;
+    @Column(nullable=false)
+    private long size;
+    @Column(nullable=false)
+    private int attempts;
+    @Column(nullable=false)
+    private Instant nextAttemptAt;
+    private Instant claimedAt;
+    // Set once the CDN upload succeeds so a retry only has to save the record
+    private String fileUrl;
+    private Long mediaId;
+    @Column(length=1000)
+    private String lastError;
+    @Column(nullable=false)
+    private Instant createdAt;
+    private Instant finishedAt;
+    // Bumped by every claim and requeue, so a worker whose lease expired cannot save over its successor
+    @Version
+    private long version;
+}
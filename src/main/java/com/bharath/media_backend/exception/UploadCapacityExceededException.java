@@ -0,0 +1,7 @@
+package com.bharath.media_backend.exception;
+
+public class UploadCapacityExceededException extends RuntimeException {
+    public UploadCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bharath.media_backend.exception;
+
+public class UploadJobNotFoundException extends RuntimeException {
+    public UploadJobNotFoundException(String message) {
+        super(message);
+    }
+}
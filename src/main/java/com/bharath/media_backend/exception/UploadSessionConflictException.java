@@ -0,0 +1,7 @@
+package com.bharath.media_backend.exception;
+
+public class UploadSessionConflictException extends RuntimeException {
+    public UploadSessionConflictException(String message) {
+        super(message);
+    }
+}
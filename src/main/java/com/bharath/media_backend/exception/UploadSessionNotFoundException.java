@@ -0,0 +1,7 @@
+package com.bharath.media_backend.exception;
+
+public class UploadSessionNotFoundException extends RuntimeException {
+    public UploadSessionNotFoundException(String message) {
+        super(message);
+    }
+}
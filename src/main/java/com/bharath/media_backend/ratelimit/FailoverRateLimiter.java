@@ -0,0 +1,33 @@
+package com.bharath.media_backend.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+/** Uses the primary (Redis) limiter, falling back to the in-process one while it is unreachable */
+public class FailoverRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(FailoverRateLimiter.class);
+
+    private final RateLimiter primary;
+    private final RateLimiter fallback;
+    private final Counter fallbacks;
+
+    public FailoverRateLimiter(RateLimiter primary, RateLimiter fallback, Counter fallbacks) {
+        this.primary = primary;
+        this.fallback = fallback;
+        this.fallbacks = fallbacks;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(RateLimitPolicy policy, Long mediaId, String clientIp) {
+        try {
+            return primary.tryAcquire(policy, mediaId, clientIp);
+        } catch (DataAccessException e) {
+            fallbacks.increment();
+            log.debug("Redis rate limiter unavailable, using in-process limiter", e);
+            return fallback.tryAcquire(policy, mediaId, clientIp);
+        }
+    }
+}
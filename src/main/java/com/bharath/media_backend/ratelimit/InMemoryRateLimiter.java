@@ -0,0 +1,133 @@
+package com.bharath.media_backend.ratelimit;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-JVM GCRA limiter with a hard memory cap and no per-request allocation.
+ *
+ * State lives in fixed-size primitive arrays split into lock stripes. A key is
+ * (policy, media id, client IP packed into two longs) and may only live in a
+ * small window of {@code WAYS} slots starting at its hash, like a
+ * set-associative cache. A slot whose theoretical arrival time has passed is
+ * idle (bucket full) and counts as free, so idle keys expire without a sweep.
+ * When every slot in the window is busy, the one due soonest is evicted.
+ */
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private static final int WAYS = 8;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int slotsPerStripe;
+    private final LongSupplier clock;
+
+    public InMemoryRateLimiter(int maxKeys, int stripes) {
+        this(maxKeys, stripes, System::currentTimeMillis);
+    }
+
+    InMemoryRateLimiter(int maxKeys, int stripes, LongSupplier clock) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes));
+        this.stripes = new Stripe[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        this.slotsPerStripe = Math.max(WAYS, maxKeys / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(slotsPerStripe);
+        }
+        this.clock = clock;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(RateLimitPolicy policy, Long mediaId, String clientIp) {
+        int policyId = policy.name().hashCode();
+        long media = mediaId;
+        long ipHi = IpKeys.high(clientIp);
+        long ipLo = IpKeys.low(clientIp);
+
+        long hash = mix(policyId, media, ipHi, ipLo);
+        Stripe stripe = stripes[(int) (hash >>> 40) & stripeMask];
+        int base = (int) ((hash & 0x7fffffffL) % slotsPerStripe);
+
+        long now = clock.getAsLong();
+        stripe.lock.lock();
+        try {
+            int slot = stripe.findOrClaim(base, policyId, media, ipHi, ipLo, now, slotsPerStripe);
+            long tat = Math.max(stripe.tat[slot], now);
+            long allowAt = tat - policy.burstMillis();
+            if (now < allowAt) {
+                return RateLimitDecision.deny(allowAt - now);
+            }
+            stripe.tat[slot] = tat + policy.intervalMillis();
+            return RateLimitDecision.allow();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /** Keys that still hold state (not yet refilled) */
+    public int size() {
+        long now = clock.getAsLong();
+        int live = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (int i = 0; i < slotsPerStripe; i++) {
+                    if (stripe.tat[i] > now) live++;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return live;
+    }
+
+    public int capacity() {
+        return slotsPerStripe * stripes.length;
+    }
+
+    private static long mix(int policyId, long media, long ipHi, long ipLo) {
+        long h = policyId * 0x9E3779B97F4A7C15L;
+        h = (h ^ media) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ ipHi) * 0x165667B19E3779F9L;
+        h = (h ^ ipLo) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 31);
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final int[] policy;
+        final long[] media;
+        final long[] ipHi;
+        final long[] ipLo;
+        final long[] tat; // 0 = never used
+
+        Stripe(int slots) {
+            policy = new int[slots];
+            media = new long[slots];
+            ipHi = new long[slots];
+            ipLo = new long[slots];
+            tat = new long[slots];
+        }
+
+        /** Slot holding this key, else a free/idle slot in its window, else the slot due soonest */
+        int findOrClaim(int base, int policyId, long mediaId, long hi, long lo, long now, int slots) {
+            int free = -1;
+            int victim = base;
+            for (int i = 0; i < WAYS; i++) {
+                int s = (base + i) % slots;
+                if (tat[s] != 0 && policy[s] == policyId && media[s] == mediaId && ipHi[s] == hi && ipLo[s] == lo) {
+                    return s;
+                }
+                if (free < 0 && tat[s] <= now) free = s;
+                if (tat[s] < tat[victim]) victim = s;
+            }
+            int s = free >= 0 ? free : victim;
+            policy[s] = policyId;
+            media[s] = mediaId;
+            ipHi[s] = hi;
+            ipLo[s] = lo;
+            tat[s] = now;
+            return s;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.bharath.media_backend.ratelimit;
+
+/**
+ * Packs a client IP string into two longs without allocating. Dotted IPv4
+ * addresses pack exactly; anything else (IPv6, unparsable forwarded values)
+ * is reduced to a 128-bit hash of its characters.
+ */
+final class IpKeys {
+
+    private static final long IPV4_TAG = 1L << 32;
+
+    private IpKeys() {}
+
+    static long high(String ip) {
+        return parseIpv4(ip) >= 0 ? 0 : fnv1a(ip, 0xcbf29ce484222325L);
+    }
+
+    static long low(String ip) {
+        long v4 = parseIpv4(ip);
+        return v4 >= 0 ? IPV4_TAG | v4 : fnv1a(ip, 0x84222325cbf29ce4L) | Long.MIN_VALUE;
+    }
+
+    /** Unsigned 32-bit IPv4 value, or -1 if not a dotted quad */
+    static long parseIpv4(String ip) {
+        if (ip == null) return -1;
+        long value = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) return -1;
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                value = (value << 8) | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        if (dots != 3 || octet < 0) return -1;
+        return (value << 8) | octet;
+    }
+
+    private static long fnv1a(String s, long seed) {
+        long h = seed;
+        if (s == null) return h;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
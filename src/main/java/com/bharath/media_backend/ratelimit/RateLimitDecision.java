@@ -0,0 +1,19 @@
+package com.bharath.media_backend.ratelimit;
+
+public record RateLimitDecision(boolean allowed, long retryAfterMillis) {
+
+    private static final RateLimitDecision ALLOWED = new RateLimitDecision(true, 0);
+
+    public static RateLimitDecision allow() {
+        return ALLOWED;
+    }
+
+    public static RateLimitDecision deny(long retryAfterMillis) {
+        return new RateLimitDecision(false, retryAfterMillis);
+    }
+
+    /** Retry-After header value in whole seconds (at least 1) */
+    public long retryAfterSeconds() {
+        return Math.max(1, (retryAfterMillis + 999) / 1000);
+    }
+}
@@ -0,0 +1,22 @@
+package com.bharath.media_backend.ratelimit;
+
+import java.time.Duration;
+
+/** Allow {@code permits} requests per {@code window} (burst up to {@code permits}) */
+public record RateLimitPolicy(String name, int permits, Duration window) {
+
+    public RateLimitPolicy {
+        if (permits <= 0) throw new IllegalArgumentException("permits must be positive");
+        if (window.isZero() || window.isNegative()) throw new IllegalArgumentException("window must be positive");
+    }
+
+    /** GCRA emission interval: time for one permit to refill */
+    public long intervalMillis() {
+        return Math.max(1, window.toMillis() / permits);
+    }
+
+    /** GCRA burst tolerance: how far ahead of now the bucket may be booked */
+    public long burstMillis() {
+        return intervalMillis() * (permits - 1);
+    }
+}
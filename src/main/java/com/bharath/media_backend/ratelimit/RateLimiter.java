@@ -0,0 +1,7 @@
+package com.bharath.media_backend.ratelimit;
+
+/** Per (media, client IP) request limiter */
+public interface RateLimiter {
+
+    RateLimitDecision tryAcquire(RateLimitPolicy policy, Long mediaId, String clientIp);
+}
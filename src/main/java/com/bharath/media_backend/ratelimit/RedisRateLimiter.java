@@ -0,0 +1,50 @@
+package com.bharath.media_backend.ratelimit;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Cluster-wide GCRA (token bucket) limiter: one atomic Lua call per request,
+ * one Redis key per (policy, media, IP) holding the theoretical arrival time.
+ * Uses Redis TIME so replicas with skewed clocks agree.
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GCRA = new DefaultRedisScript<>("""
+            local interval = tonumber(ARGV[1])
+            local burst = tonumber(ARGV[2])
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            if tat < now then tat = now end
+            local allow_at = tat - burst
+            if now < allow_at then
+                return {0, allow_at - now}
+            end
+            local new_tat = tat + interval
+            redis.call('SET', KEYS[1], new_tat, 'PX', new_tat - now)
+            return {1, 0}
+            """, List.class);
+
+    private final StringRedisTemplate redis;
+
+    public RedisRateLimiter(StringRedisTemplate redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(RateLimitPolicy policy, Long mediaId, String clientIp) {
+        String key = "rl:" + policy.name() + ":" + mediaId + ":" + clientIp;
+        List<?> result = redis.execute(GCRA, List.of(key),
+                String.valueOf(policy.intervalMillis()), String.valueOf(policy.burstMillis()));
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("Unexpected rate limiter script result: " + result);
+        }
+        boolean allowed = ((Number) result.get(0)).longValue() == 1;
+        return allowed ? RateLimitDecision.allow() : RateLimitDecision.deny(((Number) result.get(1)).longValue());
+    }
+}
@@ -6,4 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.bharath.media_backend.domain.MediaAsset;
 
-public interface MediaAssetRepository extends JpaRepository<MediaAsset, Long> {}
+public interface MediaAssetRepository extends JpaRepository<MediaAsset, Long> {
+
+	boolean existsByFileUrl(String fileUrl);
+}
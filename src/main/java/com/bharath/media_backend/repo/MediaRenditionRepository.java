@@ -0,0 +1,51 @@
+package com.bharath.media_backend.repo;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bharath.media_backend.domain.MediaRendition;
+
+public interface MediaRenditionRepository extends JpaRepository<MediaRendition, Long> {
+
+	List<MediaRendition> findByMediaIdOrderByFormat(Long mediaId);
+
+	Optional<MediaRendition> findByMediaIdAndFormat(Long mediaId, MediaRendition.Format format);
+
+	long countByStatus(MediaRendition.Status status);
+
+	/** Lock due renditions, skipping rows another node has already locked */
+	@Query(nativeQuery = true, value = """
+			SELECT id FROM media_renditions
+			WHERE status = 'PENDING' AND next_attempt_at <= :now
+			ORDER BY next_attempt_at
+			LIMIT :limit
+			FOR UPDATE SKIP LOCKED
+			""")
+	List<Long> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+	@Modifying
+	@Query("""
+			UPDATE MediaRendition r SET r.status = :status, r.claimedAt = :now, r.attempts = r.attempts + 1, r.progress = 0
+			WHERE r.id IN :ids
+			""")
+	int markClaimed(@Param("ids") List<Long> ids, @Param("status") MediaRendition.Status status, @Param("now") Instant now);
+
+	@Modifying
+	@Query("UPDATE MediaRendition r SET r.progress = :progress WHERE r.id = :id")
+	int updateProgress(@Param("id") Long id, @Param("progress") int progress);
+
+	/** Return renditions whose worker died (crash, restart) to the queue */
+	@Modifying
+	@Query("""
+			UPDATE MediaRendition r SET r.status = :pending, r.nextAttemptAt = :now
+			WHERE r.status = :processing AND r.claimedAt < :staleBefore
+			""")
+	int requeueStale(@Param("processing") MediaRendition.Status processing, @Param("pending") MediaRendition.Status pending,
+	                 @Param("staleBefore") Instant staleBefore, @Param("now") Instant now);
+}
@@ -0,0 +1,48 @@
+package com.bharath.media_backend.repo;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bharath.media_backend.domain.MediaViewDailyStat;
+
+public interface MediaViewDailyStatRepository extends JpaRepository<MediaViewDailyStat, MediaViewDailyStat.Key> {
+
+	List<MediaViewDailyStat> findByMediaIdOrderByViewDateAsc(Long mediaId);
+
+	@Modifying
+	@Query(nativeQuery = true, value = """
+			INSERT INTO media_view_daily_stats (media_id, view_date, view_count)
+			VALUES (:mediaId, :viewDate, :delta)
+			ON CONFLICT (media_id, view_date)
+			DO UPDATE SET view_count = media_view_daily_stats.view_count + EXCLUDED.view_count
+			""")
+	void increment(@Param("mediaId") Long mediaId, @Param("viewDate") LocalDate viewDate, @Param("delta") long delta);
+
+	/** Recompute rollups from raw view logs in [from, to); idempotent */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+			INSERT INTO media_view_daily_stats (media_id, view_date, view_count)
+			SELECT media_id, CAST(timezone('UTC', timestamp) AS date), COUNT(*)
+			FROM media_view_logs
+			WHERE timestamp >= :from AND timestamp < :to
+			GROUP BY 1, 2
+			ON CONFLICT (media_id, view_date)
+			DO UPDATE SET view_count = EXCLUDED.view_count
+			""")
+	int rebuildRange(@Param("from") Instant from, @Param("to") Instant to);
+
+	/** Views per media over the UTC days from {@code from} on; media without views are absent */
+	@Query(nativeQuery = true, value = """
+			SELECT media_id AS "mediaId", SUM(view_count) AS views
+			FROM media_view_daily_stats
+			WHERE view_date >= :from
+			GROUP BY media_id
+			""")
+	List<MediaViewLogRepository.MediaViewCount> viewsSince(@Param("from") LocalDate from);
+}
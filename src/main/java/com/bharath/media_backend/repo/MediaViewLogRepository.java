@@ -1,13 +1,104 @@
 package com.bharath.media_backend.repo;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.bharath.media_backend.api.dto.ViewLogEntry;
 import com.bharath.media_backend.domain.MediaViewLog;
 
+import jakarta.persistence.QueryHint;
+
 
 public interface MediaViewLogRepository extends JpaRepository<MediaViewLog, Long> {
 
-	List<MediaViewLog> findByMediaId(Long id);}
+	int EXPORT_FETCH_SIZE = 1000;
+
+	/**
+	 * Keyset page: rows after (afterTimestamp, afterId) in (timestamp, id) order, before {@code to}.
+	 * Start a scan with afterTimestamp = from and afterId = Long.MIN_VALUE.
+	 */
+	@Query("""
+			SELECT new com.bharath.media_backend.api.dto.ViewLogEntry(v.id, v.mediaId, v.viewedByIp, v.timestamp)
+			FROM MediaViewLog v
+			WHERE v.mediaId = :mediaId AND v.timestamp < :to
+			  AND (v.timestamp > :afterTimestamp OR (v.timestamp = :afterTimestamp AND v.id > :afterId))
+			ORDER BY v.timestamp ASC, v.id ASC
+			""")
+	List<ViewLogEntry> findPage(@Param("mediaId") Long mediaId,
+								@Param("afterTimestamp") Instant afterTimestamp,
+								@Param("afterId") Long afterId,
+								@Param("to") Instant to,
+								Pageable pageable);
+
+	/** Server-side cursor over [from, to); must be consumed inside a transaction and closed */
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("""
+			SELECT new com.bharath.media_backend.api.dto.ViewLogEntry(v.id, v.mediaId, v.viewedByIp, v.timestamp)
+			FROM MediaViewLog v
+			WHERE v.mediaId = :mediaId AND v.timestamp >= :from AND v.timestamp < :to
+			ORDER BY v.timestamp ASC, v.id ASC
+			""")
+	Stream<ViewLogEntry> streamRange(@Param("mediaId") Long mediaId,
+									 @Param("from") Instant from,
+									 @Param("to") Instant to);
+
+	// --- Aggregates computed in Postgres; only result rows cross the wire ---
+
+	interface ViewTotals {
+		long getViews();
+		long getUniqueIps();
+	}
+
+	interface ViewBucket {
+		/** Bucket start in UTC */
+		LocalDateTime getBucket();
+		long getViews();
+		long getUniqueIps();
+	}
+
+	interface MediaViewCount {
+		Long getMediaId();
+		long getViews();
+	}
+
+	@Query(nativeQuery = true, value = """
+			SELECT COUNT(*) AS views, COUNT(DISTINCT viewed_by_ip) AS "uniqueIps"
+			FROM media_view_logs
+			WHERE media_id = :mediaId AND timestamp >= :from AND timestamp < :to
+			""")
+	ViewTotals aggregateTotals(@Param("mediaId") Long mediaId, @Param("from") Instant from, @Param("to") Instant to);
+
+	/** {@code unit} is a date_trunc field: hour, day or week (ISO weeks start on Monday) */
+	@Query(nativeQuery = true, value = """
+			SELECT date_trunc(:unit, timestamp AT TIME ZONE 'UTC') AS bucket,
+			       COUNT(*) AS views, COUNT(DISTINCT viewed_by_ip) AS "uniqueIps"
+			FROM media_view_logs
+			WHERE media_id = :mediaId AND timestamp >= :from AND timestamp < :to
+			GROUP BY 1
+			ORDER BY 1
+			""")
+	List<ViewBucket> aggregateBuckets(@Param("mediaId") Long mediaId, @Param("unit") String unit,
+									  @Param("from") Instant from, @Param("to") Instant to);
+
+	@Query(nativeQuery = true, value = """
+			SELECT media_id AS "mediaId", COUNT(*) AS views
+			FROM media_view_logs
+			WHERE timestamp >= :from AND timestamp < :to
+			GROUP BY media_id
+			ORDER BY views DESC, media_id
+			LIMIT :limit
+			""")
+	List<MediaViewCount> topMedia(@Param("from") Instant from, @Param("to") Instant to, @Param("limit") int limit);
+}
@@ -0,0 +1,44 @@
+package com.bharath.media_backend.repo;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.bharath.media_backend.domain.UploadJob;
+
+public interface UploadJobRepository extends JpaRepository<UploadJob, Long> {
+
+	long countByStatus(UploadJob.Status status);
+
+	/** Lock due jobs staged on {@code node}, skipping rows another worker has already locked */
+	@Query(nativeQuery = true, value = """
+			SELECT id FROM upload_jobs
+			WHERE status = 'PENDING' AND next_attempt_at <= :now
+			  AND (staged_on = :node OR staged_on IS NULL)
+			ORDER BY next_attempt_at
+			LIMIT :limit
+			FOR UPDATE SKIP LOCKED
+			""")
+	List<Long> lockDueJobs(@Param("now") Instant now, @Param("node") String node, @Param("limit") int limit);
+
+	@Modifying
+	@Query("""
+			UPDATE UploadJob j SET j.status = :status, j.claimedAt = :now, j.attempts = j.attempts + 1,
+			    j.version = j.version + 1
+			WHERE j.id IN :ids
+			""")
+	int markClaimed(@Param("ids") List<Long> ids, @Param("status") UploadJob.Status status, @Param("now") Instant now);
+
+	/** Return jobs whose worker died (crash, restart) to the queue */
+	@Modifying
+	@Query("""
+			UPDATE UploadJob j SET j.status = :pending, j.nextAttemptAt = :now, j.version = j.version + 1
+			WHERE j.status = :processing AND j.claimedAt < :staleBefore
+			""")
+	int requeueStale(@Param("processing") UploadJob.Status processing, @Param("pending") UploadJob.Status pending,
+	                 @Param("staleBefore") Instant staleBefore, @Param("now") Instant now);
+}
@@ -4,7 +4,6 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -12,12 +11,12 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     public JwtAuthFilter(JwtService jwtService) {
         this.jwtService = jwtService;
@@ -42,14 +41,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             try {
-                var claims = jwtService.parseToken(token);
-                String email = claims.getSubject();
-                String role = claims.get("role", String.class);
-
-                // Map role to Spring Security authority
-                var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
-                var auth = new UsernamePasswordAuthenticationToken(email, null, authorities);
-                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // Cached after the first request with this token; authorities come prebuilt
+                JwtService.VerifiedToken verified = jwtService.authenticate(token);
+                var auth = new UsernamePasswordAuthenticationToken(verified.subject(), null, verified.authorities());
+                auth.setDetails(detailsSource.buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(auth);
             } catch (Exception e) {
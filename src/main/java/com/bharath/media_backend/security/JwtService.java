@@ -1,36 +1,138 @@
 package com.bharath.media_backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
+    /** Identity taken from a verified token; authorities are built once and reused */
+    public record VerifiedToken(String subject, String role, long expiresAtMillis,
+                                List<GrantedAuthority> authorities) {}
+
     @Value("${app.jwt.secret}")
     private String secret;
 
     @Value("${app.jwt.ttl-ms}")
     private long ttlMs;
 
+    @Value("${app.jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter invalidTokens;
+    private final Timer verifyTimer;
+
+    // Built once: the parser is immutable and thread-safe
+    private Key key;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verified;
+
+    public JwtService(MeterRegistry meterRegistry) {
+        this.cacheHits = Counter.builder("security.jwt.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder("security.jwt.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.invalidTokens = Counter.builder("security.jwt.invalid")
+                .description("Bearer tokens that failed verification")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("security.jwt.verify")
+                .description("Signature verification and claims parsing on a cache miss")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS256.getJcaName());
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String hash, VerifiedToken token, long currentTime) {
+                        // Drop the entry exactly when the token itself expires
+                        long remaining = token.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     public String generateToken(String email, String role) {
         return Jwts.builder()
                 .setSubject(email)
                 .claim("role", role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + ttlMs))
-                .signWith(SignatureAlgorithm.HS256, secret.getBytes()) // safer byte conversion
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Claims parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secret.getBytes()) // safer byte conversion
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verify a bearer token, skipping signature checks and JSON parsing for tokens
+     * already verified. The cache is keyed by SHA-256 of the token, so raw tokens
+     * are not retained. Throws {@link JwtException} for invalid or expired tokens.
+     */
+    public VerifiedToken authenticate(String token) {
+        String hash = sha256(token);
+        VerifiedToken cached = verified.getIfPresent(hash);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            cacheHits.increment();
+            return cached;
+        }
+        cacheMisses.increment();
+
+        long start = System.nanoTime();
+        try {
+            Claims claims = parseToken(token);
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                throw new MalformedJwtException("Token has no expiration");
+            }
+            String role = claims.get("role", String.class);
+            VerifiedToken result = new VerifiedToken(claims.getSubject(), role, expiration.getTime(),
+                    List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+            verified.put(hash, result);
+            return result;
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTokens.increment();
+            throw e;
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     // Optional: validate token
@@ -42,4 +144,13 @@ public class JwtService {
             return false;
         }
     }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
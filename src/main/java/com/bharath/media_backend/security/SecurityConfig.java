@@ -30,10 +30,11 @@ public class SecurityConfig {
                     "/auth/**",
                     "/media/upload",
                     "/media/*/stream",
+                    "/media/*/abr/*",
                     "/files/**"
                 ).permitAll()
                 // Analytics endpoint - only ADMIN
-                .requestMatchers("/media/*/analytics").hasRole("ADMIN")
+                .requestMatchers("/media/*/analytics", "/media/*/analytics/**", "/media/analytics/**").hasRole("ADMIN")
                 // All other endpoints require authentication
                 .anyRequest().authenticated()
             .and()
@@ -0,0 +1,126 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Write-through analytics cache: one Redis hash per media holding the total and
+ * per-day counts, incremented in place as view batches are written instead of
+ * being evicted.
+ *
+ * Entries are not refreshed on increment, so each one is rebuilt from the
+ * rollups once per TTL; that bounds any drift from increments that race with
+ * a rebuild.
+ */
+@Component
+public class AnalyticsCache implements ViewLogListener {
+
+    private static final String KEY_PREFIX = "analytics:media:";
+    private static final String TOTAL_FIELD = "total";
+    private static final String DAY_PREFIX = "d:";
+
+    // Only touch entries that are already cached; a missing entry is rebuilt on read
+    static final RedisScript<Long> INCREMENT_IF_PRESENT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end
+            for i = 1, #ARGV, 2 do
+                redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            return 1
+            """, Long.class);
+
+    // Populate only if absent so a slow rebuild can't overwrite newer increments
+    static final RedisScript<Long> POPULATE_IF_ABSENT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            for i = 2, #ARGV, 2 do
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /** Cached analytics for one media */
+    public record Entry(long totalViews, Map<String, Long> viewsPerDay) {}
+
+    private final StringRedisTemplate redis;
+    private final Duration ttl;
+    private final Counter hits;
+    private final Counter misses;
+
+    public AnalyticsCache(StringRedisTemplate redis,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.analytics.cache.ttl:10m}") Duration ttl) {
+        this.redis = redis;
+        this.ttl = ttl;
+        this.hits = Counter.builder("media.analytics.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("media.analytics.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    public Optional<Entry> get(Long mediaId) {
+        Map<Object, Object> hash = redis.opsForHash().entries(key(mediaId));
+        if (hash.isEmpty()) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+
+        long total = 0;
+        Map<String, Long> viewsPerDay = new TreeMap<>();
+        for (Map.Entry<Object, Object> field : hash.entrySet()) {
+            String name = field.getKey().toString();
+            long value = Long.parseLong(field.getValue().toString());
+            if (name.equals(TOTAL_FIELD)) {
+                total = value;
+            } else if (name.startsWith(DAY_PREFIX)) {
+                viewsPerDay.put(name.substring(DAY_PREFIX.length()), value);
+            }
+        }
+        return Optional.of(new Entry(total, viewsPerDay));
+    }
+
+    public void populate(Long mediaId, Entry entry) {
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(ttl.getSeconds()));
+        args.add(TOTAL_FIELD);
+        args.add(String.valueOf(entry.totalViews()));
+        entry.viewsPerDay().forEach((day, count) -> {
+            args.add(DAY_PREFIX + day);
+            args.add(String.valueOf(count));
+        });
+        redis.execute(POPULATE_IF_ABSENT, List.of(key(mediaId)), args.toArray());
+    }
+
+    @Override
+    public void onViewsWritten(List<MediaViewLog> batch) {
+        Map<Long, Map<String, Long>> deltas = new HashMap<>();
+        for (MediaViewLog view : batch) {
+            String day = LocalDate.ofInstant(view.getTimestamp(), ZoneOffset.UTC).toString();
+            Map<String, Long> fields = deltas.computeIfAbsent(view.getMediaId(), k -> new HashMap<>());
+            fields.merge(TOTAL_FIELD, 1L, Long::sum);
+            fields.merge(DAY_PREFIX + day, 1L, Long::sum);
+        }
+
+        deltas.forEach((mediaId, fields) -> {
+            List<String> args = new ArrayList<>(fields.size() * 2);
+            fields.forEach((field, delta) -> {
+                args.add(field);
+                args.add(String.valueOf(delta));
+            });
+            redis.execute(INCREMENT_IF_PRESENT, List.of(key(mediaId)), args.toArray());
+        });
+    }
+
+    private static String key(Long mediaId) {
+        return KEY_PREFIX + mediaId;
+    }
+}
@@ -0,0 +1,173 @@
+package com.bharath.media_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed blob files under {@code <upload dir>/.blobs/ab/cd/<sha256>}.
+ *
+ * Incoming bytes are hashed while they are written to a temp file in
+ * {@code <upload dir>/.tmp}; the temp file is then renamed onto its hash path.
+ * Both directories are on the same filesystem, so the rename is atomic and a
+ * blob path either holds the complete content or does not exist. Blobs are
+ * immutable; who references them is {@link FileUploadService}'s business.
+ */
+@Component
+public class BlobStore {
+
+    private static final String BLOBS_DIR = ".blobs";
+    private static final String TMP_DIR = ".tmp";
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** A blob written (or found) by {@link #put} */
+    public record Blob(String sha256, long size, Path path, boolean existed) {}
+
+    /** Bytes hashed into a temp file that is not yet in the store */
+    public record Staged(String sha256, long size, Path tmp) {}
+
+    private final Path blobsDir;
+    private final Path tmpDir;
+
+    public BlobStore(@Value("${app.upload.dir:uploads}") String uploadDir) throws IOException {
+        Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.blobsDir = root.resolve(BLOBS_DIR);
+        this.tmpDir = root.resolve(TMP_DIR);
+        Files.createDirectories(blobsDir);
+        Files.createDirectories(tmpDir);
+    }
+
+    /** Copy a stream into a temp file, hashing it on the way */
+    public Staged stage(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = Files.createTempFile(tmpDir, "blob-", ".tmp");
+        long size = 0;
+        try (in; OutputStream out = Files.newOutputStream(tmp)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+                out.write(buffer, 0, n);
+                size += n;
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return new Staged(HexFormat.of().formatHex(digest.digest()), size, tmp);
+    }
+
+    /** Hash a file that is already on this filesystem (e.g. an assembled resumable upload) */
+    public Staged stage(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return new Staged(HexFormat.of().formatHex(digest.digest()), Files.size(file), file);
+    }
+
+    /**
+     * Hash a file through a hard link in the temp dir, so the original stays
+     * readable at its old path until the caller removes it.
+     */
+    public Staged stageLink(Path file) throws IOException {
+        Path link = tmpDir.resolve("link-" + UUID.randomUUID() + ".tmp");
+        Files.createLink(link, file);
+        try {
+            return stage(link);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(link);
+            throw e;
+        }
+    }
+
+    /**
+     * Move a staged file onto its hash path. If the blob already exists the
+     * staged copy is deleted and the blob's mtime is refreshed, so a garbage
+     * sweep that is deciding about it sees it as fresh.
+     */
+    public Blob put(Staged staged) throws IOException {
+        Path target = path(staged.sha256());
+        if (Files.exists(target)) {
+            Files.deleteIfExists(staged.tmp());
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return new Blob(staged.sha256(), staged.size(), target, true);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(staged.tmp(), target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Lost a race with an identical upload; the content is the same
+            Files.deleteIfExists(staged.tmp());
+            return new Blob(staged.sha256(), staged.size(), target, true);
+        }
+        return new Blob(staged.sha256(), staged.size(), target, false);
+    }
+
+    public boolean exists(String sha256) {
+        return Files.isRegularFile(path(sha256));
+    }
+
+    /** Path a blob lives (or would live) at */
+    public Path path(String sha256) {
+        if (!isValidHash(sha256)) {
+            throw new IllegalArgumentException("Invalid SHA-256: " + sha256);
+        }
+        return blobsDir.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    public void delete(String sha256) throws IOException {
+        Files.deleteIfExists(path(sha256));
+    }
+
+    /** Visit every blob file */
+    public void forEach(Consumer<Path> action) throws IOException {
+        try (Stream<Path> files = Files.find(blobsDir, 3,
+                (file, attrs) -> attrs.isRegularFile() && isValidHash(file.getFileName().toString()))) {
+            files.forEach(action);
+        }
+    }
+
+    /** Remove temp files left by uploads that died before {@code cutoff}; returns how many */
+    public int purgeTemp(Instant cutoff) throws IOException {
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tmpDir)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    public static boolean isValidHash(String sha256) {
+        return sha256 != null && SHA256.matcher(sha256).matches();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
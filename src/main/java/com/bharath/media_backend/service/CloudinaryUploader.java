@@ -0,0 +1,118 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.exception.UploadCapacityExceededException;
+import com.cloudinary.Cloudinary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams uploads to Cloudinary with its chunked upload protocol
+ * (X-Unique-Upload-Id + Content-Range per chunk), so heap use per upload is
+ * one chunk buffer instead of the whole file. Each chunk is retried on its
+ * own, and the number of concurrent uploads is capped.
+ */
+@Component
+public class CloudinaryUploader {
+
+    private static final Logger log = LoggerFactory.getLogger(CloudinaryUploader.class);
+
+    private final Cloudinary cloudinary;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long acquireTimeoutMillis;
+    private final Semaphore uploadPermits;
+
+    public CloudinaryUploader(Cloudinary cloudinary,
+                              @Value("${app.cloudinary.upload.chunk-size:6291456}") int chunkSize,
+                              @Value("${app.cloudinary.upload.max-attempts:3}") int maxAttempts,
+                              @Value("${app.cloudinary.upload.retry-backoff-ms:500}") long retryBackoffMillis,
+                              @Value("${app.cloudinary.upload.max-concurrent:4}") int maxConcurrent,
+                              @Value("${app.cloudinary.upload.acquire-timeout-ms:2000}") long acquireTimeoutMillis) {
+        // Cloudinary rejects chunks under 5 MB (except the last one)
+        if (chunkSize < 5 * 1024 * 1024) throw new IllegalArgumentException("Chunk size must be at least 5 MB");
+        this.cloudinary = cloudinary;
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.uploadPermits = new Semaphore(maxConcurrent, true);
+    }
+
+    /** Upload {@code size} bytes from {@code in}; returns the final upload result */
+    public Map<?, ?> upload(InputStream in, long size, Map<String, Object> options) throws IOException {
+        if (size <= 0) throw new IllegalArgumentException("Empty file not allowed");
+
+        acquirePermit();
+        try {
+            String uploadId = UUID.randomUUID().toString();
+            byte[] buffer = new byte[(int) Math.min(chunkSize, size)];
+            Map<?, ?> result = null;
+
+            for (long offset = 0; offset < size; ) {
+                int length = (int) Math.min(chunkSize, size - offset);
+                int read = in.readNBytes(buffer, 0, length);
+                if (read != length) {
+                    throw new IOException("Upload stream ended at " + (offset + read) + " of " + size + " bytes");
+                }
+                byte[] chunk = length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+                result = uploadChunk(chunk, offset, size, uploadId, options);
+                offset += length;
+            }
+            return result;
+        } finally {
+            uploadPermits.release();
+        }
+    }
+
+    private Map<?, ?> uploadChunk(byte[] chunk, long offset, long total, String uploadId,
+                                  Map<String, Object> options) throws IOException {
+        Map<String, Object> chunkOptions = new HashMap<>(options);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-Unique-Upload-Id", uploadId);
+        headers.put("Content-Range", "bytes " + offset + "-" + (offset + chunk.length - 1) + "/" + total);
+        chunkOptions.put("extra_headers", headers);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return cloudinary.uploader().upload(chunk, chunkOptions);
+            } catch (IOException | RuntimeException e) {
+                if (attempt >= maxAttempts) throw e;
+                log.warn("Chunk at offset {} of upload {} failed (attempt {}/{}), retrying",
+                        offset, uploadId, attempt, maxAttempts, e);
+                sleep(retryBackoffMillis * (1L << (attempt - 1)));
+            }
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!uploadPermits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new UploadCapacityExceededException("Too many uploads in progress, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UploadCapacityExceededException("Interrupted while waiting for an upload slot");
+        }
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while retrying upload", e);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.storage.MediaStorage;
+import com.bharath.media_backend.util.LimitedInputStream;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of remote media, so streams can be served from this node
+ * instead of redirecting every view and seek to the CDN.
+ *
+ * Objects are cached in fixed-size segments ({@code <dir>/<ab>/<sha256 of
+ * location>.<index>}), fetched from the owning {@link MediaStorage} with range
+ * reads on first use and read back memory-mapped. Segments are evicted least
+ * recently used first once the cache holds more than {@code max-bytes}.
+ * Concurrent misses for the same segment share one origin fetch.
+ *
+ * Locations are immutable (a re-upload gets a new one), so cached segments
+ * never need invalidating; the segment index is rebuilt from disk at startup.
+ */
+@Component
+@ConditionalOnProperty(name = "app.stream.edge.enabled", havingValue = "true")
+public class EdgeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(EdgeCache.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("([0-9a-f]{64})\\.(\\d+)");
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private record SegmentKey(String object, long index) {}
+
+    private final Path dir;
+    private final int segmentSize;
+    private final long maxBytes;
+
+    /** Cached segments and their sizes in access order; guarded by itself */
+    private final LinkedHashMap<SegmentKey, Long> segments = new LinkedHashMap<>(1024, 0.75f, true);
+    private long cachedBytes;
+    private final Map<SegmentKey, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Long> sizes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter originBytes;
+    private final Counter evicted;
+
+    public EdgeCache(MeterRegistry meterRegistry,
+                     @Value("${app.stream.edge.dir:${app.upload.dir:uploads}/.edge}") String dir,
+                     @Value("${app.stream.edge.segment-size:1048576}") int segmentSize,
+                     @Value("${app.stream.edge.max-bytes:10737418240}") long maxBytes,
+                     @Value("${app.stream.edge.size-ttl:1h}") Duration sizeTtl) throws IOException {
+        if (segmentSize <= 0) throw new IllegalArgumentException("app.stream.edge.segment-size must be positive");
+        this.dir = Files.createDirectories(Path.of(dir).toAbsolutePath().normalize());
+        this.segmentSize = segmentSize;
+        this.maxBytes = maxBytes;
+        this.sizes = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(sizeTtl).build();
+
+        this.hits = Counter.builder("media.edge.segments").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("media.edge.segments").tag("result", "miss").register(meterRegistry);
+        this.coalesced = Counter.builder("media.edge.segments").tag("result", "coalesced").register(meterRegistry);
+        this.originBytes = Counter.builder("media.edge.origin.bytes").baseUnit("bytes").register(meterRegistry);
+        this.evicted = Counter.builder("media.edge.evicted").register(meterRegistry);
+        Gauge.builder("media.edge.cache.bytes", this, EdgeCache::cachedBytes).baseUnit("bytes").register(meterRegistry);
+
+        load();
+    }
+
+    /** Size of the object at {@code location}; asked of the origin once per size-ttl */
+    public long size(MediaStorage origin, String location) throws IOException {
+        try {
+            return sizes.get(location, key -> {
+                try {
+                    return origin.size(key);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * {@code length} bytes of the object from {@code offset}. Segments are
+     * fetched as the stream reaches them, so a client that stops reading early
+     * costs no more origin traffic than it consumed.
+     */
+    public InputStream open(MediaStorage origin, String location, long offset, long length) throws IOException {
+        long objectSize = size(origin, location);
+        if (offset < 0 || length < 0 || offset + length > objectSize) {
+            throw new IllegalArgumentException("Range " + offset + "+" + length + " outside object of " + objectSize + " bytes");
+        }
+        return new SegmentInputStream(origin, location, objectKey(location), objectSize, offset, offset + length);
+    }
+
+    /**
+     * The same bytes as a {@link Resource} with a known length that opens a
+     * fresh stream on each call, so Spring's own Range handling (which skips
+     * into the stream) stays cheap too.
+     */
+    public Resource resource(MediaStorage origin, String location, long offset, long length) throws IOException {
+        open(origin, location, offset, length).close(); // validates the range
+        return new AbstractResource() {
+            @Override
+            public String getDescription() {
+                return "edge cache [" + location + "]";
+            }
+
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return open(origin, location, offset, length);
+            }
+
+            @Override
+            public long contentLength() {
+                return length;
+            }
+
+            @Override
+            public String getFilename() {
+                return MediaStorage.filename(location);
+            }
+        };
+    }
+
+    /** Stable id of a location (hex SHA-256); also usable as an ETag */
+    public static String objectKey(String location) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(location.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    long cachedBytes() {
+        synchronized (segments) {
+            return cachedBytes;
+        }
+    }
+
+    // --- Segments ---
+
+    /** The segment mapped read-only, fetching it from the origin if it is not cached */
+    private ByteBuffer segment(MediaStorage origin, String location, String object, long index, long objectSize)
+            throws IOException {
+        SegmentKey key = new SegmentKey(object, index);
+        Path path = path(key);
+        // An evicted segment may vanish between lookup and map; fetch it again
+        for (int attempt = 0; ; attempt++) {
+            if (touch(key)) {
+                try {
+                    ByteBuffer mapped = map(path);
+                    hits.increment();
+                    return mapped;
+                } catch (NoSuchFileException e) {
+                    forget(key);
+                }
+            }
+
+            CompletableFuture<Path> fetch = new CompletableFuture<>();
+            CompletableFuture<Path> running = inFlight.putIfAbsent(key, fetch);
+            if (running != null) {
+                coalesced.increment();
+                await(running);
+            } else {
+                try {
+                    if (!touch(key)) {
+                        misses.increment();
+                        fetch(origin, location, key, path, objectSize);
+                    }
+                    fetch.complete(path);
+                } catch (IOException | RuntimeException e) {
+                    fetch.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(key, fetch);
+                }
+            }
+            try {
+                return map(path);
+            } catch (NoSuchFileException e) {
+                if (attempt >= 2) throw e;
+                forget(key);
+            }
+        }
+    }
+
+    private void fetch(MediaStorage origin, String location, SegmentKey key, Path path, long objectSize) throws IOException {
+        long offset = key.index() * segmentSize;
+        long length = Math.min(segmentSize, objectSize - offset);
+        Files.createDirectories(path.getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + TMP_SUFFIX);
+        try {
+            long copied;
+            // Drivers start the body at offset even if the origin ignored Range; never store past the segment
+            try (InputStream in = new LimitedInputStream(origin.get(location, offset, length), length)) {
+                copied = Files.copy(in, tmp);
+            }
+            if (copied != length) {
+                throw new IOException("Origin returned " + copied + " of " + length + " bytes at " + offset + " for " + location);
+            }
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        originBytes.increment(length);
+        add(key, length);
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static void await(CompletableFuture<Path> fetch) throws IOException {
+        try {
+            fetch.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    // --- LRU bookkeeping ---
+
+    /** True if cached; marks the segment as just used */
+    private boolean touch(SegmentKey key) {
+        synchronized (segments) {
+            return segments.get(key) != null;
+        }
+    }
+
+    private void forget(SegmentKey key) {
+        synchronized (segments) {
+            Long size = segments.remove(key);
+            if (size != null) cachedBytes -= size;
+        }
+    }
+
+    private void add(SegmentKey key, long size) {
+        List<SegmentKey> victims = new ArrayList<>();
+        synchronized (segments) {
+            Long previous = segments.put(key, size);
+            cachedBytes += size - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<SegmentKey, Long>> eldest = segments.entrySet().iterator();
+            while (cachedBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<SegmentKey, Long> entry = eldest.next();
+                if (entry.getKey().equals(key)) continue; // never the segment being served
+                cachedBytes -= entry.getValue();
+                victims.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        // Deleting is outside the lock; readers that already mapped a victim keep their mapping
+        for (SegmentKey victim : victims) {
+            try {
+                Files.deleteIfExists(path(victim));
+            } catch (IOException e) {
+                log.warn("Could not delete evicted edge segment {}", path(victim), e);
+            }
+        }
+        evicted.increment(victims.size());
+    }
+
+    private Path path(SegmentKey key) {
+        return dir.resolve(key.object().substring(0, 2)).resolve(key.object() + "." + key.index());
+    }
+
+    /** Index segments left by the previous run, oldest first so they are evicted first */
+    private void load() throws IOException {
+        record Found(SegmentKey key, long size, long lastModified) {}
+        List<Found> found = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(dir, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                Matcher m = SEGMENT_NAME.matcher(name);
+                if (!m.matches()) continue;
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                found.add(new Found(new SegmentKey(m.group(1), Long.parseLong(m.group(2))),
+                        attrs.size(), attrs.lastModifiedTime().toMillis()));
+            }
+        }
+        found.sort(Comparator.comparingLong(Found::lastModified));
+        for (Found segment : found) {
+            add(segment.key(), segment.size());
+        }
+        if (!found.isEmpty()) {
+            log.info("Edge cache: {} segments, {} bytes in {}", segments.size(), cachedBytes(), dir);
+        }
+    }
+
+    /** Reads [position, end) of an object, mapping one segment at a time */
+    private final class SegmentInputStream extends InputStream {
+
+        private final MediaStorage origin;
+        private final String location;
+        private final String object;
+        private final long objectSize;
+        private final long end;
+        private long position;
+        private ByteBuffer current;
+
+        private SegmentInputStream(MediaStorage origin, String location, String object,
+                                   long objectSize, long position, long end) {
+            this.origin = origin;
+            this.location = location;
+            this.object = object;
+            this.objectSize = objectSize;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (position >= end) return -1;
+            if (len == 0) return 0;
+            if (current == null || !current.hasRemaining()) {
+                long index = position / segmentSize;
+                long segmentStart = index * segmentSize;
+                ByteBuffer mapped = segment(origin, location, object, index, objectSize);
+                mapped.position((int) (position - segmentStart));
+                mapped.limit((int) Math.min(mapped.capacity(), end - segmentStart));
+                current = mapped;
+            }
+            int n = Math.min(len, current.remaining());
+            current.get(buffer, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, end - position));
+            position += skipped;
+            current = null;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return current == null ? 0 : current.remaining();
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.bharath.media_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Runs ffprobe / ffmpeg to cut media into adaptive-bitrate renditions: one
+ * H.264 + AAC variant per ladder rung at or below the source height (audio-only
+ * sources get a single AAC variant), as HLS (MPEG-TS segments) or DASH (fMP4).
+ * Keyframes are forced on segment boundaries so every variant switches cleanly.
+ *
+ * Each call is one external process; callers bound how many run at once.
+ */
+@Component
+public class FfmpegTranscoder {
+
+    /** One rung of the bitrate ladder */
+    public record Variant(int height, int videoKbps, int audioKbps) {
+        public String name() {
+            return height + "p";
+        }
+    }
+
+    /** What ffprobe found in the source */
+    public record Probe(double durationSeconds, int height, boolean video, boolean audio) {}
+
+    static final String HLS_MASTER = "master.m3u8";
+    static final String DASH_MANIFEST = "manifest.mpd";
+    static final String LOG_FILE = "ffmpeg.log";
+    private static final int AUDIO_ONLY_KBPS = 128;
+
+    private final String ffmpeg;
+    private final String ffprobe;
+    private final List<Variant> ladder;
+    private final int segmentSeconds;
+    private final int threads;
+    private final Duration timeout;
+    private final Set<Process> processes = ConcurrentHashMap.newKeySet();
+
+    public FfmpegTranscoder(@Value("${app.transcode.ffmpeg:ffmpeg}") String ffmpeg,
+                            @Value("${app.transcode.ffprobe:ffprobe}") String ffprobe,
+                            @Value("${app.transcode.ladder:1080:5000:192,720:2800:128,480:1400:128,360:800:96}") String ladder,
+                            @Value("${app.transcode.segment-seconds:6}") int segmentSeconds,
+                            @Value("${app.transcode.ffmpeg-threads:0}") int threads,
+                            @Value("${app.transcode.timeout:2h}") Duration timeout) {
+        this.ffmpeg = ffmpeg;
+        this.ffprobe = ffprobe;
+        this.ladder = parseLadder(ladder);
+        this.segmentSeconds = segmentSeconds;
+        this.threads = threads;
+        this.timeout = timeout;
+    }
+
+    public Probe probe(Path input) throws IOException {
+        List<String> command = List.of(ffprobe, "-v", "error",
+                "-show_entries", "stream=codec_type,height:format=duration",
+                "-of", "default=noprint_wrappers=1", input.toAbsolutePath().toString());
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output;
+        try (var in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        int exit = waitFor(process, Duration.ofMinutes(1));
+        if (exit != 0) throw new IOException("ffprobe exited with " + exit + ": " + tail(output));
+        return parseProbe(output);
+    }
+
+    /** Variants worth producing for this source, highest first; empty for audio-only */
+    public List<Variant> variantsFor(Probe probe) {
+        if (!probe.video()) return List.of();
+        List<Variant> fitting = ladder.stream().filter(v -> v.height() <= probe.height()).toList();
+        if (!fitting.isEmpty()) return fitting;
+        // Smaller than every rung: one variant at the source height
+        Variant lowest = ladder.get(ladder.size() - 1);
+        return List.of(new Variant(probe.height() - probe.height() % 2, lowest.videoKbps(), lowest.audioKbps()));
+    }
+
+    /** HLS into {@code outDir}: {@code master.m3u8} plus {@code <variant>/index.m3u8} and segments */
+    public void hls(Path input, Path outDir, Probe probe, List<Variant> variants, IntConsumer progress) throws IOException {
+        run(hlsCommand(input, probe, variants), outDir, probe.durationSeconds(), progress);
+    }
+
+    /** DASH into {@code outDir}: {@code manifest.mpd} plus init and media segments */
+    public void dash(Path input, Path outDir, Probe probe, List<Variant> variants, IntConsumer progress) throws IOException {
+        run(dashCommand(input, probe, variants), outDir, probe.durationSeconds(), progress);
+    }
+
+    List<String> hlsCommand(Path input, Probe probe, List<Variant> variants) {
+        List<String> command = baseCommand(input);
+        addEncoders(command, probe, variants);
+        String streamMap = variants.isEmpty()
+                ? "a:0,name:audio"
+                : IntStream.range(0, variants.size())
+                        .mapToObj(i -> "v:" + i + (probe.audio() ? ",a:" + i : "") + ",name:" + variants.get(i).name())
+                        .collect(Collectors.joining(" "));
+        command.addAll(List.of(
+                "-f", "hls",
+                "-hls_time", Integer.toString(segmentSeconds),
+                "-hls_playlist_type", "vod",
+                "-hls_flags", "independent_segments",
+                "-hls_segment_filename", "%v/seg_%05d.ts",
+                "-master_pl_name", HLS_MASTER,
+                "-var_stream_map", streamMap,
+                "%v/index.m3u8"));
+        return command;
+    }
+
+    List<String> dashCommand(Path input, Probe probe, List<Variant> variants) {
+        List<String> command = baseCommand(input);
+        addEncoders(command, probe, variants);
+        String adaptationSets = !probe.video() ? "id=0,streams=a"
+                : probe.audio() ? "id=0,streams=v id=1,streams=a"
+                : "id=0,streams=v";
+        command.addAll(List.of(
+                "-f", "dash",
+                "-seg_duration", Integer.toString(segmentSeconds),
+                // Explicit segment lists, so every segment URL can be rewritten to its stored name
+                "-use_template", "0",
+                "-use_timeline", "0",
+                "-init_seg_name", "init-$RepresentationID$.m4s",
+                "-media_seg_name", "chunk-$RepresentationID$-$Number%05d$.m4s",
+                "-adaptation_sets", adaptationSets,
+                DASH_MANIFEST));
+        return command;
+    }
+
+    private List<String> baseCommand(Path input) {
+        List<String> command = new ArrayList<>(List.of(ffmpeg, "-hide_banner", "-nostdin", "-y",
+                "-loglevel", "error", "-nostats", "-progress", "pipe:1",
+                "-i", input.toAbsolutePath().toString()));
+        if (threads > 0) command.addAll(List.of("-threads", Integer.toString(threads)));
+        return command;
+    }
+
+    private void addEncoders(List<String> command, Probe probe, List<Variant> variants) {
+        if (variants.isEmpty()) {
+            command.addAll(List.of("-map", "0:a:0", "-c:a", "aac", "-b:a", AUDIO_ONLY_KBPS + "k", "-ac", "2"));
+            return;
+        }
+        StringBuilder filter = new StringBuilder("[0:v]split=" + variants.size());
+        for (int i = 0; i < variants.size(); i++) filter.append("[s").append(i).append(']');
+        for (int i = 0; i < variants.size(); i++) {
+            filter.append(";[s").append(i).append("]scale=-2:").append(variants.get(i).height()).append("[v").append(i).append(']');
+        }
+        command.addAll(List.of("-filter_complex", filter.toString()));
+        for (int i = 0; i < variants.size(); i++) {
+            Variant v = variants.get(i);
+            command.addAll(List.of(
+                    "-map", "[v" + i + "]",
+                    "-c:v:" + i, "libx264",
+                    "-b:v:" + i, v.videoKbps() + "k",
+                    "-maxrate:v:" + i, (v.videoKbps() * 107 / 100) + "k",
+                    "-bufsize:v:" + i, (v.videoKbps() * 3 / 2) + "k"));
+            if (probe.audio()) {
+                command.addAll(List.of("-map", "0:a:0", "-c:a:" + i, "aac", "-b:a:" + i, v.audioKbps() + "k", "-ac", "2"));
+            }
+        }
+        command.addAll(List.of(
+                "-preset", "veryfast",
+                "-sc_threshold", "0",
+                "-force_key_frames", "expr:gte(t,n_forced*" + segmentSeconds + ")"));
+    }
+
+    /** Run ffmpeg in {@code outDir}, reporting percent done from its -progress output */
+    private void run(List<String> command, Path outDir, double durationSeconds, IntConsumer progress) throws IOException {
+        Files.createDirectories(outDir);
+        Path logFile = outDir.resolve(LOG_FILE);
+        Process process = new ProcessBuilder(command)
+                .directory(outDir.toFile())
+                .redirectError(logFile.toFile())
+                .start();
+        processes.add(process);
+        try {
+            await(process, logFile, durationSeconds, progress);
+        } finally {
+            processes.remove(process);
+        }
+    }
+
+    private void await(Process process, Path logFile, double durationSeconds, IntConsumer progress) throws IOException {
+        // Kill a stuck ffmpeg even while blocked reading its output
+        CompletableFuture<Void> watchdog = CompletableFuture.runAsync(process::destroyForcibly,
+                CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                // out_time_us (and, despite its name, out_time_ms) is in microseconds
+                if (line.startsWith("out_time_us=") && durationSeconds > 0) {
+                    try {
+                        long micros = Long.parseLong(line.substring("out_time_us=".length()));
+                        progress.accept((int) Math.min(100, Math.max(0, micros / (durationSeconds * 10_000))));
+                    } catch (NumberFormatException e) {
+                        // N/A before the first frame
+                    }
+                }
+            }
+        } catch (IOException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+        int exit = waitFor(process, timeout);
+        if (watchdog.isDone()) throw new IOException("ffmpeg timed out after " + timeout);
+        watchdog.cancel(false);
+        if (exit != 0) {
+            throw new IOException("ffmpeg exited with " + exit + ": " + tail(Files.readString(logFile)));
+        }
+        progress.accept(100);
+        Files.deleteIfExists(logFile);
+    }
+
+    /** Child processes outlive the JVM unless killed */
+    @PreDestroy
+    public void stop() {
+        processes.forEach(Process::destroyForcibly);
+    }
+
+    private static int waitFor(Process process, Duration timeout) throws IOException {
+        try {
+            if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("Timed out after " + timeout + ": " + process.info().commandLine().orElse("ffmpeg"));
+            }
+            return process.exitValue();
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while transcoding", e);
+        }
+    }
+
+    static Probe parseProbe(String output) {
+        double duration = 0;
+        int height = 0;
+        boolean video = false;
+        boolean audio = false;
+        String codecType = null;
+        for (String line : output.split("\\R")) {
+            int eq = line.indexOf('=');
+            if (eq < 0) continue;
+            String key = line.substring(0, eq).trim();
+            String value = line.substring(eq + 1).trim();
+            switch (key) {
+                case "codec_type" -> {
+                    codecType = value;
+                    video |= "video".equals(value);
+                    audio |= "audio".equals(value);
+                }
+                case "height" -> {
+                    if ("video".equals(codecType) && height == 0 && !value.equals("N/A")) height = Integer.parseInt(value);
+                }
+                case "duration" -> {
+                    if (!value.equals("N/A")) duration = Double.parseDouble(value);
+                }
+                default -> {
+                }
+            }
+        }
+        if (!video && !audio) throw new IllegalArgumentException("No audio or video stream found");
+        return new Probe(duration, height, video && height > 0, audio);
+    }
+
+    static List<Variant> parseLadder(String ladder) {
+        List<Variant> variants = new ArrayList<>();
+        for (String rung : ladder.split(",")) {
+            String[] parts = rung.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("app.transcode.ladder entries are height:videoKbps:audioKbps, got " + rung);
+            }
+            variants.add(new Variant(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+        }
+        if (variants.isEmpty()) throw new IllegalArgumentException("app.transcode.ladder is empty");
+        variants.sort(Comparator.comparingInt(Variant::height).reversed());
+        return List.copyOf(variants);
+    }
+
+    private static String tail(String output) {
+        String trimmed = output.strip();
+        return trimmed.length() <= 500 ? trimmed : trimmed.substring(trimmed.length() - 500);
+    }
+}
@@ -0,0 +1,356 @@
+package com.bharath.media_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of every servable file name, so a download is a map lookup
+ * rather than a path resolution plus stat calls.
+ *
+ * Names are ref files spread over 256 shard directories,
+ * {@code <upload dir>/.refs/<xx>/<name>}, where {@code xx} comes from the
+ * name's hash, so no directory grows past a few thousand entries. Files from
+ * the old flat layout are indexed too until they are migrated
+ * ({@link FlatUploadMigrator}).
+ *
+ * At startup the index is read from a memory-mapped snapshot
+ * ({@code .index/files.idx}). Only the shard directories modified since the
+ * snapshot was written are rescanned. Without a usable snapshot all shards are
+ * scanned in parallel.
+ */
+@Component
+public class FileIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FileIndex.class);
+
+    private static final String REFS_DIR = ".refs";
+    private static final String INDEX_DIR = ".index";
+    private static final String SNAPSHOT = "files.idx";
+    private static final int SHARDS = 256;
+    private static final int SNAPSHOT_MAGIC = 0x4d494458; // "MIDX"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /** Outcome of {@link #link} */
+    public enum Link { CREATED, EXISTS, TAKEN }
+
+    private final Path uploadDir;
+    private final Path refsDir;
+    private final Path snapshotFile;
+    private final BlobStore blobStore;
+    private final boolean snapshotEnabled;
+    private final Map<String, StoredFile> files = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    // Link and unlink share it; a snapshot takes it exclusively while it copies the map
+    private final ReentrantReadWriteLock mutationLock = new ReentrantReadWriteLock();
+
+    public FileIndex(BlobStore blobStore,
+                     @Value("${app.upload.dir:uploads}") String uploadDir,
+                     @Value("${app.upload.index.snapshot:true}") boolean snapshotEnabled) throws IOException {
+        this.blobStore = blobStore;
+        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.refsDir = this.uploadDir.resolve(REFS_DIR);
+        this.snapshotFile = this.uploadDir.resolve(INDEX_DIR).resolve(SNAPSHOT);
+        this.snapshotEnabled = snapshotEnabled;
+        Files.createDirectories(refsDir);
+        Files.createDirectories(snapshotFile.getParent());
+        load();
+    }
+
+    public Optional<StoredFile> find(String name) {
+        return Optional.ofNullable(files.get(name));
+    }
+
+    public Collection<StoredFile> all() {
+        return Collections.unmodifiableCollection(files.values());
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * Point {@code name} at a blob by creating its ref file. EXISTS if the name
+     * already points at the same blob, TAKEN if it points elsewhere. A flat
+     * legacy file of that name only gives way when {@code replaceLegacy} is set.
+     */
+    public Link link(String name, String sha256, long size, boolean replaceLegacy) throws IOException {
+        StoredFile current = files.get(name);
+        if (current != null && current.legacy() && !replaceLegacy) return Link.TAKEN;
+
+        Path target = refPath(name);
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(refsDir, ".ref-", ".tmp");
+        mutationLock.readLock().lock();
+        try {
+            Files.writeString(tmp, sha256 + " " + size, StandardCharsets.US_ASCII);
+            // A hard link appears atomically with its content and, unlike a rename, never replaces
+            Files.createLink(target, tmp);
+            files.put(name, StoredFile.of(name, blobStore.path(sha256), sha256, size,
+                    Files.getLastModifiedTime(target).toMillis()));
+            dirty.set(true);
+            return Link.CREATED;
+        } catch (FileAlreadyExistsException e) {
+            return readRef(target, Files.getLastModifiedTime(target).toMillis())
+                    .map(existing -> existing.sha256().equals(sha256) ? Link.EXISTS : Link.TAKEN)
+                    .orElse(Link.TAKEN);
+        } finally {
+            mutationLock.readLock().unlock();
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Remove a name: its ref file, or the flat file itself for a legacy entry. False if unknown */
+    public boolean unlink(String name) throws IOException {
+        StoredFile current = files.get(name);
+        if (current == null) return false;
+        mutationLock.readLock().lock();
+        try {
+            if (!Files.deleteIfExists(current.legacy() ? current.path() : refPath(name))) return false;
+            files.remove(name, current);
+            dirty.set(true);
+            return true;
+        } finally {
+            mutationLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.index.snapshot-interval-ms:300000}")
+    public void scheduledSnapshot() {
+        try {
+            saveSnapshot();
+        } catch (IOException e) {
+            log.warn("Could not write file index snapshot", e);
+        }
+    }
+
+    @PreDestroy
+    public void saveSnapshot() throws IOException {
+        if (!snapshotEnabled || !dirty.getAndSet(false)) return;
+        snapshotLock.lock();
+        try {
+            // No link is half done while copying, and anything that changes later leaves its directory newer than savedAt
+            long savedAt;
+            List<StoredFile> entries;
+            mutationLock.writeLock().lock();
+            try {
+                savedAt = System.currentTimeMillis();
+                entries = new ArrayList<>(files.values());
+            } finally {
+                mutationLock.writeLock().unlock();
+            }
+            Path tmp = snapshotFile.resolveSibling(SNAPSHOT + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(savedAt);
+                out.writeInt(entries.size());
+                for (StoredFile file : entries) {
+                    writeString(out, file.name());
+                    writeString(out, file.legacy() ? "" : file.sha256());
+                    out.writeLong(file.size());
+                    out.writeLong(file.lastModified());
+                    writeString(out, file.contentType());
+                }
+            }
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote file index snapshot with {} entries", entries.size());
+        } catch (IOException e) {
+            dirty.set(true);
+            throw e;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    // --- Startup ---
+
+    private void load() throws IOException {
+        long start = System.nanoTime();
+        reshardFlatRefs();
+
+        Set<Integer> stale = new TreeSet<>();
+        boolean rootStale = true;
+        long savedAt = snapshotEnabled ? readSnapshot() : -1;
+        if (savedAt < 0) {
+            files.clear();
+            for (int shard = 0; shard < SHARDS; shard++) stale.add(shard);
+        } else {
+            // A directory's mtime moves whenever an entry is added or removed
+            for (int shard = 0; shard < SHARDS; shard++) {
+                if (modifiedSince(shardDir(shard), savedAt)) stale.add(shard);
+            }
+            rootStale = modifiedSince(uploadDir, savedAt);
+            files.values().removeIf(file -> !file.legacy() && stale.contains(shardOf(file.name())));
+            if (rootStale) files.values().removeIf(StoredFile::legacy);
+        }
+
+        scanShards(stale);
+        if (rootStale) scanLegacy();
+        dirty.set(!stale.isEmpty() || rootStale);
+        log.info("File index loaded: {} files, {} of {} shards scanned in {} ms", files.size(), stale.size(), SHARDS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /** Shards are independent directories; scan them concurrently */
+    private void scanShards(Set<Integer> shards) throws IOException {
+        try (ExecutorService scanners = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> scans = new ArrayList<>();
+            for (int shard : shards) {
+                scans.add(scanners.submit(() -> scanShard(shard)));
+            }
+            for (Future<?> scan : scans) {
+                scan.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof UncheckedIOException io ? io.getCause() : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scanning " + refsDir, e);
+        }
+    }
+
+    private void scanShard(int shard) {
+        Path dir = shardDir(shard);
+        if (!Files.isDirectory(dir)) return;
+        try {
+            Files.walkFileTree(dir, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        readRef(file, attrs.lastModifiedTime().toMillis())
+                                .ifPresent(ref -> files.put(ref.name(), ref));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Regular files directly in the upload dir; a ref of the same name wins */
+    private void scanLegacy() throws IOException {
+        Files.walkFileTree(uploadDir, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = file.getFileName().toString();
+                if (attrs.isRegularFile() && !name.startsWith(".")) {
+                    files.putIfAbsent(name, StoredFile.of(name, file, null, attrs.size(),
+                            attrs.lastModifiedTime().toMillis()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /** Refs written before sharding sit directly in .refs; move them into their shard */
+    private void reshardFlatRefs() throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(refsDir, Files::isRegularFile)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (name.startsWith(".")) {
+                    Files.deleteIfExists(entry); // temp file of a ref write that died
+                    continue;
+                }
+                Path target = refPath(name);
+                Files.createDirectories(target.getParent());
+                Files.move(entry, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+    }
+
+    /** Entries from the snapshot and when it was taken, or -1 if there is no usable snapshot */
+    private long readSnapshot() {
+        if (!Files.isRegularFile(snapshotFile)) return -1;
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) return -1;
+            long savedAt = buffer.getLong();
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                String name = readString(buffer);
+                String sha256 = readString(buffer);
+                long size = buffer.getLong();
+                long lastModified = buffer.getLong();
+                String contentType = readString(buffer);
+                Path path = sha256.isEmpty() ? uploadDir.resolve(name) : blobStore.path(sha256);
+                files.put(name, new StoredFile(name, path, sha256.isEmpty() ? null : sha256, size, lastModified, contentType));
+            }
+            return savedAt;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable file index snapshot: {}", e.toString());
+            files.clear();
+            return -1;
+        }
+    }
+
+    private Optional<StoredFile> readRef(Path ref, long lastModified) {
+        String name = ref.getFileName().toString();
+        try {
+            String[] parts = Files.readString(ref, StandardCharsets.US_ASCII).trim().split(" ");
+            if (parts.length != 2 || !BlobStore.isValidHash(parts[0])) {
+                log.warn("Ignoring malformed file ref {}", name);
+                return Optional.empty();
+            }
+            long size = Long.parseLong(parts[1]);
+            return Optional.of(StoredFile.of(name, blobStore.path(parts[0]), parts[0], size, lastModified));
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Cannot read file ref {}: {}", name, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Path refPath(String name) {
+        Path dir = shardDir(shardOf(name));
+        Path path = dir.resolve(name).normalize();
+        if (!dir.equals(path.getParent())) {
+            throw new IllegalArgumentException("Invalid file path: " + name);
+        }
+        return path;
+    }
+
+    private Path shardDir(int shard) {
+        return refsDir.resolve(String.format("%02x", shard));
+    }
+
+    private static int shardOf(String name) {
+        return Math.floorMod(name.hashCode(), SHARDS);
+    }
+
+    private static boolean modifiedSince(Path dir, long millis) throws IOException {
+        return Files.isDirectory(dir) && Files.getLastModifiedTime(dir).toMillis() >= millis;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,275 @@
+package com.bharath.media_backend.service;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves local files with HTTP range and conditional request support
+ * (RFC 9110: Range, If-Range, ETag / Last-Modified, 206, 304, 412, 416).
+ *
+ * Single-range and full responses are handed to Tomcat's sendfile when the
+ * connector supports it, so the kernel copies file pages straight to the socket.
+ * Otherwise, and for multipart/byteranges, bytes go through
+ * {@link FileChannel#transferTo} into the servlet output stream.
+ */
+@Service
+public class FileStreamingService {
+
+    // Tomcat NIO connector sendfile contract (request attributes)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // More ranges than this (after coalescing) is treated as abuse and answered with the full file
+    private static final int MAX_RANGES = 16;
+
+    private final long sendfileMinSize;
+
+    public FileStreamingService(@Value("${app.files.sendfile-min-size:49152}") long sendfileMinSize) {
+        this.sendfileMinSize = sendfileMinSize;
+    }
+
+    public void serve(Path file, boolean attachment, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        StoredFile stored = StoredFile.of(file.getFileName().toString(), file, null,
+                attrs.size(), attrs.lastModifiedTime().toMillis());
+        serve(stored, attachment, request, response);
+    }
+
+    /** Serve an indexed file; size, mtime and content type come from the index, so there is no stat call */
+    public void serve(StoredFile stored, boolean attachment,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = stored.path();
+        String filename = stored.name();
+        String contentType = stored.contentType();
+        long length = stored.size();
+        long lastModified = stored.lastModified() / 1000 * 1000; // HTTP dates have second precision
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        // RFC 6266 encoding, so quotes, separators, CR/LF and non-ASCII in the name can't break the header
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                (attachment ? ContentDisposition.attachment() : ContentDisposition.inline())
+                        .filename(filename, StandardCharsets.UTF_8).build().toString());
+
+        // --- Conditional request ---
+        int precondition = evaluatePreconditions(request, etag, lastModified);
+        if (precondition != HttpServletResponse.SC_OK) {
+            response.setStatus(precondition);
+            return;
+        }
+
+        // --- Ranges ---
+        List<long[]> ranges = parseRanges(request, length, etag, lastModified);
+        boolean head = "HEAD".equals(request.getMethod());
+
+        if (ranges == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if (!head && length > 0) transfer(file, 0, length, request, response);
+            return;
+        }
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (ranges.size() == 1) {
+            long[] range = ranges.get(0);
+            long count = range[1] - range[0] + 1;
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + length);
+            response.setContentLengthLong(count);
+            if (!head) transfer(file, range[0], count, request, response);
+            return;
+        }
+
+        writeMultipart(file, ranges, length, contentType, head, response);
+    }
+
+    /** 200 to proceed, else the status to answer with (304 / 412) */
+    private static int evaluatePreconditions(HttpServletRequest request, String etag, long lastModified) {
+        boolean safe = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+
+        String ifMatch = request.getHeader(HttpHeaders.IF_MATCH);
+        if (ifMatch != null) {
+            if (!matches(ifMatch, etag, false)) return HttpServletResponse.SC_PRECONDITION_FAILED;
+        } else {
+            long ifUnmodifiedSince = dateHeader(request, HttpHeaders.IF_UNMODIFIED_SINCE);
+            if (ifUnmodifiedSince >= 0 && lastModified > ifUnmodifiedSince) {
+                return HttpServletResponse.SC_PRECONDITION_FAILED;
+            }
+        }
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            if (matches(ifNoneMatch, etag, true)) {
+                return safe ? HttpServletResponse.SC_NOT_MODIFIED : HttpServletResponse.SC_PRECONDITION_FAILED;
+            }
+        } else if (safe) {
+            long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+            if (ifModifiedSince >= 0 && lastModified <= ifModifiedSince) {
+                return HttpServletResponse.SC_NOT_MODIFIED;
+            }
+        }
+        return HttpServletResponse.SC_OK;
+    }
+
+    /**
+     * Satisfiable ranges as sorted, coalesced [first, last] pairs; null to serve
+     * the whole file (no/invalid Range, stale If-Range, too many ranges); empty
+     * if nothing is satisfiable.
+     */
+    static List<long[]> parseRanges(HttpServletRequest request, long length, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !header.startsWith("bytes=")) return null;
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            boolean current = ifRange.startsWith("\"") || ifRange.startsWith("W/")
+                    ? ifRange.trim().equals(etag) // strong comparison only
+                    : dateHeader(request, HttpHeaders.IF_RANGE) == lastModified;
+            if (!current) return null;
+        }
+
+        List<long[]> ranges = new ArrayList<>();
+        try {
+            for (String spec : header.substring("bytes=".length()).split(",")) {
+                spec = spec.trim();
+                int dash = spec.indexOf('-');
+                if (dash < 0) return null;
+                long first;
+                long last;
+                if (dash == 0) {
+                    long suffix = Long.parseLong(spec.substring(1));
+                    if (suffix == 0) continue;
+                    first = Math.max(0, length - suffix);
+                    last = length - 1;
+                } else {
+                    first = Long.parseLong(spec.substring(0, dash));
+                    last = dash == spec.length() - 1 ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+                    if (last < first) return null;
+                    last = Math.min(last, length - 1);
+                }
+                if (first >= length) continue;
+                ranges.add(new long[]{first, last});
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] range : ranges) {
+            long[] previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous != null && range[0] <= previous[1] + 1) {
+                previous[1] = Math.max(previous[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged.size() > MAX_RANGES ? null : merged;
+    }
+
+    private void writeMultipart(Path file, List<long[]> ranges, long length, String contentType,
+                                boolean head, HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (long[] range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + range[0] + "-" + range[1] + "/" + length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range[1] - range[0] + 1;
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) return;
+
+        ServletOutputStream out = response.getOutputStream();
+        WritableByteChannel channel = Channels.newChannel(out);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                long[] range = ranges.get(i);
+                copy(in, range[0], range[1] - range[0] + 1, channel);
+            }
+        }
+        out.write(closing);
+    }
+
+    private void transfer(Path file, long start, long count, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        if (count >= sendfileMinSize && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat streams the region with sendfile after the servlet returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            copy(in, start, count, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private static void copy(FileChannel in, long start, long count, WritableByteChannel out) throws IOException {
+        long position = start;
+        long end = start + count;
+        while (position < end) {
+            long sent = in.transferTo(position, end - position, out);
+            if (sent <= 0) {
+                throw new IOException("File truncated while streaming at byte " + position);
+            }
+            position += sent;
+        }
+    }
+
+    /** If-Match / If-None-Match list check; weak comparison ignores W/ prefixes */
+    private static boolean matches(String header, String etag, boolean weak) {
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) return true;
+            if (weak && candidate.startsWith("W/")) candidate = candidate.substring(2);
+            if (candidate.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1; // unparseable dates are ignored
+        }
+    }
+}
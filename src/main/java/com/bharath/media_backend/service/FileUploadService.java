@@ -1,24 +1,78 @@
 package com.bharath.media_backend.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
 import java.nio.file.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Local file storage with content-addressed deduplication.
+ *
+ * File bytes live once per distinct content in the {@link BlobStore}; the names
+ * handed out under {@code /files/} are entries in the {@link FileIndex} that
+ * point at a blob. A name is {@code <first 12 hex of sha256>-<original name>},
+ * so re-uploading the same file returns the same URL and stores nothing new.
+ * Blobs are reference-counted (counts are rebuilt from the index at startup)
+ * and a scheduled sweep deletes blobs nothing points at any more.
+ *
+ * Linking a name and sweeping a blob take the same per-hash lock, so the sweep
+ * can never delete a blob that an upload has just deduplicated against.
+ */
 @Service
 public class FileUploadService {
 
-    private final Path uploadDir;
+    private static final Logger log = LoggerFactory.getLogger(FileUploadService.class);
 
-    public FileUploadService(@Value("${app.upload.dir:uploads}") String uploadDir) throws IOException {
-        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
-        Files.createDirectories(this.uploadDir);
+    private static final int NAME_HASH_PREFIX = 12;
+    private static final int LOCK_STRIPES = 64;
+
+    private final BlobStore blobStore;
+    private final FileIndex index;
+    private final Duration gcGrace;
+    private final Map<String, Integer> refCounts = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final Counter storedNew;
+    private final Counter storedDuplicate;
+    private final Counter gcDeleted;
+
+    public FileUploadService(BlobStore blobStore,
+                             FileIndex index,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.upload.blobs.gc-grace:1h}") Duration gcGrace) {
+        this.blobStore = blobStore;
+        this.index = index;
+        this.gcGrace = gcGrace;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        for (StoredFile file : index.all()) {
+            if (!file.legacy()) refCounts.merge(file.sha256(), 1, Integer::sum);
+        }
+
+        this.storedNew = Counter.builder("media.files.stored").tag("result", "new").register(meterRegistry);
+        this.storedDuplicate = Counter.builder("media.files.stored").tag("result", "duplicate").register(meterRegistry);
+        this.gcDeleted = Counter.builder("media.files.gc.deleted").register(meterRegistry);
+        Gauge.builder("media.files.blobs.referenced", refCounts, Map::size).register(meterRegistry);
+        Gauge.builder("media.files.indexed", index, FileIndex::size).register(meterRegistry);
     }
 
     /** Store uploaded file */
@@ -26,23 +80,173 @@ public class FileUploadService {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("Empty file not allowed");
         }
+        String name = cleanName(file.getOriginalFilename());
+        return store(blobStore.stage(file.getInputStream()), name);
+    }
 
-        String filename = System.currentTimeMillis() + "-" + StringUtils.cleanPath(file.getOriginalFilename());
-        Path target = uploadDir.resolve(filename);
-        Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
+    /** Store a stream (e.g. an object copied in from another storage backend) */
+    public String storeFile(InputStream in, String originalFilename) throws IOException {
+        String name = cleanName(originalFilename);
+        BlobStore.Staged staged = blobStore.stage(in);
+        if (staged.size() == 0) {
+            Files.deleteIfExists(staged.tmp());
+            throw new IllegalArgumentException("Empty file not allowed");
+        }
+        return store(staged, name);
+    }
 
-        return "/files/" + filename;
+    /** Store a file already on local disk (e.g. an assembled resumable upload); moved, not copied */
+    public String storeFile(Path source, String originalFilename) throws IOException {
+        if (Files.size(source) == 0) {
+            throw new IllegalArgumentException("Empty file not allowed");
+        }
+        String name = cleanName(originalFilename);
+        return store(blobStore.stage(source), name);
     }
 
-    /** Load file as Spring Resource for streaming or download */
-    public Resource loadFileAsResource(String filename) throws MalformedURLException {
-        Path filePath = uploadDir.resolve(filename).normalize();
-        Resource resource = new UrlResource(filePath.toUri());
+    /**
+     * Name content the store already holds without receiving the bytes again.
+     * Empty if no blob has that hash, in which case the client uploads normally.
+     */
+    public Optional<String> storeExisting(String sha256, String originalFilename) throws IOException {
+        if (!BlobStore.isValidHash(sha256)) {
+            throw new IllegalArgumentException("sha256 must be 64 lowercase hex characters");
+        }
+        String name = cleanName(originalFilename);
+        ReentrantLock lock = lock(sha256);
+        lock.lock();
+        try {
+            if (!blobStore.exists(sha256)) return Optional.empty();
+            storedDuplicate.increment();
+            return Optional.of(link(sha256, Files.size(blobStore.path(sha256)), name));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The file served under {@code filename}; answered from memory */
+    public Optional<StoredFile> lookup(String filename) {
+        return index.find(filename);
+    }
+
+    /** Remove a file name; the blob goes with the next sweep once nothing refers to it. False if unknown */
+    public boolean deleteFile(String filename) throws IOException {
+        Optional<StoredFile> file = index.find(filename);
+        if (file.isEmpty()) return false;
+        if (file.get().legacy()) return index.unlink(filename);
+
+        String sha256 = file.get().sha256();
+        ReentrantLock lock = lock(sha256);
+        lock.lock();
+        try {
+            if (!index.unlink(filename)) return false;
+            refCounts.computeIfPresent(sha256, (hash, count) -> count > 1 ? count - 1 : null);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move a file from the old flat layout into the blob store under the same
+     * name, so its URL keeps working. The flat file stays readable until the
+     * name points at the blob. Empty if {@code filename} is not a flat file.
+     */
+    public Optional<BlobStore.Blob> adopt(String filename) throws IOException {
+        Optional<StoredFile> legacy = index.find(filename).filter(StoredFile::legacy);
+        if (legacy.isEmpty()) return Optional.empty();
+
+        BlobStore.Staged staged = blobStore.stageLink(legacy.get().path());
+        BlobStore.Blob blob;
+        ReentrantLock lock = lock(staged.sha256());
+        lock.lock();
+        try {
+            blob = blobStore.put(staged);
+            if (index.link(filename, blob.sha256(), blob.size(), true) == FileIndex.Link.CREATED) {
+                refCounts.merge(blob.sha256(), 1, Integer::sum);
+            }
+        } finally {
+            lock.unlock();
+        }
+        Files.deleteIfExists(legacy.get().path());
+        return Optional.of(blob);
+    }
+
+    // --- Delete blobs no name refers to, and temp files of uploads that died ---
+    @Scheduled(fixedDelayString = "${app.upload.blobs.gc-interval-ms:3600000}")
+    public int collectGarbage() {
+        // Blobs younger than the grace period are left alone, as are their temp files
+        Instant cutoff = Instant.now().minus(gcGrace);
+        int removed = 0;
+        try {
+            List<Path> blobs = new ArrayList<>();
+            blobStore.forEach(blobs::add);
+            for (Path blob : blobs) {
+                String sha256 = blob.getFileName().toString();
+                ReentrantLock lock = lock(sha256);
+                lock.lock();
+                try {
+                    if (!refCounts.containsKey(sha256)
+                            && Files.getLastModifiedTime(blob).toInstant().isBefore(cutoff)) {
+                        blobStore.delete(sha256);
+                        removed++;
+                    }
+                } catch (NoSuchFileException e) {
+                    // Already gone
+                } finally {
+                    lock.unlock();
+                }
+            }
+            blobStore.purgeTemp(cutoff);
+        } catch (IOException e) {
+            log.warn("Blob garbage collection failed", e);
+        }
+        if (removed > 0) {
+            gcDeleted.increment(removed);
+            log.info("Deleted {} unreferenced blobs", removed);
+        }
+        return removed;
+    }
+
+    private String store(BlobStore.Staged staged, String name) throws IOException {
+        ReentrantLock lock = lock(staged.sha256());
+        lock.lock();
+        try {
+            BlobStore.Blob blob = blobStore.put(staged);
+            (blob.existed() ? storedDuplicate : storedNew).increment();
+            return link(blob.sha256(), blob.size(), name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Point a name at a blob; the caller holds the blob's lock. The short name is
+     * only taken by another blob on a 48-bit prefix collision with the same
+     * original name, in which case the full hash is used.
+     */
+    private String link(String sha256, long size, String name) throws IOException {
+        for (String candidate : List.of(sha256.substring(0, NAME_HASH_PREFIX) + "-" + name, sha256 + "-" + name)) {
+            FileIndex.Link result = index.link(candidate, sha256, size, false);
+            if (result == FileIndex.Link.CREATED) {
+                refCounts.merge(sha256, 1, Integer::sum);
+            }
+            if (result != FileIndex.Link.TAKEN) {
+                return "/files/" + candidate;
+            }
+        }
+        throw new IllegalStateException("File name already taken: " + sha256 + "-" + name);
+    }
+
+    private ReentrantLock lock(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
 
-        if (resource.exists() && resource.isReadable()) {
-            return resource;
-        } else {
-            throw new RuntimeException("File not found: " + filename);
+    private static String cleanName(String originalFilename) {
+        String name = originalFilename == null ? null : StringUtils.getFilename(StringUtils.cleanPath(originalFilename));
+        if (!StringUtils.hasText(name)) {
+            throw new IllegalArgumentException("File name required");
         }
+        return name;
     }
 }
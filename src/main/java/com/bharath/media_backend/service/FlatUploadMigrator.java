@@ -0,0 +1,57 @@
+package com.bharath.media_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves files from the old flat upload dir into the sharded blob store at
+ * startup (one-off migration aid). Names are kept, so existing {@code /files}
+ * URLs keep working, and identical files collapse into one blob. Files stay
+ * servable throughout; running it again only picks up what is left.
+ */
+@Component
+@ConditionalOnProperty(name = "app.upload.migrate-flat-on-startup", havingValue = "true")
+public class FlatUploadMigrator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FlatUploadMigrator.class);
+
+    private final FileUploadService fileUploadService;
+    private final FileIndex index;
+
+    public FlatUploadMigrator(FileUploadService fileUploadService, FileIndex index) {
+        this.fileUploadService = fileUploadService;
+        this.index = index;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<StoredFile> flat = index.all().stream().filter(StoredFile::legacy).toList();
+        int migrated = 0;
+        int deduplicated = 0;
+        long bytesSaved = 0;
+        for (StoredFile file : flat) {
+            try {
+                Optional<BlobStore.Blob> blob = fileUploadService.adopt(file.name());
+                if (blob.isEmpty()) continue;
+                migrated++;
+                if (blob.get().existed()) {
+                    deduplicated++;
+                    bytesSaved += blob.get().size();
+                }
+            } catch (IOException e) {
+                log.warn("Could not migrate {}: {}", file.name(), e.getMessage());
+            }
+        }
+        index.saveSnapshot();
+        log.info("Migrated {} of {} flat uploads into the blob store; {} were duplicates ({} bytes freed)",
+                migrated, flat.size(), deduplicated, bytesSaved);
+    }
+}
@@ -0,0 +1,133 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+import com.bharath.media_backend.util.CountMinSketch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process trending: per window, decayed counts go into a Count-Min Sketch
+ * and the {@code capacity} highest estimates are kept as the top-K, so memory
+ * is fixed whatever the catalog size. Per JVM and not persisted, so only
+ * suitable for a single node; use the Redis backend otherwise.
+ */
+@Service
+@ConditionalOnProperty(name = "app.trending.backend", havingValue = "local")
+public class LocalTrendingTracker implements TrendingTracker {
+
+    /** Rebase once weights reach 2^32 to keep doubles well away from overflow */
+    private static final double MAX_EXPONENT = 32;
+
+    private final Map<Duration, Window> windows = new LinkedHashMap<>();
+    private final int capacity;
+
+    public LocalTrendingTracker(@Value("${app.trending.windows:1h,24h,7d}") List<Duration> windows,
+                                @Value("${app.trending.capacity:1000}") int capacity,
+                                @Value("${app.trending.sketch.width:2048}") int width,
+                                @Value("${app.trending.sketch.depth:4}") int depth) {
+        if (capacity < 1) throw new IllegalArgumentException("app.trending.capacity must be positive");
+        this.capacity = capacity;
+        long now = System.currentTimeMillis();
+        for (Duration window : windows) {
+            this.windows.put(window, new Window(window.toMillis(), new CountMinSketch(width, depth), now));
+        }
+    }
+
+    @Override
+    public void onViewsWritten(List<MediaViewLog> batch) {
+        for (Window window : windows.values()) {
+            window.lock.lock();
+            try {
+                for (MediaViewLog view : batch) {
+                    window.add(view.getMediaId(), view.getTimestamp().toEpochMilli(), capacity);
+                }
+            } finally {
+                window.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<Score> top(Duration duration, int limit) {
+        Window window = windows.get(duration);
+        if (window == null) throw new IllegalArgumentException("Unknown trending window: " + duration);
+        long now = System.currentTimeMillis();
+        List<Score> scores = new ArrayList<>();
+        window.lock.lock();
+        try {
+            double toNow = Math.pow(2, -(double) (now - window.landmark) / window.halfLifeMillis);
+            window.top.forEach((mediaId, score) -> scores.add(new Score(mediaId, score * toNow)));
+        } finally {
+            window.lock.unlock();
+        }
+        scores.sort(Comparator.comparingDouble(Score::score).reversed());
+        return scores.size() > limit ? scores.subList(0, limit) : scores;
+    }
+
+    private static final class Window {
+        // Not synchronized: a virtual thread blocked on a monitor pins its carrier
+        final ReentrantLock lock = new ReentrantLock();
+        final long halfLifeMillis;
+        final CountMinSketch sketch;
+        // Scores relative to the landmark; decay is uniform, so their order holds over time
+        final Map<Long, Double> top = new HashMap<>();
+        long landmark;
+        Long minKey;
+
+        Window(long halfLifeMillis, CountMinSketch sketch, long landmark) {
+            this.halfLifeMillis = halfLifeMillis;
+            this.sketch = sketch;
+            this.landmark = landmark;
+        }
+
+        void add(Long mediaId, long timestampMillis, int capacity) {
+            double exponent = (double) (timestampMillis - landmark) / halfLifeMillis;
+            if (exponent > MAX_EXPONENT) {
+                rebase(timestampMillis);
+                exponent = 0;
+            }
+            double estimate = sketch.add(mediaId, Math.pow(2, exponent));
+
+            if (top.containsKey(mediaId)) {
+                top.put(mediaId, estimate);
+                if (mediaId.equals(minKey)) minKey = null;
+            } else if (top.size() < capacity) {
+                top.put(mediaId, estimate);
+                if (minKey != null && estimate < top.get(minKey)) minKey = mediaId;
+            } else {
+                Long min = minKey();
+                if (estimate > top.get(min)) {
+                    top.remove(min);
+                    top.put(mediaId, estimate);
+                    minKey = null;
+                }
+            }
+        }
+
+        /** Smallest tracked entry, found in O(K) only after the previous one changed */
+        private Long minKey() {
+            if (minKey == null) {
+                double min = Double.MAX_VALUE;
+                for (Map.Entry<Long, Double> entry : top.entrySet()) {
+                    if (entry.getValue() < min) {
+                        min = entry.getValue();
+                        minKey = entry.getKey();
+                    }
+                }
+            }
+            return minKey;
+        }
+
+        private void rebase(long newLandmark) {
+            double factor = Math.pow(2, -(double) (newLandmark - landmark) / halfLifeMillis);
+            sketch.scale(factor);
+            top.replaceAll((mediaId, score) -> score * factor);
+            landmark = newLandmark;
+        }
+    }
+}
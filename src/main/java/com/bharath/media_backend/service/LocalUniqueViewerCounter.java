@@ -0,0 +1,80 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+import com.bharath.media_backend.util.HyperLogLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process HyperLogLog sketches with configurable precision. Per JVM and not
+ * persisted, so only suitable for a single node; use the Redis backend otherwise.
+ */
+@Service
+@ConditionalOnProperty(name = "app.analytics.unique.backend", havingValue = "local")
+public class LocalUniqueViewerCounter implements UniqueViewerCounter {
+
+    private record DayKey(Long mediaId, LocalDate day) {}
+
+    private final int precision;
+    private final int dailyRetentionDays;
+    private final Map<Long, HyperLogLog> totals = new ConcurrentHashMap<>();
+    private final Map<DayKey, HyperLogLog> daily = new ConcurrentHashMap<>();
+    private volatile LocalDate lastPruned;
+
+    public LocalUniqueViewerCounter(@Value("${app.analytics.unique.precision:14}") int precision,
+                                    @Value("${app.analytics.unique.daily-retention-days:400}") int dailyRetentionDays) {
+        new HyperLogLog(precision); // validate precision at startup
+        this.precision = precision;
+        this.dailyRetentionDays = dailyRetentionDays;
+    }
+
+    @Override
+    public void onViewsWritten(List<MediaViewLog> batch) {
+        for (MediaViewLog view : batch) {
+            LocalDate day = LocalDate.ofInstant(view.getTimestamp(), ZoneOffset.UTC);
+            // compute() serializes updates per key; HyperLogLog itself is not thread-safe
+            totals.compute(view.getMediaId(), (k, hll) -> add(hll, view.getViewedByIp()));
+            daily.compute(new DayKey(view.getMediaId(), day), (k, hll) -> add(hll, view.getViewedByIp()));
+        }
+        // Prune expired day sketches once per day
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (!today.equals(lastPruned)) {
+            LocalDate cutoff = today.minusDays(dailyRetentionDays);
+            daily.keySet().removeIf(key -> key.day().isBefore(cutoff));
+            lastPruned = today;
+        }
+    }
+
+    @Override
+    public long countUnique(Long mediaId) {
+        HyperLogLog[] snapshot = new HyperLogLog[1];
+        totals.computeIfPresent(mediaId, (k, hll) -> { snapshot[0] = hll.copy(); return hll; });
+        return snapshot[0] == null ? 0 : snapshot[0].cardinality();
+    }
+
+    @Override
+    public long countUnique(Long mediaId, LocalDate from, LocalDate to) {
+        // Day sketches only exist within the retention window
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate first = from.isBefore(today.minusDays(dailyRetentionDays)) ? today.minusDays(dailyRetentionDays) : from;
+        LocalDate last = to.isAfter(today) ? today : to;
+        HyperLogLog union = new HyperLogLog(precision);
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            daily.computeIfPresent(new DayKey(mediaId, day), (k, hll) -> { union.merge(hll); return hll; });
+        }
+        return union.cardinality();
+    }
+
+    private HyperLogLog add(HyperLogLog hll, String ip) {
+        HyperLogLog sketch = hll != null ? hll : new HyperLogLog(precision);
+        sketch.add(ip);
+        return sketch;
+    }
+}
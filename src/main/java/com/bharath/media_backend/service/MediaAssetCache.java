@@ -0,0 +1,194 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaAsset;
+import com.bharath.media_backend.repo.MediaAssetRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Near cache for {@link MediaAsset} lookups: a weight-bounded Caffeine (W-TinyLFU)
+ * L1 per JVM, an optional Redis L2 shared by all nodes, then Postgres.
+ *
+ * Unknown ids are cached as negative entries with a short TTL so 404 floods
+ * stop at L1. Concurrent misses for the same id are coalesced into one load.
+ * Other nodes' L1 copies are not notified of changes; they age out after
+ * {@code ttl} (or {@code negative-ttl} for a cached miss).
+ */
+@Component
+public class MediaAssetCache {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaAssetCache.class);
+
+    private static final String KEY_PREFIX = "media:asset:";
+    private static final String NEGATIVE = "";
+
+    /** L1 value; asset == null is a cached miss */
+    private record Entry(MediaAsset asset) {}
+
+    private final MediaAssetRepository mediaRepo;
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final boolean redisEnabled;
+    private final Duration redisTtl;
+    private final Duration negativeTtl;
+    private final Cache<Long, Entry> local;
+
+    private final Timer l1Timer;
+    private final Timer l2Timer;
+    private final Timer dbTimer;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter l2Errors;
+
+    public MediaAssetCache(MediaAssetRepository mediaRepo,
+                           StringRedisTemplate redis,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.media.cache.max-weight-bytes:33554432}") long maxWeightBytes,
+                           @Value("${app.media.cache.ttl:1h}") Duration ttl,
+                           @Value("${app.media.cache.negative-ttl:30s}") Duration negativeTtl,
+                           @Value("${app.media.cache.redis.enabled:false}") boolean redisEnabled,
+                           @Value("${app.media.cache.redis.ttl:6h}") Duration redisTtl) {
+        this.mediaRepo = mediaRepo;
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.redisEnabled = redisEnabled;
+        this.redisTtl = redisTtl;
+        this.negativeTtl = negativeTtl;
+        this.local = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long id, Entry entry) -> weigh(entry))
+                .expireAfter(new Expiry<Long, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Entry entry, long currentTime) {
+                        return (entry.asset() == null ? negativeTtl : ttl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        // L1 hit ratio, evictions and size come from Caffeine's own stats
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "media-asset-l1");
+        this.l1Timer = lookupTimer(meterRegistry, "l1");
+        this.l2Timer = lookupTimer(meterRegistry, "l2");
+        this.dbTimer = lookupTimer(meterRegistry, "db");
+        this.l2Hits = Counter.builder("media.asset.cache.requests").tag("tier", "l2").tag("result", "hit").register(meterRegistry);
+        this.l2Misses = Counter.builder("media.asset.cache.requests").tag("tier", "l2").tag("result", "miss").register(meterRegistry);
+        this.l2Errors = Counter.builder("media.asset.cache.requests").tag("tier", "l2").tag("result", "error").register(meterRegistry);
+    }
+
+    public Optional<MediaAsset> find(Long id) {
+        long start = System.nanoTime();
+        Entry entry = local.getIfPresent(id);
+        if (entry != null) {
+            l1Timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.ofNullable(entry.asset());
+        }
+        // Caffeine runs one load per key; concurrent misses wait for it
+        return Optional.ofNullable(local.get(id, this::load).asset());
+    }
+
+    /** Call after an asset is created or changed */
+    public void put(MediaAsset asset) {
+        local.put(asset.getId(), new Entry(asset));
+        writeL2(asset.getId(), asset);
+    }
+
+    /** Call after an asset is deleted */
+    public void invalidate(Long id) {
+        local.invalidate(id);
+        if (redisEnabled) {
+            try {
+                redis.delete(KEY_PREFIX + id);
+            } catch (DataAccessException e) {
+                l2Errors.increment();
+                log.warn("Could not invalidate media {} in Redis: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private Entry load(Long id) {
+        if (redisEnabled) {
+            Optional<Entry> cached = l2Timer.record(() -> readL2(id));
+            if (cached.isPresent()) {
+                l2Hits.increment();
+                return cached.get();
+            }
+            l2Misses.increment();
+        }
+
+        MediaAsset asset = dbTimer.record(() -> mediaRepo.findById(id).orElse(null));
+        writeL2(id, asset);
+        return new Entry(asset);
+    }
+
+    private Optional<Entry> readL2(Long id) {
+        try {
+            String json = redis.opsForValue().get(KEY_PREFIX + id);
+            if (json == null) return Optional.empty();
+            return Optional.of(new Entry(json.equals(NEGATIVE) ? null : objectMapper.readValue(json, MediaAsset.class)));
+        } catch (DataAccessException | JsonProcessingException e) {
+            // Redis is an optimisation; fall through to the database
+            l2Errors.increment();
+            return Optional.empty();
+        }
+    }
+
+    private void writeL2(Long id, MediaAsset asset) {
+        if (!redisEnabled) return;
+        try {
+            if (asset == null) {
+                redis.opsForValue().set(KEY_PREFIX + id, NEGATIVE, negativeTtl);
+            } else {
+                redis.opsForValue().set(KEY_PREFIX + id, objectMapper.writeValueAsString(asset), redisTtl);
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            l2Errors.increment();
+        }
+    }
+
+    /** Rough retained size in bytes: object headers plus UTF-16 strings */
+    private static int weigh(Entry entry) {
+        MediaAsset asset = entry.asset();
+        if (asset == null) return 64;
+        return 160 + 2 * (length(asset.getTitle()) + length(asset.getType()) + length(asset.getFileUrl()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String tier) {
+        return Timer.builder("media.asset.cache.lookup")
+                .description("MediaAsset lookup latency by the tier that answered")
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
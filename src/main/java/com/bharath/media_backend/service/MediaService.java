@@ -3,66 +3,96 @@ package com.bharath.media_backend.service;
 import com.bharath.media_backend.api.dto.MediaCreateRequest;
 import com.bharath.media_backend.api.dto.StreamUrlResponse;
 import com.bharath.media_backend.domain.MediaAsset;
+import com.bharath.media_backend.domain.MediaRendition;
 import com.bharath.media_backend.domain.MediaViewLog;
 import com.bharath.media_backend.exception.MediaNotFoundException;
+import com.bharath.media_backend.ratelimit.RateLimitDecision;
+import com.bharath.media_backend.ratelimit.RateLimitPolicy;
+import com.bharath.media_backend.ratelimit.RateLimiter;
 import com.bharath.media_backend.repo.MediaAssetRepository;
-import com.bharath.media_backend.repo.MediaViewLogRepository;
+import com.bharath.media_backend.storage.MediaStorage;
+import com.bharath.media_backend.storage.MediaStorageRegistry;
 import com.bharath.media_backend.util.HmacSigner;
+import com.bharath.media_backend.util.StreamTokenCodec;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 @Service
 public class MediaService {
 
     private final MediaAssetRepository mediaRepo;
-    private final MediaViewLogRepository mediaViewLogRepo;
+    private final MediaAssetCache mediaAssetCache;
+    private final ViewLogWriter viewLogWriter;
+    private final ViewRollupService rollupService;
+    private final UniqueViewerCounter uniqueViewerCounter;
+    private final AnalyticsCache analyticsCache;
+    private final RateLimiter rateLimiter;
+    private final RateLimitPolicy viewRateLimitPolicy;
+    private final RateLimitPolicy streamRateLimitPolicy;
     private final HmacSigner signer;
-    private final Cloudinary cloudinary;
-
-    private final int MAX_REQUESTS = 5;
-    private final long WINDOW_MILLIS = 60_000; // 1 minute
-    private final ConcurrentHashMap<String, RequestInfo> requestMap = new ConcurrentHashMap<>();
-    private final int streamTtlMinutes = 10;
+    private final StreamTokenCodec streamTokenCodec;
+    private final MediaStorageRegistry storages;
+    private final EdgeCache edgeCache; // null unless app.stream.edge.enabled
+    private final RenditionService renditionService;
+    // Also read by StorageTieringJob and RenditionWorker, which keep replaced files this long
+    private final long streamTtlMinutes;
 
     public MediaService(MediaAssetRepository mediaRepo,
+                        MediaAssetCache mediaAssetCache,
                         HmacSigner signer,
-                        MediaViewLogRepository mediaViewLogRepo,
-                        Cloudinary cloudinary) {
+                        StreamTokenCodec streamTokenCodec,
+                        ViewLogWriter viewLogWriter,
+                        ViewRollupService rollupService,
+                        UniqueViewerCounter uniqueViewerCounter,
+                        AnalyticsCache analyticsCache,
+                        RateLimiter rateLimiter,
+                        @Qualifier("viewRateLimitPolicy") RateLimitPolicy viewRateLimitPolicy,
+                        @Qualifier("streamRateLimitPolicy") RateLimitPolicy streamRateLimitPolicy,
+                        MediaStorageRegistry storages,
+                        Optional<EdgeCache> edgeCache,
+                        RenditionService renditionService,
+                        @Value("${app.stream.ttl-minutes:10}") long streamTtlMinutes) {
         this.mediaRepo = mediaRepo;
+        this.mediaAssetCache = mediaAssetCache;
         this.signer = signer;
-        this.mediaViewLogRepo = mediaViewLogRepo;
-        this.cloudinary = cloudinary;
-    }
-
-    // --- Upload file to Cloudinary ---
-    public String uploadToCloudinary(MultipartFile file) throws IOException {
-        if (file.isEmpty()) throw new IllegalArgumentException("Empty file not allowed");
-
-        Map uploadResult = cloudinary.uploader().upload(file.getBytes(),
-                ObjectUtils.asMap(
-                        "resource_type", "video",
-                        "folder", "media_videos"
-                ));
-        return uploadResult.get("url").toString();
+        this.streamTokenCodec = streamTokenCodec;
+        this.viewLogWriter = viewLogWriter;
+        this.rollupService = rollupService;
+        this.uniqueViewerCounter = uniqueViewerCounter;
+        this.analyticsCache = analyticsCache;
+        this.rateLimiter = rateLimiter;
+        this.viewRateLimitPolicy = viewRateLimitPolicy;
+        this.streamRateLimitPolicy = streamRateLimitPolicy;
+        this.storages = storages;
+        this.edgeCache = edgeCache.orElse(null);
+        this.renditionService = renditionService;
+        this.streamTtlMinutes = streamTtlMinutes;
     }
 
     // --- Create media record ---
     public String createMedia(MediaCreateRequest request) {
+        MediaAsset media = createMediaAsset(request);
+        return "Media saved successfully with id: " + media.getId();
+    }
+
+    public MediaAsset createMediaAsset(MediaCreateRequest request) {
         MediaAsset media = MediaAsset.builder()
                 .title(request.getTitle())
                 .type(request.getType())
@@ -70,19 +100,37 @@ public class MediaService {
                 .createdAt(Instant.now())
                 .build();
         mediaRepo.save(media);
-        return "Media saved successfully with id: " + media.getId();
+        // Cache only committed rows (this runs inside the upload-job transaction); also replaces a cached miss
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mediaAssetCache.put(media);
+                }
+            });
+        } else {
+            mediaAssetCache.put(media);
+        }
+        renditionService.enqueue(media.getId()); // HLS/DASH, when transcoding is enabled
+        return media;
     }
 
-    // --- Generate stream URL ---
+    // --- Generate stream URL (stateless signed token, see StreamTokenCodec) ---
     public StreamUrlResponse generateStreamUrl(Long id) {
-        MediaAsset media = mediaRepo.findById(id)
+        MediaAsset media = mediaAssetCache.find(id)
                 .orElseThrow(() -> new MediaNotFoundException("Media not found"));
 
         long expiry = Instant.now().plusSeconds(streamTtlMinutes * 60).toEpochMilli();
-        String data = media.getFileUrl() + "|" + expiry;
-        String sig = signer.sign(data);
 
-        String url = media.getFileUrl() + "?exp=" + expiry + "&sig=" + sig;
+        // --- HLS master playlist once built; the token covers every playlist and segment of the media ---
+        Optional<String> manifest = renditionService.hlsManifest(media.getId());
+        if (manifest.isPresent()) {
+            String path = RenditionService.playbackPath(media.getId(), manifest.get());
+            return new StreamUrlResponse(path + "?t=" + streamTokenCodec.encode(media.getId(), expiry, path));
+        }
+
+        String token = streamTokenCodec.encode(media.getId(), expiry, media.getFileUrl());
+        String url = "/media/" + media.getId() + "/stream?t=" + token;
         return new StreamUrlResponse(url);
     }
 
@@ -127,115 +175,206 @@ public class MediaService {
 //        return ResponseEntity.status(HttpStatus.FOUND).headers(headers).build();
 //    }
 
+    // --- Stream with a signed token: verified in memory, no database lookup ---
+    public ResponseEntity<Resource> streamMedia(
+            HttpServletRequest request,
+            Long id,
+            String token,
+            String rangeHeader
+    ) throws IOException {
+        StreamTokenCodec.Claims claims = streamTokenCodec.decode(token, Instant.now().toEpochMilli()).orElse(null);
+        if (claims == null || claims.mediaId() != id) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+        }
+        return redirectToMedia(request, id, claims.location(), rangeHeader);
+    }
+
+    // --- Stream with a legacy exp/sig URL (needs the asset to rebuild the signed data) ---
     public ResponseEntity<Resource> streamMedia(
             HttpServletRequest request,
             Long id,
             long exp,
             String sig,
             String rangeHeader
-    ) {
-        MediaAsset media = mediaRepo.findById(id)
+    ) throws IOException {
+        MediaAsset media = mediaAssetCache.find(id)
                 .orElseThrow(() -> new MediaNotFoundException("Media not found"));
 
         // --- Validate signed URL ---
         if (Instant.now().toEpochMilli() > exp ||
-                !signer.sign(media.getFileUrl() + "|" + exp).equals(sig)) {
+                !signer.verify(signer.activeKeyId(), media.getFileUrl() + "|" + exp, sig)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
         }
+        return redirectToMedia(request, media.getId(), media.getFileUrl(), rangeHeader);
+    }
 
-        // --- Log view only once per access ---
-        String clientIp = getClientIp(request); // optional: only for logging
-        MediaViewLog log = MediaViewLog.builder()
-                .mediaId(media.getId())
-                .viewedByIp(clientIp)
-                .timestamp(Instant.now())
-                .build();
-        mediaViewLogRepo.save(log);
-        evictAnalyticsCache(media.getId());
+    // --- Adaptive stream: playlists and segments under one token; a view is the master playlist fetch ---
+    public void streamRendition(HttpServletRequest request, HttpServletResponse response,
+                                Long id, String name, String token) throws IOException {
+        StreamTokenCodec.Claims claims = streamTokenCodec.decode(token, Instant.now().toEpochMilli()).orElse(null);
+        if (claims == null || claims.mediaId() != id) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        // Segments skip the limiter: a player fetches one every few seconds
+        if (name.equals(MediaStorage.filename(claims.location()))) {
+            RateLimitDecision decision = admitStream(request, id, true);
+            if (!decision.allowed()) {
+                response.setStatus(429); // Too Many Requests
+                response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+                return;
+            }
+        }
+        renditionService.serve(id, name, token, request, response);
+    }
+
+    private ResponseEntity<Resource> redirectToMedia(HttpServletRequest request, Long mediaId,
+                                                     String location, String rangeHeader) throws IOException {
+        // --- Log view only once per access (seeks re-request with a Range past byte 0) ---
+        RateLimitDecision decision = admitStream(request, mediaId, isInitialRequest(rangeHeader));
+        if (!decision.allowed()) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+            return ResponseEntity.status(429).headers(headers).body(null); // Too Many Requests
+        }
 
-        // --- Redirect to Cloudinary URL ---
+        // --- Edge mode: serve remote media from the local segment cache instead of redirecting ---
+        if (edgeCache != null) {
+            MediaStorage origin = storages.forLocation(location)
+                    .filter(storage -> !"local".equals(storage.name()))
+                    .orElse(null);
+            if (origin != null) return serveFromEdge(request, origin, location);
+        }
+
+        // --- Redirect to wherever the bytes live (/files/... serves ranges itself; S3 gets a presigned URL) ---
         HttpHeaders headers = new HttpHeaders();
-        headers.add("Location", media.getFileUrl());
+        headers.add("Location", storages.publicUrl(location));
         return ResponseEntity.status(HttpStatus.FOUND).headers(headers).build();
     }
 
-    private boolean isRateLimited(Long mediaId, String ip) {
-        String key = mediaId + ":" + ip;
-        long now = Instant.now().toEpochMilli();
-
-        RequestInfo updated = requestMap.compute(key, (k, existing) -> {
-            if (existing == null || now - existing.timestamp > WINDOW_MILLIS) {
-                // new time window → reset
-                return new RequestInfo(1, now);
-            } else {
-                if (existing.count >= MAX_REQUESTS) {
-                    // already exceeded
-                    return existing;
-                }
-                existing.count++;
-                return existing;
-            }
-        });
+    /**
+     * 200 / 206 / 416 from the edge cache. Several ranges are answered with one
+     * range spanning them, which players never send but RFC 9110 allows.
+     */
+    private ResponseEntity<Resource> serveFromEdge(HttpServletRequest request, MediaStorage origin,
+                                                   String location) throws IOException {
+        long length;
+        try {
+            length = edgeCache.size(origin, location);
+        } catch (NoSuchFileException e) {
+            throw new MediaNotFoundException("Media not found");
+        }
+        String etag = "\"" + EdgeCache.objectKey(location).substring(0, 32) + "\"";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setETag(etag);
+        headers.setContentType(MediaTypeFactory.getMediaType(MediaStorage.filename(location))
+                .orElse(MediaType.APPLICATION_OCTET_STREAM));
+
+        // No Last-Modified here, so a date-form If-Range (even an unparseable one) is always stale
+        List<long[]> ranges = FileStreamingService.parseRanges(request, length, etag, Long.MIN_VALUE);
+        if (ranges != null && ranges.isEmpty()) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+        }
+        long first = ranges == null ? 0 : ranges.get(0)[0];
+        long last = ranges == null ? length - 1 : ranges.get(ranges.size() - 1)[1];
+        long count = last - first + 1;
+        headers.setContentLength(count);
+        Resource body = edgeCache.resource(origin, location, first, count);
+        if (ranges == null) {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + first + "-" + last + "/" + length);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).body(body);
+    }
 
-        return updated.count > MAX_REQUESTS;
+    /** Stream rate limit, then a view log if allowed and {@code countView} */
+    private RateLimitDecision admitStream(HttpServletRequest request, Long mediaId, boolean countView) {
+        String clientIp = getClientIp(request);
+
+        // --- Apply Rate Limiting ---
+        RateLimitDecision decision = rateLimiter.tryAcquire(streamRateLimitPolicy, mediaId, clientIp);
+        if (decision.allowed() && countView) {
+            MediaViewLog log = MediaViewLog.builder()
+                    .mediaId(mediaId)
+                    .viewedByIp(clientIp)
+                    .timestamp(Instant.now())
+                    .build();
+            viewLogWriter.enqueue(log); // batched write-behind, off the request thread
+        }
+        return decision;
     }
 
-    // --- Analytics ---
-    @Cacheable(value = "mediaAnalytics", key = "#id")
-    public Map<String, Object> getAnalytics(Long id) {
-        MediaAsset media = mediaRepo.findById(id)
+    private static boolean isInitialRequest(String rangeHeader) {
+        return rangeHeader == null || rangeHeader.replace(" ", "").startsWith("bytes=0-");
+    }
+
+    // --- Adaptive renditions (HLS/DASH) of a media ---
+    public List<MediaRendition> getRenditions(Long id) {
+        mediaAssetCache.find(id)
+                .orElseThrow(() -> new MediaNotFoundException("Media not found"));
+        return renditionService.renditions(id);
+    }
+
+    public List<MediaRendition> rebuildRenditions(Long id) {
+        mediaAssetCache.find(id)
                 .orElseThrow(() -> new MediaNotFoundException("Media not found"));
+        return renditionService.requeue(id);
+    }
 
-        List<MediaViewLog> logs = mediaViewLogRepo.findByMediaId(id);
-        long totalViews = logs.size();
-        long uniqueIps = logs.stream().map(MediaViewLog::getViewedByIp).distinct().count();
+    // --- Analytics (write-through cache, rebuilt from rollups on miss) ---
+    public Map<String, Object> getAnalytics(Long id) {
+        MediaAsset media = mediaAssetCache.find(id)
+                .orElseThrow(() -> new MediaNotFoundException("Media not found"));
 
-        Map<String, Long> viewsPerDay = logs.stream()
-                .collect(Collectors.groupingBy(
-                        log -> log.getTimestamp().toString().substring(0, 10),
-                        Collectors.counting()
-                ));
+        String cacheStatus = "HIT";
+        AnalyticsCache.Entry entry = analyticsCache.get(id).orElse(null);
+        if (entry == null) {
+            cacheStatus = "MISS";
+            // Answer from the daily rollups (O(days)) instead of every raw view log
+            Map<String, Long> viewsPerDay = rollupService.viewsPerDay(id);
+            long totalViews = viewsPerDay.values().stream().mapToLong(Long::longValue).sum();
+            entry = new AnalyticsCache.Entry(totalViews, viewsPerDay);
+            analyticsCache.populate(id, entry);
+        }
+        long uniqueIps = uniqueViewerCounter.countUnique(id); // HyperLogLog estimate
 
         Map<String, Object> response = new HashMap<>();
-        response.put("total_views", totalViews);
+        response.put("total_views", entry.totalViews());
         response.put("unique_ips", uniqueIps);
-        response.put("views_per_day", viewsPerDay);
-        response.put("cache_status", "MISS");
+        response.put("views_per_day", entry.viewsPerDay());
+        response.put("cache_status", cacheStatus);
 
         return response;
     }
 
-    @CacheEvict(value = "mediaAnalytics", key = "#mediaId")
-    public void evictAnalyticsCache(Long mediaId) {}
+    /** Approximate distinct viewers over the UTC days [from, to] */
+    public Map<String, Object> getUniqueViewers(Long id, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("'to' must not be before 'from'");
+        mediaAssetCache.find(id)
+                .orElseThrow(() -> new MediaNotFoundException("Media not found"));
 
-    public List<MediaViewLog> getViewLogs(Long id) {
-        return mediaViewLogRepo.findByMediaId(id);
+        Map<String, Object> response = new HashMap<>();
+        response.put("from", from.toString());
+        response.put("to", to.toString());
+        response.put("unique_ips", uniqueViewerCounter.countUnique(id, from, to));
+        return response;
+    }
+
+    /** Backfill the daily rollups from media_view_logs */
+    public int rebuildViewRollups() {
+        return rollupService.rebuildAll();
     }
 
     public ResponseEntity<String> recordView(Long mediaId, HttpServletRequest request) {
         String ip = getClientIp(request);
-        String key = mediaId + ":" + ip;
-        long now = Instant.now().toEpochMilli();
-
-        RequestInfo updated = requestMap.compute(key, (k, existing) -> {
-            if (existing == null || now - existing.timestamp > WINDOW_MILLIS) {
-                // reset counter for new time window
-                return new RequestInfo(1, now);
-            } else {
-                if (existing.count >= MAX_REQUESTS) {
-                    // already exceeded → don’t increase count further
-                    return existing;
-                }
-                existing.count++;
-                return existing;
-            }
-        });
 
-        // Block if limit reached
-        if (updated.count > MAX_REQUESTS ||
-                (now - updated.timestamp <= WINDOW_MILLIS && updated.count == MAX_REQUESTS)) {
+        // Block if limit reached (shared across replicas when backed by Redis)
+        RateLimitDecision decision = rateLimiter.tryAcquire(viewRateLimitPolicy, mediaId, ip);
+        if (!decision.allowed()) {
             HttpHeaders headers = new HttpHeaders();
-            headers.add("Retry-After", String.valueOf(WINDOW_MILLIS / 1000));
+            headers.add("Retry-After", String.valueOf(decision.retryAfterSeconds()));
             return ResponseEntity.status(429).headers(headers).body("Too many requests! Try later.");
         }
 
@@ -245,8 +384,7 @@ public class MediaService {
                 .viewedByIp(ip)
                 .timestamp(Instant.now())
                 .build();
-        mediaViewLogRepo.save(log);
-        evictAnalyticsCache(mediaId);
+        viewLogWriter.enqueue(log);
 
         return ResponseEntity.ok("View recorded successfully!");
     }
@@ -263,13 +401,4 @@ public class MediaService {
         }
         return request.getRemoteAddr();
     }
-
-    private static class RequestInfo {
-        int count;
-        long timestamp;
-        RequestInfo(int count, long timestamp) {
-            this.count = count;
-            this.timestamp = timestamp;
-        }
-    }
 }
@@ -0,0 +1,103 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Trending scores in Redis sorted sets, shared by all replicas; reads are one
+ * ZREVRANGE (O(log n + limit)). Each sorted set is trimmed to {@code capacity}
+ * members after every batch, which bounds memory and keeps the heavy hitters.
+ *
+ * Decayed weights grow as 2^(age / halfLife), so scores are kept per
+ * generation of {@link #GENERATION_HALF_LIVES} half-lives, each relative to
+ * its own landmark. Views are also added to the next generation, so when it
+ * takes over it already holds the previous generation's views at the right
+ * weights.
+ */
+@Service
+@ConditionalOnProperty(name = "app.trending.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisTrendingTracker implements TrendingTracker {
+
+    private static final String KEY_PREFIX = "trending:";
+    static final int GENERATION_HALF_LIVES = 32;
+
+    private final StringRedisTemplate redis;
+    private final List<Duration> windows;
+    private final int capacity;
+
+    public RedisTrendingTracker(StringRedisTemplate redis,
+                                @Value("${app.trending.windows:1h,24h,7d}") List<Duration> windows,
+                                @Value("${app.trending.capacity:1000}") int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("app.trending.capacity must be positive");
+        this.redis = redis;
+        this.windows = List.copyOf(windows);
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void onViewsWritten(List<MediaViewLog> batch) {
+        // Sum weights per key and member so each costs one ZINCRBY
+        Map<String, Map<String, Double>> increments = new HashMap<>();
+        Map<String, Long> ttls = new HashMap<>();
+        for (Duration window : windows) {
+            long halfLife = window.toMillis();
+            long generationLength = halfLife * GENERATION_HALF_LIVES;
+            for (MediaViewLog view : batch) {
+                long t = view.getTimestamp().toEpochMilli();
+                long generation = Math.floorDiv(t, generationLength);
+                for (long g = generation; g <= generation + 1; g++) {
+                    double weight = Math.pow(2, (double) (t - g * generationLength) / halfLife);
+                    String key = key(window, g);
+                    increments.computeIfAbsent(key, k -> new HashMap<>())
+                            .merge(view.getMediaId().toString(), weight, Double::sum);
+                    // Written while next and current, then read no more
+                    ttls.putIfAbsent(key, window.toSeconds() * GENERATION_HALF_LIVES * 2 + 3600);
+                }
+            }
+        }
+
+        redis.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            increments.forEach((key, members) -> {
+                members.forEach((member, weight) -> conn.zIncrBy(key, weight, member));
+                conn.zRemRange(key, 0, -(capacity + 1L));
+                conn.expire(key, ttls.get(key));
+            });
+            return null;
+        });
+    }
+
+    @Override
+    public List<Score> top(Duration window, int limit) {
+        if (!windows.contains(window)) throw new IllegalArgumentException("Unknown trending window: " + window);
+        long now = System.currentTimeMillis();
+        long halfLife = window.toMillis();
+        long generationLength = halfLife * GENERATION_HALF_LIVES;
+        long generation = Math.floorDiv(now, generationLength);
+        double toNow = Math.pow(2, -(double) (now - generation * generationLength) / halfLife);
+
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redis.opsForZSet().reverseRangeWithScores(key(window, generation), 0, limit - 1L);
+        List<Score> scores = new ArrayList<>();
+        if (tuples != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                if (tuple.getValue() == null || tuple.getScore() == null) continue;
+                scores.add(new Score(Long.valueOf(tuple.getValue()), tuple.getScore() * toNow));
+            }
+        }
+        return scores;
+    }
+
+    private static String key(Duration window, long generation) {
+        return KEY_PREFIX + window.toSeconds() + ":" + generation;
+    }
+}
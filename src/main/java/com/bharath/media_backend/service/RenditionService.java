@@ -0,0 +1,163 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaRendition;
+import com.bharath.media_backend.repo.MediaRenditionRepository;
+import com.bharath.media_backend.util.ManifestRewriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Adaptive-bitrate renditions of media: queues them for {@link RenditionWorker},
+ * answers which manifest to play, and serves playlists and segments.
+ *
+ * Rendition files live in the local file store under
+ * {@code <hash>-media-<id>-<path>} and are served below {@code /media/<id>/abr/}
+ * only with a valid stream token. Playlists are stored with bare file names;
+ * on the way out every URI gets the caller's token appended, so a player
+ * resolving them relative to the playlist stays inside the signed scope.
+ */
+@Service
+public class RenditionService {
+
+    private static final String HLS_CONTENT_TYPE = "application/vnd.apple.mpegurl";
+    private static final String DASH_CONTENT_TYPE = "application/dash+xml";
+
+    private final MediaRenditionRepository renditionRepo;
+    private final FileUploadService fileUploadService;
+    private final FileStreamingService fileStreamingService;
+    private final boolean enabled;
+    private final List<MediaRendition.Format> formats;
+    private final Cache<Long, Optional<String>> hlsManifests;
+
+    public RenditionService(MediaRenditionRepository renditionRepo,
+                            FileUploadService fileUploadService,
+                            FileStreamingService fileStreamingService,
+                            @Value("${app.transcode.enabled:false}") boolean enabled,
+                            @Value("${app.transcode.dash:false}") boolean dash,
+                            @Value("${app.transcode.manifest-cache-ttl:30s}") Duration manifestCacheTtl) {
+        this.renditionRepo = renditionRepo;
+        this.fileUploadService = fileUploadService;
+        this.fileStreamingService = fileStreamingService;
+        this.enabled = enabled;
+        this.formats = dash
+                ? List.of(MediaRendition.Format.HLS, MediaRendition.Format.DASH)
+                : List.of(MediaRendition.Format.HLS);
+        this.hlsManifests = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(manifestCacheTtl)
+                .build();
+    }
+
+    /** Queue renditions for a newly saved asset; does nothing unless transcoding is enabled */
+    public void enqueue(Long mediaId) {
+        if (!enabled) return;
+        for (MediaRendition.Format format : formats) {
+            if (renditionRepo.findByMediaIdAndFormat(mediaId, format).isEmpty()) {
+                renditionRepo.save(pending(mediaId, format));
+            }
+        }
+    }
+
+    /** Build (or rebuild) every configured format of a media; the current renditions stay playable until replaced */
+    public List<MediaRendition> requeue(Long mediaId) {
+        if (!enabled) throw new IllegalStateException("Transcoding is disabled (app.transcode.enabled)");
+        List<MediaRendition> queued = new ArrayList<>();
+        for (MediaRendition.Format format : formats) {
+            MediaRendition rendition = renditionRepo.findByMediaIdAndFormat(mediaId, format)
+                    .orElseGet(() -> pending(mediaId, format));
+            if (rendition.getStatus() != MediaRendition.Status.PROCESSING) {
+                rendition.setStatus(MediaRendition.Status.PENDING);
+                rendition.setAttempts(0);
+                rendition.setProgress(0);
+                rendition.setLastError(null);
+                rendition.setNextAttemptAt(Instant.now());
+                rendition.setFinishedAt(null);
+            }
+            queued.add(renditionRepo.save(rendition));
+        }
+        return queued;
+    }
+
+    public List<MediaRendition> renditions(Long mediaId) {
+        return renditionRepo.findByMediaIdOrderByFormat(mediaId);
+    }
+
+    /** Stored name of the HLS master playlist, once one has been built */
+    public Optional<String> hlsManifest(Long mediaId) {
+        return hlsManifests.get(mediaId, id -> renditionRepo.findByMediaIdAndFormat(id, MediaRendition.Format.HLS)
+                .map(MediaRendition::getManifestName));
+    }
+
+    /** Forget the cached manifest of a media (this node only; others age out) */
+    public void invalidate(Long mediaId) {
+        hlsManifests.invalidate(mediaId);
+    }
+
+    /** URL path a rendition file of {@code mediaId} is served under */
+    public static String playbackPath(long mediaId, String storedName) {
+        return "/media/" + mediaId + "/abr/" + storedName;
+    }
+
+    /** Original file name to store a rendition file under; {@code relativePath} is within the ffmpeg output */
+    public static String storageName(long mediaId, String relativePath) {
+        return "media-" + mediaId + "-" + relativePath.replace('/', '-');
+    }
+
+    /**
+     * Serve a playlist (URIs signed with {@code token}) or segment of
+     * {@code mediaId}. The caller has verified the token.
+     */
+    public void serve(long mediaId, String name, String token,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Only this media's rendition files, and only names the index knows
+        Pattern owned = Pattern.compile("[0-9a-f]{12}(?:[0-9a-f]{52})?-media-" + mediaId + "-[^/]+");
+        Optional<StoredFile> file = owned.matcher(name).matches() ? fileUploadService.lookup(name) : Optional.empty();
+        if (file.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!ManifestRewriter.isManifest(name)) {
+            fileStreamingService.serve(file.get(), false, request, response);
+            return;
+        }
+
+        String manifest = Files.readString(file.get().path(), StandardCharsets.UTF_8);
+        byte[] signed = ManifestRewriter.rewrite(manifest, uri -> uri + "?t=" + token).getBytes(StandardCharsets.UTF_8);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(name.endsWith(".m3u8") ? HLS_CONTENT_TYPE : DASH_CONTENT_TYPE);
+        // Carries the caller's token, so no shared caches
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-store");
+        response.setContentLength(signed.length);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(signed);
+        }
+    }
+
+    private static MediaRendition pending(Long mediaId, MediaRendition.Format format) {
+        Instant now = Instant.now();
+        return MediaRendition.builder()
+                .mediaId(mediaId)
+                .format(format)
+                .status(MediaRendition.Status.PENDING)
+                .progress(0)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,393 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaAsset;
+import com.bharath.media_backend.domain.MediaRendition;
+import com.bharath.media_backend.repo.MediaRenditionRepository;
+import com.bharath.media_backend.storage.MediaStorage;
+import com.bharath.media_backend.storage.MediaStorageRegistry;
+import com.bharath.media_backend.util.ManifestRewriter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds queued renditions: fetches the source from its storage backend, runs
+ * {@link FfmpegTranscoder} in a scratch directory, stores every segment in the
+ * local content-addressed file store and rewrites the playlists to the stored
+ * names. The manifest is stored last, so a rendition is either fully playable
+ * or not referenced at all. Files of a replaced rendition are deleted only once
+ * every stream token that could still name them has expired.
+ *
+ * Claiming, leases and retries work like {@link UploadJobWorker}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.transcode.enabled", havingValue = "true")
+public class RenditionWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(RenditionWorker.class);
+
+    private static final String LOCAL_PREFIX = "/files/";
+    // Share of the progress bar per stage: fetch source, transcode, store
+    private static final int FETCHED = 10;
+    private static final int TRANSCODED = 90;
+    private static final int PROGRESS_STEP = 5;
+
+    private record Retired(Long renditionId, String manifestName, Instant deleteAfter) {}
+
+    private final MediaRenditionRepository renditionRepo;
+    private final RenditionService renditionService;
+    private final MediaAssetCache mediaAssetCache;
+    private final MediaStorageRegistry storages;
+    private final FileUploadService fileUploadService;
+    private final FfmpegTranscoder transcoder;
+    private final TransactionOperations tx;
+    private final MeterRegistry meterRegistry;
+    private final Path workRoot;
+    private final ExecutorService executor;
+    private final int workers;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Duration leaseTimeout;
+    private final Duration retireDelay;
+    private final Queue<Retired> retired = new ConcurrentLinkedQueue<>();
+
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final AtomicLong queueDepth = new AtomicLong();
+
+    public RenditionWorker(MediaRenditionRepository renditionRepo,
+                           RenditionService renditionService,
+                           MediaAssetCache mediaAssetCache,
+                           MediaStorageRegistry storages,
+                           FileUploadService fileUploadService,
+                           FfmpegTranscoder transcoder,
+                           TransactionOperations tx,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.transcode.work-dir:${app.upload.dir:uploads}/.transcode}") String workDir,
+                           @Value("${app.transcode.workers:2}") int workers,
+                           @Value("${app.transcode.max-attempts:3}") int maxAttempts,
+                           @Value("${app.transcode.retry-backoff-ms:60000}") long retryBackoffMillis,
+                           @Value("${app.transcode.lease-timeout:3h}") Duration leaseTimeout,
+                           @Value("${app.transcode.manifest-cache-ttl:30s}") Duration manifestCacheTtl,
+                           @Value("${app.stream.ttl-minutes:10}") long streamTtlMinutes) throws IOException {
+        this.renditionRepo = renditionRepo;
+        this.renditionService = renditionService;
+        this.mediaAssetCache = mediaAssetCache;
+        this.storages = storages;
+        this.fileUploadService = fileUploadService;
+        this.transcoder = transcoder;
+        this.tx = tx;
+        this.meterRegistry = meterRegistry;
+        this.workRoot = Files.createDirectories(Path.of(workDir));
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.leaseTimeout = leaseTimeout;
+        // Other nodes hand out the old master until their manifest cache expires,
+        // and each of those tokens stays valid for the stream TTL
+        this.retireDelay = manifestCacheTtl.plusMinutes(streamTtlMinutes);
+
+        // ffmpeg uses every core on its own, so a small fixed pool is the real
+        // concurrency limit; the threads mostly wait on the child process
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "transcode-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("media.renditions.queue.depth", queueDepth, AtomicLong::get)
+                .description("Renditions waiting for a transcode worker")
+                .register(meterRegistry);
+        Gauge.builder("media.renditions.in_flight", running, Set::size)
+                .description("Renditions being transcoded on this node")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.transcode.poll-interval-ms:5000}")
+    public void poll() {
+        Instant now = Instant.now();
+        deleteRetired(now);
+        tx.executeWithoutResult(status -> renditionRepo.requeueStale(
+                MediaRendition.Status.PROCESSING, MediaRendition.Status.PENDING, now.minus(leaseTimeout), now));
+        queueDepth.set(renditionRepo.countByStatus(MediaRendition.Status.PENDING));
+
+        int free = workers - running.size();
+        if (free <= 0) return;
+
+        List<Long> claimed = tx.execute(status -> {
+            List<Long> due = renditionRepo.lockDue(now, free);
+            if (!due.isEmpty()) {
+                renditionRepo.markClaimed(due, MediaRendition.Status.PROCESSING, now);
+            }
+            return due;
+        });
+        for (Long id : claimed) {
+            running.add(id);
+            executor.execute(() -> {
+                try {
+                    process(id);
+                } finally {
+                    running.remove(id);
+                }
+            });
+        }
+    }
+
+    /** Hand unfinished renditions back to the queue instead of waiting out their lease */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        if (!running.isEmpty()) {
+            List<Long> unfinished = List.copyOf(running);
+            tx.executeWithoutResult(status -> renditionRepo.findAllById(unfinished).forEach(rendition -> {
+                rendition.setStatus(MediaRendition.Status.PENDING);
+                rendition.setAttempts(Math.max(0, rendition.getAttempts() - 1));
+                rendition.setNextAttemptAt(Instant.now());
+            }));
+            log.info("Requeued {} unfinished renditions on shutdown", unfinished.size());
+        }
+    }
+
+    void process(Long id) {
+        MediaRendition rendition = renditionRepo.findById(id).orElse(null);
+        if (rendition == null) return;
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        Path workDir = workRoot.resolve(id + "-" + UUID.randomUUID());
+        try {
+            MediaAsset media = mediaAssetCache.find(rendition.getMediaId())
+                    .orElseThrow(() -> new NoSuchFileException("media " + rendition.getMediaId()));
+            IntConsumer progress = progressReporter(id);
+
+            Files.createDirectories(workDir);
+            Path source = source(media.getFileUrl(), workDir);
+            progress.accept(FETCHED);
+
+            FfmpegTranscoder.Probe probe = transcoder.probe(source);
+            List<FfmpegTranscoder.Variant> variants = transcoder.variantsFor(probe);
+            Path out = workDir.resolve("out");
+            IntConsumer transcodeProgress = percent -> progress.accept(FETCHED + percent * (TRANSCODED - FETCHED) / 100);
+            String rootManifest;
+            if (rendition.getFormat() == MediaRendition.Format.DASH) {
+                transcoder.dash(source, out, probe, variants, transcodeProgress);
+                rootManifest = FfmpegTranscoder.DASH_MANIFEST;
+            } else {
+                transcoder.hls(source, out, probe, variants, transcodeProgress);
+                rootManifest = FfmpegTranscoder.HLS_MASTER;
+            }
+
+            String manifestName = publish(media.getId(), out, rootManifest);
+            String previous = rendition.getManifestName();
+
+            rendition.setStatus(MediaRendition.Status.READY);
+            rendition.setProgress(100);
+            rendition.setVariants(variants.isEmpty() ? "audio"
+                    : variants.stream().map(FfmpegTranscoder.Variant::name).collect(Collectors.joining(",")));
+            rendition.setManifestName(manifestName);
+            rendition.setLastError(null);
+            rendition.setFinishedAt(Instant.now());
+            renditionRepo.save(rendition);
+            renditionService.invalidate(media.getId());
+
+            if (previous != null && !previous.equals(manifestName)) {
+                retired.add(new Retired(id, previous, Instant.now().plus(retireDelay)));
+            }
+            outcome = "succeeded";
+        } catch (Exception e) {
+            rendition.setLastError(truncate(e.toString()));
+            if (e instanceof NoSuchFileException || e instanceof IllegalArgumentException
+                    || rendition.getAttempts() >= maxAttempts) {
+                // Source gone or not media at all: retrying will not help
+                log.error("Rendition {} ({} of media {}) failed after {} attempts",
+                        id, rendition.getFormat(), rendition.getMediaId(), rendition.getAttempts(), e);
+                rendition.setStatus(MediaRendition.Status.FAILED);
+                rendition.setFinishedAt(Instant.now());
+                outcome = "failed";
+            } else {
+                long backoff = retryBackoffMillis << Math.min(10, rendition.getAttempts() - 1);
+                log.warn("Rendition {} attempt {} failed, retrying in {} ms: {}",
+                        id, rendition.getAttempts(), backoff, e.toString());
+                rendition.setStatus(MediaRendition.Status.PENDING);
+                rendition.setNextAttemptAt(Instant.now().plusMillis(backoff));
+                outcome = "retried";
+            }
+            renditionRepo.save(rendition);
+        } finally {
+            deleteRecursively(workDir);
+        }
+        sample.stop(Timer.builder("media.renditions.processing")
+                .description("Time to build one rendition attempt")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /** Local file to transcode: the stored blob itself, or a copy fetched from a remote backend */
+    private Path source(String location, Path workDir) throws IOException {
+        if (location.startsWith(LOCAL_PREFIX)) {
+            return fileUploadService.lookup(location.substring(LOCAL_PREFIX.length()))
+                    .map(StoredFile::path)
+                    .orElseThrow(() -> new NoSuchFileException(location));
+        }
+        MediaStorage storage = storages.forLocation(location)
+                .orElseThrow(() -> new NoSuchFileException("No storage backend for " + location));
+        Path copy = workDir.resolve("source-" + MediaStorage.filename(location));
+        try (InputStream in = storage.get(location)) {
+            Files.copy(in, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Store everything ffmpeg wrote, then each playlist with its URIs rewritten
+     * to the stored names (variant playlists before the master that lists
+     * them). Returns the stored name of {@code rootManifest}.
+     */
+    String publish(long mediaId, Path out, String rootManifest) throws IOException {
+        Map<String, String> stored = new HashMap<>(); // path within out -> stored name
+        List<String> manifests = new ArrayList<>();
+        List<String> files;
+        try (Stream<Path> walk = Files.walk(out)) {
+            files = walk.filter(Files::isRegularFile)
+                    .map(file -> out.relativize(file).toString().replace('\\', '/'))
+                    .sorted()
+                    .toList();
+        }
+        for (String file : files) {
+            if (ManifestRewriter.isManifest(file)) {
+                manifests.add(file);
+            } else {
+                stored.put(file, store(mediaId, out, file));
+            }
+        }
+
+        manifests.sort(Comparator.comparingInt((String m) -> m.split("/").length).reversed());
+        for (String manifest : manifests) {
+            String dir = manifest.substring(0, manifest.lastIndexOf('/') + 1);
+            Path path = out.resolve(manifest);
+            String rewritten = ManifestRewriter.rewrite(Files.readString(path, StandardCharsets.UTF_8), uri -> {
+                String target = stored.get(dir + uri);
+                if (target == null) throw new IllegalStateException(manifest + " refers to missing " + uri);
+                return target;
+            });
+            Files.writeString(path, rewritten, StandardCharsets.UTF_8);
+            stored.put(manifest, store(mediaId, out, manifest));
+        }
+
+        String root = stored.get(rootManifest);
+        if (root == null) throw new IOException("ffmpeg wrote no " + rootManifest);
+        return root;
+    }
+
+    private String store(long mediaId, Path out, String file) throws IOException {
+        String url = fileUploadService.storeFile(out.resolve(file), RenditionService.storageName(mediaId, file));
+        return url.substring(LOCAL_PREFIX.length());
+    }
+
+    /** Delete replaced renditions whose grace period is over, except files the current one shares */
+    void deleteRetired(Instant now) {
+        int pending = retired.size();
+        for (int i = 0; i < pending; i++) {
+            Retired entry = retired.poll();
+            if (entry == null) break;
+            if (entry.deleteAfter().isAfter(now)) {
+                retired.add(entry);
+                continue;
+            }
+            Set<String> keep = new HashSet<>();
+            renditionRepo.findById(entry.renditionId())
+                    .map(MediaRendition::getManifestName)
+                    .ifPresent(current -> collect(current, keep));
+            Set<String> names = new HashSet<>();
+            collect(entry.manifestName(), names);
+            names.removeAll(keep);
+            for (String name : names) {
+                try {
+                    fileUploadService.deleteFile(name);
+                } catch (IOException e) {
+                    log.warn("Could not delete replaced rendition file {}", name, e);
+                }
+            }
+        }
+    }
+
+    private void collect(String name, Set<String> names) {
+        if (!names.add(name)) return;
+        if (!ManifestRewriter.isManifest(name)) return;
+        StoredFile file = fileUploadService.lookup(name).orElse(null);
+        if (file == null) return;
+        try {
+            List<String> referenced = new ArrayList<>();
+            ManifestRewriter.rewrite(Files.readString(file.path(), StandardCharsets.UTF_8), uri -> {
+                referenced.add(uri);
+                return uri;
+            });
+            referenced.forEach(uri -> collect(uri, names));
+        } catch (IOException e) {
+            log.warn("Could not read replaced manifest {}", name, e);
+        }
+    }
+
+    /** Persist progress in steps, not on every ffmpeg status line */
+    private IntConsumer progressReporter(Long id) {
+        AtomicInteger reported = new AtomicInteger();
+        return percent -> {
+            if (percent >= reported.get() + PROGRESS_STEP) {
+                reported.set(percent);
+                tx.executeWithoutResult(status -> renditionRepo.updateProgress(id, percent));
+            }
+        };
+    }
+
+    private static void deleteRecursively(Path dir) {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean up transcode directory {}", dir, e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -0,0 +1,272 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.api.dto.UploadSessionCreateRequest;
+import com.bharath.media_backend.api.dto.UploadSessionResponse;
+import com.bharath.media_backend.exception.UploadSessionConflictException;
+import com.bharath.media_backend.exception.UploadSessionNotFoundException;
+import com.bharath.media_backend.util.LimitedInputStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Resumable uploads: a client opens a session with the final size, PUTs chunks
+ * at byte offsets (in any order, in parallel, retried as often as needed) and
+ * then completes the session.
+ *
+ * Each chunk is its own part file under {@code <upload dir>/.sessions/<id>/},
+ * written to a temp name and renamed, so a dropped request never leaves a
+ * half-written part and a retry simply replaces it. On completion the parts are
+ * concatenated with {@link FileChannel#transferTo}, which lets the kernel copy
+ * file to file without passing the bytes through the heap.
+ */
+@Service
+public class ResumableUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumableUploadService.class);
+
+    private static final String SESSIONS_DIR = ".sessions";
+    private static final String MANIFEST = "session.json";
+    private static final String PART_SUFFIX = ".part";
+    private static final String ASSEMBLED = "assembled";
+
+    /** Persisted session metadata */
+    record Manifest(String id, String filename, long size, String contentType, long createdAt) {}
+
+    /** What to do with the assembled file */
+    public interface Completion<T> {
+        T accept(Path assembled, String filename) throws IOException;
+    }
+
+    private final Path sessionsDir;
+    private final ObjectMapper objectMapper;
+    private final long maxChunkSize;
+    private final long maxUploadSize;
+    private final Duration sessionTtl;
+
+    public ResumableUploadService(ObjectMapper objectMapper,
+                                  @Value("${app.upload.dir:uploads}") String uploadDir,
+                                  @Value("${app.upload.resumable.max-chunk-size:16777216}") long maxChunkSize,
+                                  @Value("${app.upload.resumable.max-size:10737418240}") long maxUploadSize,
+                                  @Value("${app.upload.resumable.session-ttl:24h}") Duration sessionTtl) throws IOException {
+        this.objectMapper = objectMapper;
+        this.sessionsDir = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(SESSIONS_DIR);
+        this.maxChunkSize = maxChunkSize;
+        this.maxUploadSize = maxUploadSize;
+        this.sessionTtl = sessionTtl;
+        Files.createDirectories(this.sessionsDir);
+    }
+
+    // --- Open a session ---
+    public UploadSessionResponse create(UploadSessionCreateRequest request) throws IOException {
+        if (!StringUtils.hasText(request.getFilename())) {
+            throw new IllegalArgumentException("Filename is required");
+        }
+        if (request.getSize() <= 0 || request.getSize() > maxUploadSize) {
+            throw new IllegalArgumentException("Upload size must be between 1 and " + maxUploadSize + " bytes");
+        }
+
+        String filename = StringUtils.getFilename(StringUtils.cleanPath(request.getFilename()));
+        Manifest manifest = new Manifest(UUID.randomUUID().toString(), filename, request.getSize(),
+                request.getContentType(), Instant.now().toEpochMilli());
+
+        Path dir = sessionsDir.resolve(manifest.id());
+        Files.createDirectory(dir);
+        objectMapper.writeValue(dir.resolve(MANIFEST).toFile(), manifest);
+        return toResponse(manifest, List.of());
+    }
+
+    // --- Append one chunk at an offset ---
+    public UploadSessionResponse writeChunk(String id, long offset, long length, InputStream body) throws IOException {
+        Path dir = sessionDir(id);
+        Manifest manifest = readManifest(dir);
+
+        if (length <= 0) {
+            throw new IllegalArgumentException("Chunk Content-Length is required");
+        }
+        if (length > maxChunkSize) {
+            throw new IllegalArgumentException("Chunk exceeds max size of " + maxChunkSize + " bytes");
+        }
+        if (offset < 0 || offset + length > manifest.size()) {
+            throw new IllegalArgumentException("Chunk [" + offset + ", " + (offset + length)
+                    + ") is outside the upload size " + manifest.size());
+        }
+        for (long[] part : listParts(dir)) {
+            if (part[0] != offset && offset < part[0] + part[1] && part[0] < offset + length) {
+                throw new UploadSessionConflictException("Chunk at offset " + offset
+                        + " overlaps the chunk at offset " + part[0]);
+            }
+        }
+
+        // Temp name is unique per request so parallel retries of one offset don't collide
+        Path tmp = dir.resolve(offset + PART_SUFFIX + "." + UUID.randomUUID() + ".tmp");
+        try {
+            long written = Files.copy(new LimitedInputStream(body, length), tmp);
+            if (written != length) {
+                throw new IllegalArgumentException("Chunk truncated: expected " + length + " bytes, got " + written);
+            }
+            Files.move(tmp, dir.resolve(offset + PART_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            // Session was completed or aborted while this chunk was in flight
+            throw new UploadSessionNotFoundException("Upload session not found: " + id);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return toResponse(manifest, listParts(dir));
+    }
+
+    // --- Session status ---
+    public UploadSessionResponse status(String id) throws IOException {
+        Path dir = sessionDir(id);
+        return toResponse(readManifest(dir), listParts(dir));
+    }
+
+    // --- Assemble and hand off ---
+    public <T> T complete(String id, Completion<T> completion) throws IOException {
+        Path dir = sessionDir(id);
+        Path claimed = sessionsDir.resolve(id + ".completing");
+        try {
+            // Claim the session; chunk writes still in flight will fail their final rename
+            Files.move(dir, claimed, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            throw new UploadSessionNotFoundException("Upload session not found: " + id);
+        }
+
+        boolean done = false;
+        try {
+            Manifest manifest = readManifest(claimed);
+            Path assembled = assemble(claimed, manifest);
+            T result = completion.accept(assembled, manifest.filename());
+            done = true;
+            return result;
+        } finally {
+            if (done) {
+                FileSystemUtils.deleteRecursively(claimed);
+            } else {
+                // Release the session so the client can fill the gaps or retry completion
+                Files.deleteIfExists(claimed.resolve(ASSEMBLED));
+                Files.move(claimed, dir, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+    }
+
+    // --- Abort ---
+    public void abort(String id) throws IOException {
+        FileSystemUtils.deleteRecursively(sessionDir(id));
+    }
+
+    // --- Drop sessions that haven't received a chunk within the TTL ---
+    @Scheduled(fixedDelayString = "${app.upload.resumable.cleanup-interval-ms:3600000}")
+    public void purgeExpiredSessions() {
+        Instant cutoff = Instant.now().minus(sessionTtl);
+        try (DirectoryStream<Path> sessions = Files.newDirectoryStream(sessionsDir)) {
+            for (Path dir : sessions) {
+                // Directory mtime moves whenever a part is renamed in
+                if (Files.getLastModifiedTime(dir).toInstant().isBefore(cutoff)) {
+                    log.info("Removing expired upload session {}", dir.getFileName());
+                    FileSystemUtils.deleteRecursively(dir);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Upload session cleanup failed", e);
+        }
+    }
+
+    private Path assemble(Path dir, Manifest manifest) throws IOException {
+        List<long[]> parts = listParts(dir);
+        long expected = 0;
+        for (long[] part : parts) {
+            if (part[0] != expected) {
+                throw new UploadSessionConflictException("Upload incomplete: missing bytes from offset " + expected);
+            }
+            expected += part[1];
+        }
+        if (expected != manifest.size()) {
+            throw new UploadSessionConflictException("Upload incomplete: received " + expected
+                    + " of " + manifest.size() + " bytes");
+        }
+
+        Path target = dir.resolve(ASSEMBLED);
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (long[] part : parts) {
+                try (FileChannel in = FileChannel.open(dir.resolve(part[0] + PART_SUFFIX), StandardOpenOption.READ)) {
+                    long position = 0;
+                    while (position < part[1]) {
+                        position += in.transferTo(position, part[1] - position, out);
+                    }
+                }
+            }
+        }
+        return target;
+    }
+
+    /** Parts as [offset, length], sorted by offset */
+    private List<long[]> listParts(Path dir) throws IOException {
+        List<long[]> parts = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PART_SUFFIX)) {
+                    long offset = Long.parseLong(name.substring(0, name.length() - PART_SUFFIX.length()));
+                    parts.add(new long[]{offset, Files.size(file)});
+                }
+            }
+        } catch (NoSuchFileException e) {
+            throw new UploadSessionNotFoundException("Upload session not found: " + dir.getFileName());
+        }
+        parts.sort(Comparator.comparingLong(part -> part[0]));
+        return parts;
+    }
+
+    private Path sessionDir(String id) {
+        try {
+            // Only accept ids we minted; anything else could escape the sessions dir
+            UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new UploadSessionNotFoundException("Upload session not found: " + id);
+        }
+        return sessionsDir.resolve(id);
+    }
+
+    private Manifest readManifest(Path dir) throws IOException {
+        try {
+            return objectMapper.readValue(dir.resolve(MANIFEST).toFile(), Manifest.class);
+        } catch (NoSuchFileException | java.io.FileNotFoundException e) {
+            throw new UploadSessionNotFoundException("Upload session not found: " + dir.getFileName());
+        }
+    }
+
+    private static UploadSessionResponse toResponse(Manifest manifest, List<long[]> parts) {
+        List<long[]> ranges = new ArrayList<>();
+        long received = 0;
+        for (long[] part : parts) {
+            long start = part[0];
+            long end = part[0] + part[1] - 1;
+            received += part[1];
+            long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && last[1] + 1 == start) {
+                last[1] = end;
+            } else {
+                ranges.add(new long[]{start, end});
+            }
+        }
+        boolean complete = ranges.size() == 1 && ranges.get(0)[0] == 0 && received == manifest.size();
+        return new UploadSessionResponse(manifest.id(), manifest.filename(), manifest.size(),
+                received, ranges, complete);
+    }
+}
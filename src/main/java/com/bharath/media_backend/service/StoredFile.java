@@ -0,0 +1,20 @@
+package com.bharath.media_backend.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+import java.nio.file.Path;
+
+/** A file served under {@code /files}: where its bytes are and what the response headers need */
+public record StoredFile(String name, Path path, String sha256, long size, long lastModified, String contentType) {
+
+    public static StoredFile of(String name, Path path, String sha256, long size, long lastModified) {
+        String contentType = MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        return new StoredFile(name, path, sha256, size, lastModified, contentType);
+    }
+
+    /** Still stored flat in the upload dir, from before content addressing */
+    public boolean legacy() {
+        return sha256 == null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.api.dto.TrendingEntry;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class TrendingService {
+
+    static final int MAX_LIMIT = 200;
+
+    private final TrendingTracker trendingTracker;
+    private final MediaAssetCache mediaAssetCache;
+
+    public TrendingService(TrendingTracker trendingTracker, MediaAssetCache mediaAssetCache) {
+        this.trendingTracker = trendingTracker;
+        this.mediaAssetCache = mediaAssetCache;
+    }
+
+    /** Hottest media for a window such as "1h"; deleted media are skipped */
+    public List<TrendingEntry> trending(String window, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid window: " + window);
+        }
+
+        List<TrendingEntry> entries = new ArrayList<>();
+        for (TrendingTracker.Score score : trendingTracker.top(duration, limit)) {
+            mediaAssetCache.find(score.mediaId()).ifPresent(media ->
+                    entries.add(new TrendingEntry(media.getId(), media.getTitle(), score.score())));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,18 @@
+package com.bharath.media_backend.service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Trending media from view events: each view adds 2^((t - landmark) / halfLife),
+ * an exponentially decayed count ("forward decay"), so rankings never need a
+ * rescan. One score per configured window, where the window is the half-life.
+ * Memory is bounded by {@code app.trending.capacity} tracked media per window.
+ */
+public interface TrendingTracker extends ViewLogListener {
+
+    record Score(Long mediaId, double score) {}
+
+    /** Highest scores for a configured window, best first; score is in decayed views as of now */
+    List<Score> top(Duration window, int limit);
+}
@@ -0,0 +1,16 @@
+package com.bharath.media_backend.service;
+
+import java.time.LocalDate;
+
+/** Approximate distinct-viewer (IP) counts per media, backed by HyperLogLog sketches */
+public interface UniqueViewerCounter extends ViewLogListener {
+
+    /** Distinct viewers over all time */
+    long countUnique(Long mediaId);
+
+    /**
+     * Distinct viewers over the UTC days [from, to], merging the daily sketches.
+     * Days before the retention window or after today have no sketch and are skipped.
+     */
+    long countUnique(Long mediaId, LocalDate from, LocalDate to);
+}
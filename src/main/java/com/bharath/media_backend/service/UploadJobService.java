@@ -0,0 +1,98 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.UploadJob;
+import com.bharath.media_backend.exception.UploadJobNotFoundException;
+import com.bharath.media_backend.repo.UploadJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Accept-fast half of media ingest: stage the file under {@code <upload dir>/.jobs}
+ * and persist a PENDING job. {@link UploadJobWorker} does the slow part, on
+ * this node: the staging dir is local disk.
+ */
+@Service
+public class UploadJobService {
+
+    private static final String STAGING_DIR = ".jobs";
+
+    private final UploadJobRepository uploadJobRepo;
+    private final Path stagingDir;
+    private final String nodeId;
+
+    public UploadJobService(UploadJobRepository uploadJobRepo,
+                            @Value("${app.upload.dir:uploads}") String uploadDir,
+                            @Value("${app.upload.jobs.node-id:}") String nodeId) throws IOException {
+        this.uploadJobRepo = uploadJobRepo;
+        this.nodeId = resolveNodeId(nodeId);
+        this.stagingDir = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(STAGING_DIR);
+        Files.createDirectories(this.stagingDir);
+    }
+
+    // --- Stage a multipart upload (moved from the multipart temp file, not re-read) ---
+    public UploadJob submit(String title, String type, MultipartFile file) throws IOException {
+        if (file.isEmpty()) throw new IllegalArgumentException("Empty file not allowed");
+
+        Path staged = stagedPath(file.getOriginalFilename());
+        file.transferTo(staged);
+        return save(title, type, file.getOriginalFilename(), staged);
+    }
+
+    // --- Stage a file already on local disk (assembled resumable upload) ---
+    public UploadJob submit(String title, String type, Path file, String originalFilename) throws IOException {
+        if (Files.size(file) == 0) throw new IllegalArgumentException("Empty file not allowed");
+
+        Path staged = stagedPath(originalFilename);
+        Files.move(file, staged, StandardCopyOption.REPLACE_EXISTING);
+        return save(title, type, originalFilename, staged);
+    }
+
+    public UploadJob getJob(Long id) {
+        return uploadJobRepo.findById(id)
+                .orElseThrow(() -> new UploadJobNotFoundException("Upload job not found"));
+    }
+
+    private UploadJob save(String title, String type, String originalFilename, Path staged) throws IOException {
+        Instant now = Instant.now();
+        UploadJob job = UploadJob.builder()
+                .status(UploadJob.Status.PENDING)
+                .title(title)
+                .type(type)
+                .originalFilename(StringUtils.cleanPath(originalFilename))
+                .stagedPath(staged.toString())
+                .stagedOn(nodeId)
+                .size(Files.size(staged))
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+        return uploadJobRepo.save(job);
+    }
+
+    /** Name this node records on jobs it stages; the host name unless configured */
+    static String resolveNodeId(String configured) {
+        if (StringUtils.hasText(configured)) return configured;
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "local";
+        }
+    }
+
+    private Path stagedPath(String originalFilename) {
+        String name = StringUtils.getFilename(StringUtils.cleanPath(originalFilename));
+        return stagingDir.resolve(UUID.randomUUID() + "-" + name);
+    }
+}
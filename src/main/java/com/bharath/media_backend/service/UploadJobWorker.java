@@ -0,0 +1,244 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.api.dto.MediaCreateRequest;
+import com.bharath.media_backend.domain.MediaAsset;
+import com.bharath.media_backend.domain.UploadJob;
+import com.bharath.media_backend.exception.UploadCapacityExceededException;
+import com.bharath.media_backend.repo.UploadJobRepository;
+import com.bharath.media_backend.storage.MediaStorageRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background half of media ingest: polls due upload jobs and runs them on a
+ * fixed worker pool (push staged file to the primary storage backend, then save
+ * the MediaAsset).
+ *
+ * Staged files are on the disk of the node that accepted the upload, so each
+ * node only claims its own jobs; {@code FOR UPDATE SKIP LOCKED} keeps the
+ * node's workers from claiming the same one. A job whose worker died stays
+ * PROCESSING until its lease runs out and is then requeued; failures are
+ * retried with exponential backoff.
+ *
+ * Claims and requeues bump the job's version, so a worker that outlived its
+ * lease fails on its next save and its transaction (including the MediaAsset)
+ * rolls back; the job's current holder finishes it.
+ */
+@Component
+public class UploadJobWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadJobWorker.class);
+
+    private final UploadJobRepository uploadJobRepo;
+    private final MediaService mediaService;
+    private final MediaStorageRegistry storages;
+    private final TransactionOperations tx;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final int workers;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Duration leaseTimeout;
+    private final String nodeId;
+
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final AtomicLong queueDepth = new AtomicLong();
+
+    public UploadJobWorker(UploadJobRepository uploadJobRepo,
+                           MediaService mediaService,
+                           MediaStorageRegistry storages,
+                           TransactionOperations tx,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.upload.jobs.workers:4}") int workers,
+                           @Value("${app.upload.jobs.max-attempts:5}") int maxAttempts,
+                           @Value("${app.upload.jobs.retry-backoff-ms:5000}") long retryBackoffMillis,
+                           @Value("${app.upload.jobs.max-backoff-ms:600000}") long maxBackoffMillis,
+                           @Value("${app.upload.jobs.lease-timeout:15m}") Duration leaseTimeout,
+                           @Value("${app.upload.jobs.node-id:}") String nodeId) {
+        this.uploadJobRepo = uploadJobRepo;
+        this.mediaService = mediaService;
+        this.storages = storages;
+        this.tx = tx;
+        this.meterRegistry = meterRegistry;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.leaseTimeout = leaseTimeout;
+        this.nodeId = UploadJobService.resolveNodeId(nodeId);
+
+        // Platform threads even in virtual-thread mode: the pool size is the upload
+        // concurrency limit, and Cloudinary's HTTP client blocks inside synchronized code
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "upload-job-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("media.upload.jobs.queue.depth", queueDepth, AtomicLong::get)
+                .description("Upload jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("media.upload.jobs.in_flight", running, Set::size)
+                .description("Upload jobs being processed on this node")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.jobs.poll-interval-ms:1000}")
+    public void poll() {
+        Instant now = Instant.now();
+        tx.executeWithoutResult(status -> uploadJobRepo.requeueStale(
+                UploadJob.Status.PROCESSING, UploadJob.Status.PENDING, now.minus(leaseTimeout), now));
+        queueDepth.set(uploadJobRepo.countByStatus(UploadJob.Status.PENDING));
+
+        int free = workers - running.size();
+        if (free <= 0) return;
+
+        List<Long> claimed = tx.execute(status -> {
+            List<Long> due = uploadJobRepo.lockDueJobs(now, nodeId, free);
+            if (!due.isEmpty()) {
+                uploadJobRepo.markClaimed(due, UploadJob.Status.PROCESSING, now);
+            }
+            return due;
+        });
+        for (Long id : claimed) {
+            running.add(id);
+            executor.execute(() -> {
+                try {
+                    process(id);
+                } finally {
+                    running.remove(id);
+                }
+            });
+        }
+    }
+
+    /** Hand unfinished jobs back to the queue instead of waiting out their lease */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        if (!running.isEmpty()) {
+            List<Long> unfinished = List.copyOf(running);
+            tx.executeWithoutResult(status -> uploadJobRepo.findAllById(unfinished).forEach(job -> {
+                job.setStatus(UploadJob.Status.PENDING);
+                job.setAttempts(Math.max(0, job.getAttempts() - 1));
+                job.setNextAttemptAt(Instant.now());
+            }));
+            log.info("Requeued {} unfinished upload jobs on shutdown", unfinished.size());
+        }
+    }
+
+    void process(Long id) {
+        UploadJob job = uploadJobRepo.findById(id).orElse(null);
+        if (job == null) return;
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            outcome = attempt(job);
+        } catch (OptimisticLockingFailureException e) {
+            // Lease expired and the job was requeued: leave it, and its staged file, to the new holder
+            log.warn("Upload job {} outlived its lease and was taken over; dropping this attempt", id);
+            outcome = "lease_lost";
+        }
+        sample.stop(Timer.builder("media.upload.jobs.processing")
+                .description("Time to process one upload job attempt")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private String attempt(UploadJob job) {
+        Long id = job.getId();
+        Path staged = Path.of(job.getStagedPath());
+        try {
+            if (job.getFileUrl() == null) {
+                job.setFileUrl(storages.primary().put(job.getOriginalFilename(), staged));
+                job = uploadJobRepo.save(job);
+            }
+
+            UploadJob uploaded = job;
+            // Record and job update commit together (the version check fences an expired
+            // lease), so a retry never creates a second asset
+            tx.executeWithoutResult(status -> {
+                MediaCreateRequest request = new MediaCreateRequest();
+                request.setTitle(uploaded.getTitle());
+                request.setType(uploaded.getType());
+                request.setFileUrl(uploaded.getFileUrl());
+                MediaAsset media = mediaService.createMediaAsset(request);
+
+                uploaded.setMediaId(media.getId());
+                uploaded.setStatus(UploadJob.Status.SUCCEEDED);
+                uploaded.setLastError(null);
+                uploaded.setFinishedAt(Instant.now());
+                uploadJobRepo.save(uploaded);
+            });
+            deleteStaged(staged);
+            return "succeeded";
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
+        } catch (UploadCapacityExceededException e) {
+            // Not the job's fault: put it back without spending an attempt
+            job.setAttempts(job.getAttempts() - 1);
+            job.setStatus(UploadJob.Status.PENDING);
+            job.setNextAttemptAt(Instant.now().plusMillis(retryBackoffMillis));
+            uploadJobRepo.save(job);
+            return "deferred";
+        } catch (Exception e) {
+            String outcome;
+            job.setLastError(truncate(e.toString()));
+            if (job.getAttempts() >= maxAttempts) {
+                log.error("Upload job {} failed after {} attempts", id, job.getAttempts(), e);
+                job.setStatus(UploadJob.Status.FAILED);
+                job.setFinishedAt(Instant.now());
+                deleteStaged(staged);
+                outcome = "failed";
+            } else {
+                long backoff = Math.min(maxBackoffMillis, retryBackoffMillis << Math.min(20, job.getAttempts() - 1));
+                log.warn("Upload job {} attempt {} failed, retrying in {} ms: {}", id, job.getAttempts(), backoff, e.toString());
+                job.setStatus(UploadJob.Status.PENDING);
+                job.setFinishedAt(null);
+                job.setNextAttemptAt(Instant.now().plusMillis(backoff));
+                outcome = "retried";
+            }
+            uploadJobRepo.save(job);
+            return outcome;
+        }
+    }
+
+    private static void deleteStaged(Path staged) {
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException e) {
+            log.warn("Could not delete staged upload {}", staged, e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -0,0 +1,86 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.api.dto.TopMediaEntry;
+import com.bharath.media_backend.api.dto.ViewAnalyticsResponse;
+import com.bharath.media_backend.domain.MediaAsset;
+import com.bharath.media_backend.exception.MediaNotFoundException;
+import com.bharath.media_backend.repo.MediaViewLogRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exact view analytics over arbitrary time ranges, aggregated by Postgres
+ * (COUNT, COUNT DISTINCT, date_trunc buckets) on the (media_id, timestamp)
+ * index. Only aggregate rows reach the JVM; the cached /analytics endpoint
+ * keeps using the daily rollups.
+ */
+@Service
+public class ViewAnalyticsService {
+
+    public enum Granularity {
+        HOUR("hour", Duration.ofHours(1)),
+        DAY("day", Duration.ofDays(1)),
+        WEEK("week", Duration.ofDays(7));
+
+        private final String unit;
+        private final Duration length;
+
+        Granularity(String unit, Duration length) {
+            this.unit = unit;
+            this.length = length;
+        }
+    }
+
+    /** Caps the response size (about 1 year of hours) */
+    static final long MAX_BUCKETS = 9000;
+    static final int MAX_TOP = 100;
+
+    private final MediaViewLogRepository mediaViewLogRepo;
+    private final MediaAssetCache mediaAssetCache;
+
+    public ViewAnalyticsService(MediaViewLogRepository mediaViewLogRepo, MediaAssetCache mediaAssetCache) {
+        this.mediaViewLogRepo = mediaViewLogRepo;
+        this.mediaAssetCache = mediaAssetCache;
+    }
+
+    /** Totals and per-bucket counts for views in [from, to) */
+    public ViewAnalyticsResponse viewStats(Long mediaId, Instant from, Instant to, Granularity granularity) {
+        checkRange(from, to);
+        if (Duration.between(from, to).dividedBy(granularity.length) > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Range too large for " + granularity.unit + " buckets");
+        }
+        mediaAssetCache.find(mediaId).orElseThrow(() -> new MediaNotFoundException("Media not found"));
+
+        MediaViewLogRepository.ViewTotals totals = mediaViewLogRepo.aggregateTotals(mediaId, from, to);
+        List<ViewAnalyticsResponse.Bucket> buckets = new ArrayList<>();
+        for (MediaViewLogRepository.ViewBucket bucket : mediaViewLogRepo.aggregateBuckets(mediaId, granularity.unit, from, to)) {
+            buckets.add(new ViewAnalyticsResponse.Bucket(bucket.getBucket().toInstant(ZoneOffset.UTC),
+                    bucket.getViews(), bucket.getUniqueIps()));
+        }
+        return new ViewAnalyticsResponse(mediaId, from, to, granularity.unit,
+                totals.getViews(), totals.getUniqueIps(), buckets);
+    }
+
+    /** Most viewed media in [from, to) */
+    public List<TopMediaEntry> topMedia(Instant from, Instant to, int limit) {
+        checkRange(from, to);
+        if (limit < 1 || limit > MAX_TOP) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_TOP);
+        }
+        List<TopMediaEntry> top = new ArrayList<>();
+        for (MediaViewLogRepository.MediaViewCount row : mediaViewLogRepo.topMedia(from, to, limit)) {
+            String title = mediaAssetCache.find(row.getMediaId()).map(MediaAsset::getTitle).orElse(null);
+            top.add(new TopMediaEntry(row.getMediaId(), title, row.getViews()));
+        }
+        return top;
+    }
+
+    private static void checkRange(Instant from, Instant to) {
+        if (!from.isBefore(to)) throw new IllegalArgumentException("'from' must be before 'to'");
+    }
+}
@@ -0,0 +1,11 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+
+import java.util.List;
+
+/** Notified by {@link ViewLogWriter} after a batch of views has been committed */
+public interface ViewLogListener {
+
+    void onViewsWritten(List<MediaViewLog> batch);
+}
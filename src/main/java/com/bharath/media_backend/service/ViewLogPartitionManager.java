@@ -0,0 +1,178 @@
+package com.bharath.media_backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the range partitions of media_view_logs (see V2 migration) ahead of
+ * the clock and applies retention. Partitions are named by their UTC start:
+ * {@code media_view_logs_pYYYYMMDD} (daily) or {@code media_view_logs_pYYYYMM}
+ * (monthly). Before an expired partition is dropped its days are rebuilt into
+ * media_view_daily_stats, so analytics outlive the raw rows.
+ *
+ * Rows that reached the default partition before their range had a partition
+ * (fresh database, clock skew) are moved into it when it is created.
+ *
+ * Every statement is idempotent, so several nodes may run this concurrently.
+ */
+@Component
+public class ViewLogPartitionManager {
+
+    public enum Granularity { DAY, MONTH }
+
+    private static final Logger log = LoggerFactory.getLogger(ViewLogPartitionManager.class);
+
+    static final String PARENT = "media_view_logs";
+    private static final String DEFAULT_PARTITION = PARENT + "_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARENT + "_p(\\d{6}|\\d{8})");
+    private static final DateTimeFormatter DAY_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionOperations tx;
+    private final ViewRollupService rollupService;
+    private final Granularity granularity;
+    private final int precreate;
+    private final int retentionDays;
+
+    public ViewLogPartitionManager(JdbcTemplate jdbc,
+                                   TransactionOperations tx,
+                                   ViewRollupService rollupService,
+                                   @Value("${app.viewlog.partition.granularity:MONTH}") Granularity granularity,
+                                   @Value("${app.viewlog.partition.precreate:3}") int precreate,
+                                   @Value("${app.viewlog.retention-days:0}") int retentionDays) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.rollupService = rollupService;
+        this.granularity = granularity;
+        this.precreate = precreate;
+        this.retentionDays = retentionDays;
+    }
+
+    /** Before the first view is written: ViewLogWriter depends on this bean */
+    @PostConstruct
+    public void init() {
+        maintain();
+    }
+
+    @Scheduled(initialDelayString = "${app.viewlog.partition.check-interval-ms:3600000}",
+            fixedDelayString = "${app.viewlog.partition.check-interval-ms:3600000}")
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        try {
+            createUpcoming(today);
+            if (retentionDays > 0) dropExpired(today.minusDays(retentionDays));
+        } catch (DataAccessException e) {
+            log.warn("View log partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /** The current partition plus {@code precreate} more */
+    void createUpcoming(LocalDate today) {
+        LocalDate start = granularity == Granularity.DAY ? today : today.withDayOfMonth(1);
+        for (int i = 0; i <= precreate; i++) {
+            LocalDate from = granularity == Granularity.DAY ? start.plusDays(i) : start.plusMonths(i);
+            LocalDate to = granularity == Granularity.DAY ? from.plusDays(1) : from.plusMonths(1);
+            String name = PARENT + "_p" + from.format(granularity == Granularity.DAY ? DAY_SUFFIX : MONTH_SUFFIX);
+            try {
+                jdbc.execute(createPartition(name, from, to));
+            } catch (DataAccessException e) {
+                if (!defaultHoldsRows(from, to)) {
+                    // Overlaps a partition of the other granularity (e.g. after switching): keep what exists
+                    log.info("Skipped view log partition {}: {}", name, e.getMostSpecificCause().getMessage());
+                    continue;
+                }
+                try {
+                    int moved = adoptDefaultRows(name, from, to);
+                    log.warn("Moved {} view logs from {} into new partition {}", moved, DEFAULT_PARTITION, name);
+                } catch (DataAccessException moveFailed) {
+                    log.warn("Could not create view log partition {}, its rows stay in {}: {}",
+                            name, DEFAULT_PARTITION, moveFailed.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private boolean defaultHoldsRows(LocalDate from, LocalDate to) {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE timestamp >= ? AND timestamp < ?)",
+                Boolean.class, Timestamp.from(toInstant(from)), Timestamp.from(toInstant(to))));
+    }
+
+    /**
+     * Postgres refuses a partition whose range already has rows in the default
+     * partition. Detach the default, create the partition, move the rows and
+     * re-attach, all in one transaction; writers wait on the parent's lock.
+     */
+    int adoptDefaultRows(String name, LocalDate from, LocalDate to) {
+        Timestamp lower = Timestamp.from(toInstant(from));
+        Timestamp upper = Timestamp.from(toInstant(to));
+        Integer moved = tx.execute(status -> {
+            jdbc.execute("LOCK TABLE " + PARENT + " IN ACCESS EXCLUSIVE MODE");
+            // Another node may have moved them while we waited for the lock
+            if (Boolean.TRUE.equals(jdbc.queryForObject("SELECT to_regclass(?::text) IS NOT NULL", Boolean.class, name))) {
+                return 0;
+            }
+            jdbc.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + DEFAULT_PARTITION);
+            jdbc.execute(createPartition(name, from, to));
+            int rows = jdbc.update("INSERT INTO " + name + " (id, media_id, viewed_by_ip, timestamp)"
+                    + " SELECT id, media_id, viewed_by_ip, timestamp FROM " + DEFAULT_PARTITION
+                    + " WHERE timestamp >= ? AND timestamp < ?", lower, upper);
+            jdbc.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp >= ? AND timestamp < ?", lower, upper);
+            jdbc.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+            return rows;
+        });
+        return moved == null ? 0 : moved;
+    }
+
+    private static String createPartition(String name, LocalDate from, LocalDate to) {
+        return "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + PARENT
+                + " FOR VALUES FROM ('" + toInstant(from) + "') TO ('" + toInstant(to) + "')";
+    }
+
+    /** Drop partitions that end on or before {@code cutoff}, and stray default-partition rows */
+    void dropExpired(LocalDate cutoff) {
+        List<String> partitions = jdbc.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'media_view_logs'::regclass
+                """, String.class);
+        for (String name : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) continue;
+
+            String suffix = matcher.group(1);
+            LocalDate from = suffix.length() == 8
+                    ? LocalDate.parse(suffix, DAY_SUFFIX)
+                    : LocalDate.parse(suffix + "01", DAY_SUFFIX);
+            LocalDate to = suffix.length() == 8 ? from.plusDays(1) : from.plusMonths(1);
+            if (to.isAfter(cutoff)) continue;
+
+            rollupService.rebuild(toInstant(from), toInstant(to));
+            jdbc.execute("DROP TABLE IF EXISTS " + name);
+            log.info("Dropped view log partition {} [{}, {})", name, from, to);
+        }
+        int deleted = jdbc.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp < ?",
+                Timestamp.from(toInstant(cutoff)));
+        if (deleted > 0) log.info("Deleted {} expired view logs from {}", deleted, DEFAULT_PARTITION);
+    }
+
+    private static Instant toInstant(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -0,0 +1,195 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.api.dto.ViewLogEntry;
+import com.bharath.media_backend.api.dto.ViewLogPage;
+import com.bharath.media_backend.exception.MediaNotFoundException;
+import com.bharath.media_backend.repo.MediaViewLogRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads raw view logs without loading a media's whole history: keyset pages
+ * ordered by (timestamp, id), and a streaming export that walks a server-side
+ * cursor and writes rows as they arrive, so memory stays flat at any size.
+ */
+@Service
+public class ViewLogQueryService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Open-ended ranges; Postgres timestamps go far beyond this
+    private static final Instant MIN_TIME = Instant.EPOCH;
+    private static final Instant MAX_TIME = Instant.parse("9999-12-31T00:00:00Z");
+
+    private static final JsonFactory JSON = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
+    private final MediaViewLogRepository mediaViewLogRepo;
+    private final MediaAssetCache mediaAssetCache;
+
+    public ViewLogQueryService(MediaViewLogRepository mediaViewLogRepo, MediaAssetCache mediaAssetCache) {
+        this.mediaViewLogRepo = mediaViewLogRepo;
+        this.mediaAssetCache = mediaAssetCache;
+    }
+
+    /** One page in [from, to) after {@code cursor} (null for the first page) */
+    public ViewLogPage page(Long mediaId, Instant from, Instant to, String cursor, Integer limit) {
+        requireMedia(mediaId);
+        Instant start = from != null ? from : MIN_TIME;
+        Instant end = to != null ? to : MAX_TIME;
+        checkRange(start, end);
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Instant afterTimestamp = start;
+        long afterId = Long.MIN_VALUE;
+        if (cursor != null) {
+            Cursor decoded = decodeCursor(cursor);
+            // A cursor from before 'from' must not widen the range
+            if (decoded.timestamp().isAfter(start)
+                    || (decoded.timestamp().equals(start) && decoded.id() > afterId)) {
+                afterTimestamp = decoded.timestamp();
+                afterId = decoded.id();
+            }
+        }
+
+        // One extra row tells us whether another page exists without a count query
+        List<ViewLogEntry> rows = mediaViewLogRepo.findPage(mediaId, afterTimestamp, afterId, end,
+                PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            ViewLogEntry last = rows.get(size - 1);
+            nextCursor = encodeCursor(last.getTimestamp(), last.getId());
+        }
+        return new ViewLogPage(List.copyOf(rows), nextCursor);
+    }
+
+    /**
+     * Write every view in [from, to) to the response as NDJSON or CSV. The
+     * transaction keeps the JDBC cursor open (Postgres only honours the fetch
+     * size with autocommit off); rows are flushed every fetch.
+     */
+    @Transactional(readOnly = true)
+    public long export(Long mediaId, Instant from, Instant to, Format format,
+                       HttpServletResponse response) throws IOException {
+        requireMedia(mediaId);
+        Instant start = from != null ? from : MIN_TIME;
+        Instant end = to != null ? to : MAX_TIME;
+        checkRange(start, end);
+
+        response.setContentType(format.contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"media-" + mediaId + "-views." + format.extension + "\"");
+
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+        try (Stream<ViewLogEntry> rows = mediaViewLogRepo.streamRange(mediaId, start, end)) {
+            long written = format == Format.CSV ? writeCsv(rows.iterator(), out) : writeNdjson(rows.iterator(), out);
+            out.flush();
+            return written;
+        }
+    }
+
+    static long writeNdjson(Iterator<ViewLogEntry> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            while (rows.hasNext()) {
+                ViewLogEntry row = rows.next();
+                json.writeStartObject();
+                json.writeNumberField("id", row.getId());
+                json.writeNumberField("mediaId", row.getMediaId());
+                json.writeStringField("viewedByIp", row.getViewedByIp());
+                json.writeStringField("timestamp", row.getTimestamp().toString());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                if (++count % MediaViewLogRepository.EXPORT_FETCH_SIZE == 0) json.flush();
+            }
+        }
+        return count;
+    }
+
+    static long writeCsv(Iterator<ViewLogEntry> rows, OutputStream out) throws IOException {
+        long count = 0;
+        // Not closed: closing would close the response stream before the caller flushes
+        Writer csv = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        csv.write("id,media_id,viewed_by_ip,timestamp\r\n");
+        while (rows.hasNext()) {
+            ViewLogEntry row = rows.next();
+            csv.write(Long.toString(row.getId()));
+            csv.write(',');
+            csv.write(Long.toString(row.getMediaId()));
+            csv.write(',');
+            csv.write(csvField(row.getViewedByIp()));
+            csv.write(',');
+            csv.write(row.getTimestamp().toString());
+            csv.write("\r\n");
+            if (++count % MediaViewLogRepository.EXPORT_FETCH_SIZE == 0) csv.flush();
+        }
+        csv.flush();
+        return count;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record Cursor(Instant timestamp, long id) {}
+
+    static String encodeCursor(Instant timestamp, long id) {
+        return CURSOR_ENCODER.encodeToString((timestamp + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String decoded = new String(CURSOR_DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int bar = decoded.indexOf('|');
+            if (bar < 0) throw new IllegalArgumentException("Invalid cursor");
+            return new Cursor(Instant.parse(decoded.substring(0, bar)), Long.parseLong(decoded.substring(bar + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static void checkRange(Instant from, Instant to) {
+        if (!from.isBefore(to)) throw new IllegalArgumentException("'from' must be before 'to'");
+    }
+
+    private void requireMedia(Long mediaId) {
+        mediaAssetCache.find(mediaId).orElseThrow(() -> new MediaNotFoundException("Media not found"));
+    }
+}
@@ -0,0 +1,222 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+import com.bharath.media_backend.repo.MediaViewLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for view logs: request threads enqueue, a single
+ * background thread flushes to Postgres in batches (by size or time).
+ * Starts after the current view log partition exists.
+ */
+@Component
+@DependsOn("viewLogPartitionManager")
+public class ViewLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ViewLogWriter.class);
+
+    /** What to do when the queue is full */
+    public enum OverflowPolicy {
+        DROP_NEWEST,  // reject the incoming view
+        DROP_OLDEST,  // evict the oldest queued view to make room
+        BLOCK,        // wait up to offer-timeout-ms, then drop
+        CALLER_RUNS   // write synchronously on the request thread
+    }
+
+    private final MediaViewLogRepository mediaViewLogRepo;
+    private final ViewRollupService rollupService;
+    private final List<ViewLogListener> listeners;
+    private final TransactionOperations tx;
+    private final BlockingQueue<MediaViewLog> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Timer flushTimer;
+    private final DistributionSummary rowsPerFlush;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ViewLogWriter(MediaViewLogRepository mediaViewLogRepo,
+                         ViewRollupService rollupService,
+                         List<ViewLogListener> listeners,
+                         TransactionOperations tx,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.viewlog.queue-capacity:10000}") int queueCapacity,
+                         @Value("${app.viewlog.batch-size:500}") int batchSize,
+                         @Value("${app.viewlog.flush-interval-ms:1000}") long flushIntervalMillis,
+                         @Value("${app.viewlog.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy,
+                         @Value("${app.viewlog.offer-timeout-ms:50}") long offerTimeoutMillis,
+                         @Value("${app.viewlog.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.mediaViewLogRepo = mediaViewLogRepo;
+        this.rollupService = rollupService;
+        this.listeners = listeners;
+        this.tx = tx;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+
+        Gauge.builder("media.viewlog.queue.depth", queue, BlockingQueue::size)
+                .description("View logs waiting to be flushed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("media.viewlog.flush.latency")
+                .description("Time spent writing one batch of view logs")
+                .register(meterRegistry);
+        this.rowsPerFlush = DistributionSummary.builder("media.viewlog.flush.rows")
+                .description("View logs written per flush")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("media.viewlog.dropped")
+                .description("View logs dropped because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("media.viewlog.failed")
+                .description("View logs lost because a flush failed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "view-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Drain whatever is still queued before the datasource goes away */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker == null) return;
+        worker.join(shutdownTimeoutMillis);
+        if (worker.isAlive()) {
+            worker.interrupt();
+            log.warn("View log writer did not drain within {} ms, {} views left unwritten",
+                    shutdownTimeoutMillis, queue.size());
+        }
+    }
+
+    /** Queue a view for writing. Returns false if the view was dropped. */
+    public boolean enqueue(MediaViewLog viewLog) {
+        if (!running) {
+            // Not started yet or shutting down: don't lose the view
+            flush(List.of(viewLog));
+            return true;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                while (!queue.offer(viewLog)) {
+                    if (queue.poll() != null) droppedCounter.increment();
+                }
+                return true;
+            }
+            case BLOCK -> {
+                try {
+                    if (queue.offer(viewLog, offerTimeoutMillis, TimeUnit.MILLISECONDS)) return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                droppedCounter.increment();
+                return false;
+            }
+            case CALLER_RUNS -> {
+                if (!queue.offer(viewLog)) flush(List.of(viewLog));
+                return true;
+            }
+            default -> {
+                if (queue.offer(viewLog)) return true;
+                droppedCounter.increment();
+                return false;
+            }
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            // A fresh list per batch: repositories and listeners may keep the one they were given
+            List<MediaViewLog> batch = new ArrayList<>(batchSize);
+            try {
+                MediaViewLog head = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (head == null) continue;
+                batch.add(head);
+
+                // Fill the batch until it is full or the flush interval has elapsed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) break;
+                    MediaViewLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                flush(batch);
+                return;
+            }
+            flush(batch);
+        }
+    }
+
+    void flush(List<MediaViewLog> batch) {
+        if (batch.isEmpty()) return;
+        long start = System.nanoTime();
+        try {
+            // Raw rows and their daily rollups commit together
+            tx.executeWithoutResult(status -> {
+                mediaViewLogRepo.saveAll(batch);
+                rollupService.apply(batch);
+            });
+            rowsPerFlush.record(batch.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to write {} view logs", batch.size(), e);
+            return;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        notifyListeners(batch);
+    }
+
+    private void notifyListeners(List<MediaViewLog> batch) {
+        for (ViewLogListener listener : listeners) {
+            try {
+                listener.onViewsWritten(batch);
+            } catch (RuntimeException e) {
+                // Derived views (sketches, caches) must not fail the write path
+                log.warn("View log listener {} failed for {} views", listener.getClass().getSimpleName(), batch.size(), e);
+            }
+        }
+    }
+}
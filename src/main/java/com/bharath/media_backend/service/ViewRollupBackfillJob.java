@@ -0,0 +1,53 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+import com.bharath.media_backend.repo.MediaViewLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds view rollups and unique-viewer sketches from existing media_view_logs
+ * rows at startup (one-off migration aid). Both steps are idempotent.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.backfill-on-startup", havingValue = "true")
+public class ViewRollupBackfillJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ViewRollupBackfillJob.class);
+    private static final int PAGE_SIZE = 5_000;
+
+    private final ViewRollupService rollupService;
+    private final MediaViewLogRepository mediaViewLogRepo;
+    private final UniqueViewerCounter uniqueViewerCounter;
+
+    public ViewRollupBackfillJob(ViewRollupService rollupService,
+                                 MediaViewLogRepository mediaViewLogRepo,
+                                 UniqueViewerCounter uniqueViewerCounter) {
+        this.rollupService = rollupService;
+        this.mediaViewLogRepo = mediaViewLogRepo;
+        this.uniqueViewerCounter = uniqueViewerCounter;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rollupService.rebuildAll();
+
+        // Replay IPs into the HLL sketches (adding an IP twice is a no-op)
+        long replayed = 0;
+        Page<MediaViewLog> page = mediaViewLogRepo.findAll(PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+        while (page.hasContent()) {
+            uniqueViewerCounter.onViewsWritten(page.getContent());
+            replayed += page.getNumberOfElements();
+            if (!page.hasNext()) break;
+            page = mediaViewLogRepo.findAll(page.nextPageable());
+        }
+        log.info("Replayed {} view logs into unique-viewer sketches", replayed);
+    }
+}
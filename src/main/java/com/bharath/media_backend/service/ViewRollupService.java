@@ -0,0 +1,74 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewDailyStat;
+import com.bharath.media_backend.domain.MediaViewLog;
+import com.bharath.media_backend.repo.MediaViewDailyStatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Maintains the per-media, per-day view rollups so analytics reads
+ * O(days) rows instead of every view log.
+ */
+@Service
+public class ViewRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ViewRollupService.class);
+
+    private final MediaViewDailyStatRepository statRepo;
+
+    public ViewRollupService(MediaViewDailyStatRepository statRepo) {
+        this.statRepo = statRepo;
+    }
+
+    /** Fold a batch of freshly written views into the rollups. Runs inside the writer's transaction. */
+    public void apply(List<MediaViewLog> batch) {
+        Map<MediaViewDailyStat.Key, Long> deltas = new HashMap<>();
+        for (MediaViewLog view : batch) {
+            LocalDate day = LocalDate.ofInstant(view.getTimestamp(), ZoneOffset.UTC);
+            deltas.merge(new MediaViewDailyStat.Key(view.getMediaId(), day), 1L, Long::sum);
+        }
+        deltas.forEach((key, delta) -> statRepo.increment(key.getMediaId(), key.getViewDate(), delta));
+    }
+
+    /** Views per UTC day (yyyy-MM-dd), oldest first */
+    public Map<String, Long> viewsPerDay(Long mediaId) {
+        Map<String, Long> viewsPerDay = new LinkedHashMap<>();
+        for (MediaViewDailyStat stat : statRepo.findByMediaIdOrderByViewDateAsc(mediaId)) {
+            viewsPerDay.put(stat.getViewDate().toString(), stat.getViewCount());
+        }
+        return viewsPerDay;
+    }
+
+    /**
+     * Rebuild rollups for every day touched by [from, to), widened to whole UTC
+     * days. Today is never rebuilt: the upsert overwrites counts with a snapshot,
+     * which would drop increments committed while it runs.
+     */
+    @Transactional
+    public int rebuild(Instant from, Instant to) {
+        Instant start = from.truncatedTo(ChronoUnit.DAYS);
+        Instant end = to.truncatedTo(ChronoUnit.DAYS);
+        if (end.isBefore(to)) end = end.plus(1, ChronoUnit.DAYS);
+        Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        if (end.isAfter(today)) end = today;
+        if (!start.isBefore(end)) return 0;
+        int rows = statRepo.rebuildRange(start, end);
+        log.info("Rebuilt {} view rollup rows for [{}, {})", rows, start, end);
+        return rows;
+    }
+
+    /** Backfill rollups from the whole media_view_logs table, up to the end of yesterday (UTC) */
+    @Transactional
+    public int rebuildAll() {
+        return rebuild(Instant.EPOCH, Instant.now());
+    }
+}
@@ -0,0 +1,108 @@
+package com.bharath.media_backend.storage;
+
+import com.bharath.media_backend.service.CloudinaryUploader;
+import com.cloudinary.Cloudinary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cloudinary: uploads go through {@link CloudinaryUploader}'s chunked protocol,
+ * reads are plain (range) GETs of the delivery URL, and deletes use the admin
+ * API with the public id parsed back out of the URL.
+ */
+@Component
+public class CloudinaryMediaStorage implements MediaStorage {
+
+    // .../<resource_type>/upload/[v<version>/]<public_id>.<ext>
+    private static final Pattern DELIVERY_URL =
+            Pattern.compile("^https?://res\\.cloudinary\\.com/[^/]+/(image|video|raw)/upload/(?:v\\d+/)?(.+?)(?:\\.[^./]+)?$");
+
+    private final Cloudinary cloudinary;
+    private final CloudinaryUploader uploader;
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    public CloudinaryMediaStorage(Cloudinary cloudinary, CloudinaryUploader uploader) {
+        this.cloudinary = cloudinary;
+        this.uploader = uploader;
+    }
+
+    @Override
+    public String name() {
+        return "cloudinary";
+    }
+
+    @Override
+    public boolean owns(String location) {
+        return DELIVERY_URL.matcher(location).matches();
+    }
+
+    @Override
+    public String put(String filename, InputStream in, long size) throws IOException {
+        Map<?, ?> result = uploader.upload(in, size, Map.of(
+                "resource_type", "video",
+                "folder", "media_videos"
+        ));
+        return result.get("url").toString();
+    }
+
+    @Override
+    public InputStream get(String location) throws IOException {
+        return send(HttpRequest.newBuilder(URI.create(location)).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream()).body();
+    }
+
+    @Override
+    public InputStream get(String location, long offset, long length) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(location))
+                .header("Range", "bytes=" + offset + "-" + (offset + length - 1))
+                .GET().build();
+        return RangeResponses.body(send(request, HttpResponse.BodyHandlers.ofInputStream()), offset, length);
+    }
+
+    @Override
+    public long size(String location) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(location))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody()).build();
+        return send(request, HttpResponse.BodyHandlers.discarding()).headers()
+                .firstValueAsLong("Content-Length")
+                .orElseThrow(() -> new IOException("No Content-Length for " + location));
+    }
+
+    @Override
+    public boolean delete(String location) throws IOException {
+        Matcher m = DELIVERY_URL.matcher(location);
+        if (!m.matches()) throw new IllegalArgumentException("Not a Cloudinary location: " + location);
+        Map<?, ?> result = cloudinary.uploader().destroy(m.group(2), Map.of("resource_type", m.group(1)));
+        return "ok".equals(result.get("result"));
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        HttpResponse<T> response;
+        try {
+            response = http.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + request.uri(), e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            if (response.body() instanceof InputStream body) body.close();
+            if (response.statusCode() == 404) throw new NoSuchFileException(request.uri().toString());
+            throw new IOException(request.method() + " " + request.uri() + " returned " + response.statusCode());
+        }
+        return response;
+    }
+}
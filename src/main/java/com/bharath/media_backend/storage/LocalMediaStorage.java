@@ -0,0 +1,73 @@
+package com.bharath.media_backend.storage;
+
+import com.bharath.media_backend.service.FileUploadService;
+import com.bharath.media_backend.service.StoredFile;
+import com.bharath.media_backend.util.LimitedInputStream;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+
+/** The local content-addressed store, served under {@code /files/<name>} */
+@Component
+public class LocalMediaStorage implements MediaStorage {
+
+    private static final String PREFIX = "/files/";
+
+    private final FileUploadService fileUploadService;
+
+    public LocalMediaStorage(FileUploadService fileUploadService) {
+        this.fileUploadService = fileUploadService;
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public boolean owns(String location) {
+        return location.startsWith(PREFIX);
+    }
+
+    @Override
+    public String put(String filename, InputStream in, long size) throws IOException {
+        return fileUploadService.storeFile(in, filename);
+    }
+
+    @Override
+    public InputStream get(String location) throws IOException {
+        return Files.newInputStream(file(location).path());
+    }
+
+    @Override
+    public InputStream get(String location, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(file(location).path(), StandardOpenOption.READ);
+        channel.position(offset);
+        return new LimitedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public long size(String location) throws IOException {
+        return file(location).size();
+    }
+
+    @Override
+    public boolean delete(String location) throws IOException {
+        return fileUploadService.deleteFile(name(location));
+    }
+
+    private StoredFile file(String location) throws NoSuchFileException {
+        return fileUploadService.lookup(name(location)).orElseThrow(() -> new NoSuchFileException(location));
+    }
+
+    private static String name(String location) {
+        if (!location.startsWith(PREFIX)) throw new IllegalArgumentException("Not a local location: " + location);
+        return location.substring(PREFIX.length());
+    }
+}
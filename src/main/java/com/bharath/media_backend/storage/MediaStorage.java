@@ -0,0 +1,55 @@
+package com.bharath.media_backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A place media bytes can live. Objects are addressed by their location, the
+ * string stored in {@code MediaAsset.fileUrl}: {@code /files/<name>} for local
+ * disk, a Cloudinary delivery URL, or {@code s3://<bucket>/<key>}.
+ *
+ * Reads and writes are streamed; no driver holds a whole object in memory.
+ * {@code get} and {@code size} throw {@link java.nio.file.NoSuchFileException}
+ * for a location that does not exist.
+ */
+public interface MediaStorage {
+
+    /** Config name: local, cloudinary, s3 */
+    String name();
+
+    /** True if {@code location} belongs to this backend */
+    boolean owns(String location);
+
+    /** Store {@code size} bytes; {@code filename} is a hint for the key. Returns the new location */
+    String put(String filename, InputStream in, long size) throws IOException;
+
+    default String put(String filename, Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return put(filename, in, Files.size(file));
+        }
+    }
+
+    InputStream get(String location) throws IOException;
+
+    /** {@code length} bytes starting at {@code offset}, also from a backend that ignores ranges */
+    InputStream get(String location, long offset, long length) throws IOException;
+
+    long size(String location) throws IOException;
+
+    /** False if there was nothing to delete */
+    boolean delete(String location) throws IOException;
+
+    /** URL a client can fetch right now; may be short-lived (e.g. presigned) */
+    default String publicUrl(String location) {
+        return location;
+    }
+
+    /** Last path segment of a location, as a filename hint when copying between backends */
+    static String filename(String location) {
+        int query = location.indexOf('?');
+        String path = query < 0 ? location : location.substring(0, query);
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,49 @@
+package com.bharath.media_backend.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The configured {@link MediaStorage} backends. New uploads go to the primary
+ * ({@code app.storage.primary}); anything already stored is handled by
+ * whichever backend owns its location, so changing the primary never strands
+ * existing media.
+ */
+@Component
+public class MediaStorageRegistry {
+
+    private final Map<String, MediaStorage> storages = new LinkedHashMap<>();
+    private final MediaStorage primary;
+
+    public MediaStorageRegistry(List<MediaStorage> storages,
+                                @Value("${app.storage.primary:cloudinary}") String primary) {
+        storages.forEach(storage -> this.storages.put(storage.name(), storage));
+        this.primary = this.storages.get(primary);
+        if (this.primary == null) {
+            throw new IllegalStateException("app.storage.primary=" + primary
+                    + " is not an enabled storage backend " + this.storages.keySet());
+        }
+    }
+
+    public MediaStorage primary() {
+        return primary;
+    }
+
+    public Optional<MediaStorage> byName(String name) {
+        return Optional.ofNullable(storages.get(name));
+    }
+
+    public Optional<MediaStorage> forLocation(String location) {
+        return storages.values().stream().filter(storage -> storage.owns(location)).findFirst();
+    }
+
+    /** Where to send a client for {@code location}; unknown locations are passed through */
+    public String publicUrl(String location) {
+        return forLocation(location).map(storage -> storage.publicUrl(location)).orElse(location);
+    }
+}
@@ -0,0 +1,45 @@
+package com.bharath.media_backend.storage;
+
+import com.bharath.media_backend.util.LimitedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the response to a ranged GET into exactly the bytes asked for. A 206
+ * must say (Content-Range) that it starts at the requested offset; a 200 means
+ * the origin ignored Range and sent the whole object, so the body is skipped
+ * forward to the offset.
+ */
+final class RangeResponses {
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
+
+    private RangeResponses() {
+    }
+
+    static InputStream body(HttpResponse<InputStream> response, long offset, long length) throws IOException {
+        InputStream body = response.body();
+        try {
+            if (response.statusCode() == 206) {
+                String contentRange = response.headers().firstValue("Content-Range").orElse("");
+                Matcher m = CONTENT_RANGE.matcher(contentRange);
+                if (!m.matches() || Long.parseLong(m.group(1)) != offset) {
+                    throw new IOException("Asked " + response.uri() + " for bytes from " + offset
+                            + ", got Content-Range '" + contentRange + "'");
+                }
+            } else if (response.statusCode() == 200) {
+                body.skipNBytes(offset);
+            } else {
+                throw new IOException("Unexpected " + response.statusCode() + " for a range of " + response.uri());
+            }
+        } catch (IOException | RuntimeException e) {
+            body.close();
+            throw e;
+        }
+        return new LimitedInputStream(body, length);
+    }
+}
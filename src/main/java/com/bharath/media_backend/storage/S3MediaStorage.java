@@ -0,0 +1,149 @@
+package com.bharath.media_backend.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * S3-compatible object storage (AWS S3, MinIO, Ceph RGW, ...) over plain HTTP
+ * with SigV4-signed, path-style requests. Locations are
+ * {@code s3://<bucket>/<key>}; clients are redirected to a presigned GET URL,
+ * so the bucket itself can stay private.
+ *
+ * Uploads are streamed with an unsigned payload, so the body is never buffered
+ * or read twice to hash it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.s3.enabled", havingValue = "true")
+public class S3MediaStorage implements MediaStorage {
+
+    private static final String KEY_PREFIX = "media/";
+
+    private final URI endpoint;
+    private final String bucket;
+    private final String locationPrefix;
+    private final Duration presignTtl;
+    private final S3Signer signer;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public S3MediaStorage(@Value("${app.storage.s3.endpoint}") String endpoint,
+                          @Value("${app.storage.s3.region:us-east-1}") String region,
+                          @Value("${app.storage.s3.bucket}") String bucket,
+                          @Value("${app.storage.s3.access-key}") String accessKey,
+                          @Value("${app.storage.s3.secret-key}") String secretKey,
+                          @Value("${app.storage.s3.presign-ttl:15m}") Duration presignTtl) {
+        this.endpoint = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.bucket = bucket;
+        this.locationPrefix = "s3://" + bucket + "/";
+        this.presignTtl = presignTtl;
+        this.signer = new S3Signer(accessKey, secretKey, region);
+    }
+
+    @Override
+    public String name() {
+        return "s3";
+    }
+
+    @Override
+    public boolean owns(String location) {
+        return location.startsWith(locationPrefix);
+    }
+
+    @Override
+    public String put(String filename, InputStream in, long size) throws IOException {
+        String key = KEY_PREFIX + UUID.randomUUID() + "-" + MediaStorage.filename(filename);
+        URI uri = objectUri(key);
+        String contentType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", contentType)
+                .PUT(HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() -> in), size));
+        signer.sign("PUT", uri, Map.of(), S3Signer.UNSIGNED_PAYLOAD, Instant.now()).forEach(request::header);
+        send(request.build(), HttpResponse.BodyHandlers.discarding());
+        return locationPrefix + key;
+    }
+
+    @Override
+    public InputStream get(String location) throws IOException {
+        return send(signed("GET", location, Map.of()), HttpResponse.BodyHandlers.ofInputStream()).body();
+    }
+
+    @Override
+    public InputStream get(String location, long offset, long length) throws IOException {
+        Map<String, String> range = Map.of("Range", "bytes=" + offset + "-" + (offset + length - 1));
+        return RangeResponses.body(send(signed("GET", location, range), HttpResponse.BodyHandlers.ofInputStream()), offset, length);
+    }
+
+    @Override
+    public long size(String location) throws IOException {
+        return send(signed("HEAD", location, Map.of()), HttpResponse.BodyHandlers.discarding()).headers()
+                .firstValueAsLong("Content-Length")
+                .orElseThrow(() -> new IOException("No Content-Length for " + location));
+    }
+
+    @Override
+    public boolean delete(String location) throws IOException {
+        // S3 answers 204 whether or not the key existed
+        try {
+            size(location);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        send(signed("DELETE", location, Map.of()), HttpResponse.BodyHandlers.discarding());
+        return true;
+    }
+
+    @Override
+    public String publicUrl(String location) {
+        return signer.presign("GET", objectUri(key(location)), presignTtl, Instant.now()).toString();
+    }
+
+    private HttpRequest signed(String method, String location, Map<String, String> headers) {
+        URI uri = objectUri(key(location));
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody());
+        headers.forEach(request::header);
+        signer.sign(method, uri, headers, S3Signer.EMPTY_PAYLOAD, Instant.now()).forEach(request::header);
+        return request.build();
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        HttpResponse<T> response;
+        try {
+            response = http.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during " + request.method() + " " + request.uri(), e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            if (response.body() instanceof InputStream body) body.close();
+            if (response.statusCode() == 404) throw new NoSuchFileException(request.uri().getPath());
+            throw new IOException(request.method() + " " + request.uri().getPath() + " returned " + response.statusCode());
+        }
+        return response;
+    }
+
+    private URI objectUri(String key) {
+        return URI.create(endpoint + "/" + bucket + "/" + S3Signer.encodePath(key));
+    }
+
+    private String key(String location) {
+        if (!owns(location)) throw new IllegalArgumentException("Not a location in bucket " + bucket + ": " + location);
+        return location.substring(locationPrefix.length());
+    }
+}
@@ -0,0 +1,163 @@
+package com.bharath.media_backend.storage;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * AWS Signature Version 4 for S3-compatible APIs, as headers or as a presigned
+ * query string. Paths passed in must already be URI-encoded (see
+ * {@link #encodePath}); S3 signs them without double encoding.
+ */
+public class S3Signer {
+
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    public static final String EMPTY_PAYLOAD = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final DateTimeFormatter DATE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final String accessKey;
+    private final String secretKey;
+    private final String region;
+
+    public S3Signer(String accessKey, String secretKey, String region) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    /**
+     * Headers to add to a request: x-amz-date, x-amz-content-sha256 and
+     * Authorization. {@code headers} are the other headers to sign (e.g. Range);
+     * Host is taken from the URI.
+     */
+    public Map<String, String> sign(String method, URI uri, Map<String, String> headers,
+                                    String payloadHash, Instant now) {
+        String amzDate = DATE_TIME.format(now);
+        Map<String, String> signed = new TreeMap<>();
+        headers.forEach((name, value) -> signed.put(name.toLowerCase(Locale.ROOT), value.trim()));
+        signed.put("host", host(uri));
+        signed.put("x-amz-content-sha256", payloadHash);
+        signed.put("x-amz-date", amzDate);
+
+        String signedHeaders = String.join(";", signed.keySet());
+        String canonicalRequest = method + "\n"
+                + uri.getRawPath() + "\n"
+                + canonicalQuery(uri.getRawQuery()) + "\n"
+                + signed.entrySet().stream().map(e -> e.getKey() + ":" + e.getValue() + "\n").collect(Collectors.joining()) + "\n"
+                + signedHeaders + "\n"
+                + payloadHash;
+
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("x-amz-date", amzDate);
+        result.put("x-amz-content-sha256", payloadHash);
+        result.put("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope(now)
+                + ",SignedHeaders=" + signedHeaders
+                + ",Signature=" + signature(canonicalRequest, now));
+        return result;
+    }
+
+    /** A URL anyone can {@code method} until {@code ttl} has passed (max 7 days) */
+    public URI presign(String method, URI uri, Duration ttl, Instant now) {
+        Map<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", accessKey + "/" + scope(now));
+        query.put("X-Amz-Date", DATE_TIME.format(now));
+        query.put("X-Amz-Expires", Long.toString(ttl.toSeconds()));
+        query.put("X-Amz-SignedHeaders", "host");
+        String rawQuery = query.entrySet().stream()
+                .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+                .collect(Collectors.joining("&"));
+
+        String canonicalRequest = method + "\n"
+                + uri.getRawPath() + "\n"
+                + rawQuery + "\n"
+                + "host:" + host(uri) + "\n\n"
+                + "host\n"
+                + UNSIGNED_PAYLOAD;
+        return URI.create(uri.getScheme() + "://" + host(uri) + uri.getRawPath()
+                + "?" + rawQuery + "&X-Amz-Signature=" + signature(canonicalRequest, now));
+    }
+
+    /** URI-encode each segment of an object key, keeping the slashes */
+    public static String encodePath(String key) {
+        return Arrays.stream(key.split("/", -1)).map(S3Signer::encode).collect(Collectors.joining("/"));
+    }
+
+    /** Hex SHA-256 of a payload, for x-amz-content-sha256 */
+    public static String sha256Hex(byte[] payload) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(payload));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String signature(String canonicalRequest, Instant now) {
+        String stringToSign = ALGORITHM + "\n"
+                + DATE_TIME.format(now) + "\n"
+                + scope(now) + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), DATE.format(now));
+        key = hmac(key, region);
+        key = hmac(key, SERVICE);
+        key = hmac(key, "aws4_request");
+        return HexFormat.of().formatHex(hmac(key, stringToSign));
+    }
+
+    private String scope(Instant now) {
+        return DATE.format(now) + "/" + region + "/" + SERVICE + "/aws4_request";
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) return "";
+        Map<String, String> params = new TreeMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            params.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+        }
+        return params.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining("&"));
+    }
+
+    private static String host(URI uri) {
+        int port = uri.getPort();
+        boolean defaultPort = port == -1 || (port == 80 && "http".equals(uri.getScheme()))
+                || (port == 443 && "https".equals(uri.getScheme()));
+        return defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+    }
+
+    /** RFC 3986 unreserved characters stay as they are; everything else is percent-encoded */
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8)
+                .replace("+", "%20").replace("*", "%2A").replace("%7E", "~");
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.bharath.media_backend.storage;
+
+import com.bharath.media_backend.domain.MediaAsset;
+import com.bharath.media_backend.repo.MediaAssetRepository;
+import com.bharath.media_backend.repo.MediaViewDailyStatRepository;
+import com.bharath.media_backend.repo.MediaViewLogRepository;
+import com.bharath.media_backend.service.MediaAssetCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps hot media on local disk and cold media in object storage, by views
+ * over the last {@code window-days} (from media_view_daily_stats).
+ *
+ * A local asset older than {@code min-age} with fewer than {@code cold-views}
+ * is copied to the cold backend; a cold asset with at least {@code hot-views}
+ * is copied back. The gap between the two thresholds stops media near one of
+ * them from bouncing between tiers. After a copy the asset points at the new
+ * location, and the old copy is deleted on a later run once every stream
+ * token that may still carry it has expired (and no other asset uses it).
+ *
+ * Run it on one node only. Pending deletes are kept in memory; a restart
+ * leaves those old copies behind.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.tiering.enabled", havingValue = "true")
+public class StorageTieringJob {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageTieringJob.class);
+    private static final int PAGE_SIZE = 500;
+
+    private record Retired(String location, Instant deleteAfter) {}
+
+    private final MediaStorageRegistry storages;
+    private final MediaStorage hot;
+    private final MediaStorage cold;
+    private final MediaAssetRepository mediaRepo;
+    private final MediaViewDailyStatRepository dailyStatRepo;
+    private final MediaAssetCache mediaAssetCache;
+    private final int windowDays;
+    private final long hotViews;
+    private final long coldViews;
+    private final Duration minAge;
+    private final int maxMovesPerRun;
+    private final Duration retireDelay;
+    private final Queue<Retired> retired = new ConcurrentLinkedQueue<>();
+
+    private final Counter demoted;
+    private final Counter promoted;
+
+    public StorageTieringJob(MediaStorageRegistry storages,
+                             MediaAssetRepository mediaRepo,
+                             MediaViewDailyStatRepository dailyStatRepo,
+                             MediaAssetCache mediaAssetCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.storage.tiering.cold-backend:s3}") String coldBackend,
+                             @Value("${app.storage.tiering.window-days:7}") int windowDays,
+                             @Value("${app.storage.tiering.hot-views:100}") long hotViews,
+                             @Value("${app.storage.tiering.cold-views:5}") long coldViews,
+                             @Value("${app.storage.tiering.min-age:1d}") Duration minAge,
+                             @Value("${app.storage.tiering.max-moves-per-run:20}") int maxMovesPerRun,
+                             @Value("${app.stream.ttl-minutes:10}") long streamTtlMinutes) {
+        if (hotViews <= coldViews) {
+            throw new IllegalStateException("app.storage.tiering.hot-views must be greater than cold-views");
+        }
+        this.storages = storages;
+        this.hot = storages.byName("local")
+                .orElseThrow(() -> new IllegalStateException("Tiering needs the local storage backend"));
+        this.cold = storages.byName(coldBackend)
+                .orElseThrow(() -> new IllegalStateException("Tiering cold backend '" + coldBackend + "' is not enabled"));
+        this.mediaRepo = mediaRepo;
+        this.dailyStatRepo = dailyStatRepo;
+        this.mediaAssetCache = mediaAssetCache;
+        this.windowDays = windowDays;
+        this.hotViews = hotViews;
+        this.coldViews = coldViews;
+        this.minAge = minAge;
+        this.maxMovesPerRun = maxMovesPerRun;
+        this.retireDelay = Duration.ofMinutes(streamTtlMinutes + 1);
+
+        this.demoted = Counter.builder("media.storage.tiering.moves").tag("direction", "demote").register(meterRegistry);
+        this.promoted = Counter.builder("media.storage.tiering.moves").tag("direction", "promote").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.storage.tiering.interval-ms:3600000}",
+            fixedDelayString = "${app.storage.tiering.interval-ms:3600000}")
+    public void run() {
+        deleteRetired(Instant.now());
+        try {
+            int moved = rebalance(Instant.now());
+            if (moved > 0) log.info("Moved {} media between storage tiers", moved);
+        } catch (RuntimeException e) {
+            log.warn("Storage tiering failed", e);
+        }
+    }
+
+    /** One pass over all media; returns how many were moved */
+    int rebalance(Instant now) {
+        LocalDate from = LocalDate.ofInstant(now, ZoneOffset.UTC).minusDays(windowDays - 1L);
+        Map<Long, Long> views = dailyStatRepo.viewsSince(from).stream()
+                .collect(Collectors.toMap(MediaViewLogRepository.MediaViewCount::getMediaId,
+                        MediaViewLogRepository.MediaViewCount::getViews));
+        Instant oldEnough = now.minus(minAge);
+
+        int moved = 0;
+        Page<MediaAsset> page = mediaRepo.findAll(PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+        while (page.hasContent()) {
+            for (MediaAsset media : page.getContent()) {
+                if (moved >= maxMovesPerRun) return moved;
+                long count = views.getOrDefault(media.getId(), 0L);
+                String location = media.getFileUrl();
+                if (hot.owns(location) && count < coldViews && media.getCreatedAt().isBefore(oldEnough)) {
+                    if (move(media, hot, cold, now)) {
+                        demoted.increment();
+                        moved++;
+                    }
+                } else if (cold.owns(location) && count >= hotViews) {
+                    if (move(media, cold, hot, now)) {
+                        promoted.increment();
+                        moved++;
+                    }
+                }
+            }
+            if (!page.hasNext()) break;
+            page = mediaRepo.findAll(page.nextPageable());
+        }
+        return moved;
+    }
+
+    /** Delete old copies whose grace period is over and that no asset points at any more */
+    void deleteRetired(Instant now) {
+        int pending = retired.size();
+        for (int i = 0; i < pending; i++) {
+            Retired entry = retired.poll();
+            if (entry == null) break;
+            if (entry.deleteAfter().isAfter(now)) {
+                retired.add(entry);
+                continue;
+            }
+            if (mediaRepo.existsByFileUrl(entry.location())) continue;
+            try {
+                storages.forLocation(entry.location()).orElseThrow().delete(entry.location());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not delete retired copy {}: {}", entry.location(), e.toString());
+                retired.add(new Retired(entry.location(), now.plus(retireDelay)));
+            }
+        }
+    }
+
+    private boolean move(MediaAsset media, MediaStorage source, MediaStorage target, Instant now) {
+        String oldLocation = media.getFileUrl();
+        String newLocation;
+        try (InputStream in = source.get(oldLocation)) {
+            newLocation = target.put(MediaStorage.filename(oldLocation), in, source.size(oldLocation));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not move media {} from {} to {}: {}", media.getId(), source.name(), target.name(), e.toString());
+            return false;
+        }
+        media.setFileUrl(newLocation);
+        mediaRepo.save(media);
+        mediaAssetCache.put(media);
+        retired.add(new Retired(oldLocation, now.plus(retireDelay)));
+        log.debug("Moved media {} from {} to {}", media.getId(), source.name(), target.name());
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package com.bharath.media_backend.util;
+
+/**
+ * Count-Min Sketch over long keys with real-valued (e.g. time-decayed) counts.
+ * Estimates never undercount; with width w and depth d they overcount by at
+ * most e/w of the total weight with probability 1 - e^-d. Uses conservative
+ * update, which only raises the counters that hold the current minimum.
+ * Not thread-safe.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final double[] counts;
+    private final long[] seeds;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) throw new IllegalArgumentException("width and depth must be positive");
+        this.width = width;
+        this.depth = depth;
+        this.counts = new double[width * depth];
+        this.seeds = new long[depth];
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int i = 0; i < depth; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            seeds[i] = seed;
+        }
+    }
+
+    /** Add {@code weight} to {@code key}; returns the new estimate */
+    public double add(long key, double weight) {
+        int[] cells = new int[depth];
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            cells[row] = row * width + (int) Long.remainderUnsigned(mix(key ^ seeds[row]), width);
+            estimate = Math.min(estimate, counts[cells[row]]);
+        }
+        double updated = estimate + weight;
+        for (int cell : cells) {
+            if (counts[cell] < updated) counts[cell] = updated;
+        }
+        return updated;
+    }
+
+    public double estimate(long key) {
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[row * width + (int) Long.remainderUnsigned(mix(key ^ seeds[row]), width)]);
+        }
+        return estimate;
+    }
+
+    /** Multiply every counter, e.g. to rebase decayed weights */
+    public void scale(double factor) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] *= factor;
+        }
+    }
+
+    /** SplitMix64 finalizer */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
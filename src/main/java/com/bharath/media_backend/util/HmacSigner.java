@@ -5,25 +5,250 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * HMAC-SHA256 signer over a key ring. {@code app.hmac.keys} lists
+ * {@code kid:secret} pairs; new signatures use the active key while the others
+ * still verify, so a key can be rotated in without breaking signed URLs that
+ * are in flight. Without a key ring, {@code app.hmac.secret} is key "v0".
+ *
+ * {@link Mac} is not thread-safe, so each key keeps a lock-free pool of
+ * {@code Mac} instances with their scratch buffers; a call borrows one and
+ * returns it. ASCII input is encoded straight into the scratch buffer and the
+ * base64url signature is written into a byte array, so signing a string
+ * allocates only the result.
+ */
 @Component
 public class HmacSigner {
 
+    public static final String LEGACY_KEY_ID = "v0";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+    /** base64url without padding of 32 bytes */
+    public static final int SIGNATURE_LENGTH = 43;
+    private static final int SCRATCH_SIZE = 1024;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
     @Value("${app.hmac.secret}")
     private String secret;
 
-    private Mac mac;
+    @Value("${app.hmac.keys:}")
+    private String keys;
+
+    @Value("${app.hmac.active-key-id:}")
+    private String activeKeyId;
+
+    // Idle Macs kept per key; extra ones created under bursts are dropped on return
+    @Value("${app.hmac.pool-max-idle:0}")
+    private int poolMaxIdle;
+
+    private final Map<String, KeyPool> pools = new LinkedHashMap<>();
 
     @PostConstruct
     public void init() throws Exception {
-        mac = Mac.getInstance("HmacSHA256");
-        mac.init(new SecretKeySpec(secret.getBytes(), "HmacSHA256"));
+        if (poolMaxIdle <= 0) {
+            poolMaxIdle = Runtime.getRuntime().availableProcessors() * 2;
+        }
+        if (keys == null || keys.isBlank()) {
+            pools.put(LEGACY_KEY_ID, new KeyPool(secret));
+        } else {
+            for (String entry : keys.split(",")) {
+                int colon = entry.indexOf(':');
+                String kid = colon > 0 ? entry.substring(0, colon).trim() : "";
+                if (kid.isEmpty() || !kid.matches("[A-Za-z0-9_-]+")) {
+                    throw new IllegalStateException("app.hmac.keys entries must be kid:secret with kid in [A-Za-z0-9_-]");
+                }
+                pools.put(kid, new KeyPool(entry.substring(colon + 1).trim()));
+            }
+        }
+        if (activeKeyId == null || activeKeyId.isBlank()) {
+            activeKeyId = pools.keySet().iterator().next();
+        } else if (!pools.containsKey(activeKeyId)) {
+            throw new IllegalStateException("app.hmac.active-key-id '" + activeKeyId + "' is not in app.hmac.keys");
+        }
     }
 
+    /** Sign with the active key */
     public String sign(String data) {
-        byte[] rawHmac = mac.doFinal(data.getBytes());
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(rawHmac);
+        return sign(activeKeyId, data);
+    }
+
+    /** Sign with a specific key; throws if the key id is unknown */
+    public String sign(String keyId, String data) {
+        KeyPool pool = pool(keyId);
+        Lease lease = pool.borrow();
+        try {
+            lease.macUtf8(data);
+            return new String(lease.encoded, 0, SIGNATURE_LENGTH, StandardCharsets.ISO_8859_1);
+        } finally {
+            pool.release(lease);
+        }
+    }
+
+    /**
+     * Sign the remaining bytes of {@code data} and write the base64url signature
+     * ({@link #SIGNATURE_LENGTH} ASCII bytes) into {@code dest} at {@code offset}.
+     * Consumes the buffer. Returns the number of bytes written.
+     */
+    public int sign(String keyId, ByteBuffer data, byte[] dest, int offset) {
+        KeyPool pool = pool(keyId);
+        Lease lease = pool.borrow();
+        try {
+            lease.mac.update(data);
+            lease.finish();
+            System.arraycopy(lease.encoded, 0, dest, offset, SIGNATURE_LENGTH);
+            return SIGNATURE_LENGTH;
+        } finally {
+            pool.release(lease);
+        }
+    }
+
+    /** Constant-time check of a signature made with {@code keyId}; false for unknown keys */
+    public boolean verify(String keyId, String data, String signature) {
+        KeyPool pool = pools.get(keyId);
+        if (pool == null || signature == null) return false;
+        Lease lease = pool.borrow();
+        try {
+            lease.macUtf8(data);
+            return constantTimeEquals(lease.encoded, signature);
+        } finally {
+            pool.release(lease);
+        }
+    }
+
+    /** Constant-time check of a base64url signature over the remaining bytes of {@code data} */
+    public boolean verify(String keyId, ByteBuffer data, byte[] signature, int offset, int length) {
+        KeyPool pool = pools.get(keyId);
+        if (pool == null || length != SIGNATURE_LENGTH) return false;
+        Lease lease = pool.borrow();
+        try {
+            lease.mac.update(data);
+            lease.finish();
+            int diff = 0;
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                diff |= lease.encoded[i] ^ signature[offset + i];
+            }
+            return diff == 0;
+        } finally {
+            pool.release(lease);
+        }
+    }
+
+    public String activeKeyId() {
+        return activeKeyId;
+    }
+
+    public Set<String> keyIds() {
+        return pools.keySet();
+    }
+
+    private KeyPool pool(String keyId) {
+        KeyPool pool = pools.get(keyId);
+        if (pool == null) throw new IllegalArgumentException("Unknown HMAC key id: " + keyId);
+        return pool;
+    }
+
+    private static boolean constantTimeEquals(byte[] expected, String actual) {
+        // Length is not secret: every valid signature is SIGNATURE_LENGTH chars
+        if (actual.length() != SIGNATURE_LENGTH) return false;
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            diff |= expected[i] ^ actual.charAt(i);
+        }
+        return diff == 0;
+    }
+
+    /** Pool of Macs initialised with one key */
+    private final class KeyPool {
+        private final SecretKeySpec key;
+        private final ConcurrentLinkedQueue<Lease> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+
+        KeyPool(String secret) throws GeneralSecurityException {
+            this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+            release(newLease()); // fail fast on a bad key
+        }
+
+        Lease borrow() {
+            Lease lease = idle.poll();
+            if (lease != null) {
+                idleCount.decrementAndGet();
+                return lease;
+            }
+            try {
+                return newLease();
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot create " + ALGORITHM + " instance", e);
+            }
+        }
+
+        void release(Lease lease) {
+            if (idleCount.incrementAndGet() <= poolMaxIdle) {
+                idle.offer(lease);
+            } else {
+                idleCount.decrementAndGet();
+            }
+        }
+
+        private Lease newLease() throws GeneralSecurityException {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return new Lease(mac);
+        }
+    }
+
+    /** A Mac plus the buffers one signing call needs */
+    private static final class Lease {
+        final Mac mac;
+        final byte[] scratch = new byte[SCRATCH_SIZE];
+        final byte[] digest = new byte[MAC_LENGTH];
+        final byte[] encoded = new byte[SIGNATURE_LENGTH];
+
+        Lease(Mac mac) {
+            this.mac = mac;
+        }
+
+        /** MAC the UTF-8 bytes of {@code data} into {@link #encoded} */
+        void macUtf8(String data) {
+            int length = data.length();
+            int n = 0;
+            int i = 0;
+            // ASCII fast path: encode into the scratch buffer, flushing when full
+            for (; i < length; i++) {
+                char c = data.charAt(i);
+                if (c >= 0x80) break;
+                if (n == SCRATCH_SIZE) {
+                    mac.update(scratch, 0, n);
+                    n = 0;
+                }
+                scratch[n++] = (byte) c;
+            }
+            mac.update(scratch, 0, n);
+            if (i < length) {
+                mac.update(data.substring(i).getBytes(StandardCharsets.UTF_8));
+            }
+            finish();
+        }
+
+        void finish() {
+            try {
+                mac.doFinal(digest, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+            ENCODER.encode(digest, encoded);
+        }
     }
 }
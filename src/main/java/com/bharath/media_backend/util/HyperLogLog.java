@@ -0,0 +1,176 @@
+package com.bharath.media_backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog cardinality sketch over 64-bit MurmurHash64A hashes.
+ * Precision p uses 2^p one-byte registers; standard error is about 1.04 / sqrt(2^p)
+ * (p=14: 16 KB, ~0.81%). Sketches of the same precision can be merged (union).
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("HLL precision must be between "
+                    + MIN_PRECISION + " and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /** Expected relative standard error for a precision */
+    public static double standardError(int precision) {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    public void add(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        addHash(murmurHash64(bytes, bytes.length, 0x9747b28cL));
+    }
+
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Sentinel bit caps the run length at 64 - p + 1
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /** Union another sketch into this one */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HLL sketches of different precision");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /** Ertl's improved estimator: unbiased from empty to full without empirical bias tables */
+    public long cardinality() {
+        double m = registers.length;
+        int q = 64 - precision;
+        int[] histogram = new int[q + 2];
+        for (byte r : registers) {
+            histogram[r]++;
+        }
+
+        double z = m * tau((m - histogram[q + 1]) / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma(histogram[0] / m);
+        return Math.round(m * m / (2 * Math.log(2)) / z);
+    }
+
+    public HyperLogLog copy() {
+        return new HyperLogLog(precision, registers.clone());
+    }
+
+    /** Serialized form: one precision byte followed by the registers */
+    public byte[] toBytes() {
+        byte[] out = new byte[registers.length + 1];
+        out[0] = (byte) precision;
+        System.arraycopy(registers, 0, out, 1, registers.length);
+        return out;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        int precision = bytes[0];
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION || bytes.length != (1 << precision) + 1) {
+            throw new IllegalArgumentException("Invalid HLL sketch");
+        }
+        return new HyperLogLog(precision, Arrays.copyOfRange(bytes, 1, bytes.length));
+    }
+
+    private static double sigma(double x) {
+        if (x == 1) return Double.POSITIVE_INFINITY;
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) return 0;
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= Math.pow(1 - x, 2) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+
+    /** MurmurHash64A (Austin Appleby) */
+    static long murmurHash64(byte[] data, int length, long seed) {
+        final long m = 0xc6a4a7935bd1e995L;
+        final int r = 47;
+        long h = seed ^ (length * m);
+
+        int blocks = length >>> 3;
+        for (int i = 0; i < blocks; i++) {
+            int off = i << 3;
+            long k = (data[off] & 0xffL)
+                    | (data[off + 1] & 0xffL) << 8
+                    | (data[off + 2] & 0xffL) << 16
+                    | (data[off + 3] & 0xffL) << 24
+                    | (data[off + 4] & 0xffL) << 32
+                    | (data[off + 5] & 0xffL) << 40
+                    | (data[off + 6] & 0xffL) << 48
+                    | (data[off + 7] & 0xffL) << 56;
+            k *= m;
+            k ^= k >>> r;
+            k *= m;
+            h ^= k;
+            h *= m;
+        }
+
+        int tail = blocks << 3;
+        switch (length & 7) {
+            case 7: h ^= (data[tail + 6] & 0xffL) << 48;
+            case 6: h ^= (data[tail + 5] & 0xffL) << 40;
+            case 5: h ^= (data[tail + 4] & 0xffL) << 32;
+            case 4: h ^= (data[tail + 3] & 0xffL) << 24;
+            case 3: h ^= (data[tail + 2] & 0xffL) << 16;
+            case 2: h ^= (data[tail + 1] & 0xffL) << 8;
+            case 1: h ^= (data[tail] & 0xffL);
+                h *= m;
+        }
+
+        h ^= h >>> r;
+        h *= m;
+        h ^= h >>> r;
+        return h;
+    }
+}
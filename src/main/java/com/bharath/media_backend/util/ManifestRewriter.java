@@ -0,0 +1,60 @@
+package com.bharath.media_backend.util;
+
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites the URIs an HLS playlist or DASH MPD refers to, leaving everything
+ * else byte for byte. HLS: every URI line and {@code URI="..."} tag attribute;
+ * DASH: {@code media}, {@code initialization} and {@code sourceURL} attributes.
+ */
+public final class ManifestRewriter {
+
+    private static final Pattern HLS_URI_ATTRIBUTE = Pattern.compile("URI=\"([^\"]+)\"");
+    private static final Pattern DASH_URI_ATTRIBUTE = Pattern.compile("\\b(media|initialization|sourceURL)=\"([^\"]+)\"");
+
+    private ManifestRewriter() {
+    }
+
+    public static boolean isManifest(String name) {
+        return name.endsWith(".m3u8") || name.endsWith(".mpd");
+    }
+
+    public static String rewrite(String manifest, UnaryOperator<String> uri) {
+        return manifest.startsWith("#EXTM3U") ? rewriteHls(manifest, uri) : rewriteDash(manifest, uri);
+    }
+
+    private static String rewriteHls(String playlist, UnaryOperator<String> uri) {
+        StringBuilder out = new StringBuilder(playlist.length() + 256);
+        for (String line : playlist.split("\n", -1)) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty()) {
+                out.append(line);
+            } else if (trimmed.startsWith("#")) {
+                out.append(replace(HLS_URI_ATTRIBUTE.matcher(line), 1, uri));
+            } else {
+                // Keep surrounding whitespace, e.g. the \r of CRLF playlists
+                int start = line.indexOf(trimmed);
+                out.append(line, 0, start).append(uri.apply(trimmed)).append(line, start + trimmed.length(), line.length());
+            }
+            out.append('\n');
+        }
+        out.setLength(out.length() - 1); // split kept the text after the last newline
+        return out.toString();
+    }
+
+    private static String rewriteDash(String mpd, UnaryOperator<String> uri) {
+        return replace(DASH_URI_ATTRIBUTE.matcher(mpd), 2, uri);
+    }
+
+    private static String replace(Matcher m, int group, UnaryOperator<String> uri) {
+        StringBuilder out = new StringBuilder();
+        while (m.find()) {
+            String replaced = m.group().replace("\"" + m.group(group) + "\"", "\"" + uri.apply(m.group(group)) + "\"");
+            m.appendReplacement(out, Matcher.quoteReplacement(replaced));
+        }
+        m.appendTail(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.bharath.media_backend.util;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Self-contained signed stream token: {@code <kid>.<payload>.<sig>}, where the
+ * payload is base64url("mediaId|expiresAtMillis|location") and the signature is
+ * HMAC(kid, "kid.payload"). Everything the redirect needs is in the token, so
+ * verifying it takes no database lookup.
+ */
+@Component
+public class StreamTokenCodec {
+
+    /** Verified token contents */
+    public record Claims(long mediaId, long expiresAtMillis, String location) {}
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final HmacSigner signer;
+
+    public StreamTokenCodec(HmacSigner signer) {
+        this.signer = signer;
+    }
+
+    public String encode(long mediaId, long expiresAtMillis, String location) {
+        String payload = ENCODER.encodeToString(
+                (mediaId + "|" + expiresAtMillis + "|" + location).getBytes(StandardCharsets.UTF_8));
+        String kid = signer.activeKeyId();
+        String signed = kid + "." + payload;
+        return signed + "." + signer.sign(kid, signed);
+    }
+
+    /** Claims if the signature is valid and the token has not expired */
+    public Optional<Claims> decode(String token, long nowMillis) {
+        if (token == null) return Optional.empty();
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot <= firstDot) return Optional.empty();
+
+        String kid = token.substring(0, firstDot);
+        String signed = token.substring(0, lastDot);
+        if (!signer.verify(kid, signed, token.substring(lastDot + 1))) return Optional.empty();
+
+        try {
+            String payload = new String(DECODER.decode(token.substring(firstDot + 1, lastDot)), StandardCharsets.UTF_8);
+            String[] parts = payload.split("\\|", 3);
+            if (parts.length != 3) return Optional.empty();
+            Claims claims = new Claims(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]);
+            return nowMillis > claims.expiresAtMillis() ? Optional.empty() : Optional.of(claims);
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or numbers can only come from a key holder; treat as invalid
+            return Optional.empty();
+        }
+    }
+}
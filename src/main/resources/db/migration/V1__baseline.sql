@@ -0,0 +1,59 @@
+-- Baseline of the schema that ddl-auto=update used to create. IF NOT EXISTS lets
+-- it run against databases that already have these tables (baseline-version=0).
+
+CREATE TABLE IF NOT EXISTS admin_users (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email           varchar(255) NOT NULL UNIQUE,
+    hashed_password varchar(255) NOT NULL,
+    created_at      timestamp(6) with time zone NOT NULL,
+    role            varchar(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS media_assets (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title      varchar(255) NOT NULL,
+    type       varchar(255) NOT NULL,
+    file_url   varchar(255) NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS media_view_logs_seq START WITH 1 INCREMENT BY 100;
+
+CREATE TABLE IF NOT EXISTS media_view_logs (
+    id           bigint PRIMARY KEY,
+    media_id     bigint NOT NULL,
+    viewed_by_ip varchar(255) NOT NULL,
+    timestamp    timestamp(6) with time zone NOT NULL
+);
+
+-- Older databases filled media_view_logs.id from an IDENTITY column; start the
+-- sequence past those ids so batched inserts never collide with them
+SELECT setval('media_view_logs_seq', COALESCE((SELECT max(id) FROM media_view_logs), 0) + 1);
+
+CREATE TABLE IF NOT EXISTS media_view_daily_stats (
+    media_id   bigint NOT NULL,
+    view_date  date NOT NULL,
+    view_count bigint NOT NULL,
+    PRIMARY KEY (media_id, view_date)
+);
+
+CREATE TABLE IF NOT EXISTS upload_jobs (
+    id                bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    status            varchar(16) NOT NULL,
+    title             varchar(255) NOT NULL,
+    type              varchar(255) NOT NULL,
+    original_filename varchar(255) NOT NULL,
+    staged_path       varchar(255) NOT NULL,
+    size              bigint NOT NULL,
+    attempts          integer NOT NULL,
+    next_attempt_at   timestamp(6) with time zone NOT NULL,
+    claimed_at        timestamp(6) with time zone,
+    file_url          varchar(255),
+    media_id          bigint,
+    last_error        varchar(1000),
+    created_at        timestamp(6) with time zone NOT NULL,
+    finished_at       timestamp(6) with time zone
+);
+
+-- UploadJobWorker polls due PENDING jobs
+CREATE INDEX IF NOT EXISTS idx_upload_jobs_status_next_attempt ON upload_jobs (status, next_attempt_at);
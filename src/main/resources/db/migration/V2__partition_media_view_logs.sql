@@ -0,0 +1,44 @@
+-- Range-partition media_view_logs by timestamp. Existing rows are copied into
+-- monthly partitions; ViewLogPartitionManager creates upcoming partitions and
+-- drops expired ones. Runs in one transaction, so a large table is copied
+-- under a lock: schedule the upgrade accordingly.
+
+ALTER TABLE media_view_logs RENAME TO media_view_logs_legacy;
+ALTER TABLE media_view_logs_legacy RENAME CONSTRAINT media_view_logs_pkey TO media_view_logs_legacy_pkey;
+
+-- The partition key must be part of the primary key
+CREATE TABLE media_view_logs (
+    id           bigint NOT NULL,
+    media_id     bigint NOT NULL,
+    viewed_by_ip varchar(255) NOT NULL,
+    timestamp    timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Declared on the parent, so every partition gets it
+CREATE INDEX idx_media_view_logs_media_ts ON media_view_logs (media_id, timestamp);
+
+-- Catches rows no partition covers (e.g. clock skew) instead of failing the insert
+CREATE TABLE media_view_logs_default PARTITION OF media_view_logs DEFAULT;
+
+DO $$
+DECLARE
+    month_start timestamp;
+BEGIN
+    FOR month_start IN
+        SELECT DISTINCT date_trunc('month', timestamp AT TIME ZONE 'UTC') FROM media_view_logs_legacy
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF media_view_logs FOR VALUES FROM (%L) TO (%L)',
+                       'media_view_logs_p' || to_char(month_start, 'YYYYMM'),
+                       month_start AT TIME ZONE 'UTC',
+                       (month_start + interval '1 month') AT TIME ZONE 'UTC');
+    END LOOP;
+END $$;
+
+INSERT INTO media_view_logs (id, media_id, viewed_by_ip, timestamp)
+SELECT id, media_id, viewed_by_ip, timestamp FROM media_view_logs_legacy;
+
+DROP TABLE media_view_logs_legacy;
+
+-- Copied ids keep their values; new rows must start above them
+SELECT setval('media_view_logs_seq', COALESCE((SELECT max(id) FROM media_view_logs), 0) + 1);
@@ -0,0 +1,23 @@
+-- Adaptive-bitrate renditions (HLS, DASH) of media assets. A row is created
+-- PENDING when an asset is saved and doubles as the transcoding job that
+-- RenditionWorker claims; manifest_name is the stored master playlist / MPD.
+
+CREATE TABLE IF NOT EXISTS media_renditions (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    media_id        bigint NOT NULL,
+    format          varchar(8) NOT NULL,
+    status          varchar(16) NOT NULL,
+    progress        integer NOT NULL,
+    variants        varchar(255),
+    manifest_name   varchar(255),
+    attempts        integer NOT NULL,
+    next_attempt_at timestamp(6) with time zone NOT NULL,
+    claimed_at      timestamp(6) with time zone,
+    last_error      varchar(1000),
+    created_at      timestamp(6) with time zone NOT NULL,
+    finished_at     timestamp(6) with time zone,
+    CONSTRAINT uk_media_renditions_media_format UNIQUE (media_id, format)
+);
+
+-- RenditionWorker polls due PENDING renditions
+CREATE INDEX IF NOT EXISTS idx_media_renditions_status_next_attempt ON media_renditions (status, next_attempt_at);
@@ -0,0 +1,7 @@
+-- Optimistic lock for UploadJob: claims and requeues bump it, so a worker whose
+-- lease expired cannot complete the job a second time
+ALTER TABLE upload_jobs ADD COLUMN version bigint NOT NULL DEFAULT 0;
+
+-- Staged files are on the local disk of the node that accepted the upload.
+-- Jobs from before this column (NULL) can be claimed by any node
+ALTER TABLE upload_jobs ADD COLUMN staged_on varchar(255);
@@ -0,0 +1,105 @@
+package com.bharath.media_backend.benchmark;
+
+import com.bharath.media_backend.util.HmacSigner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled HmacSigner vs a single Mac behind a lock (the thread-safe form of the
+ * original shared-Mac signer) and a ThreadLocal Mac, under 8-thread contention.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *        -Dexec.mainClass=com.bharath.media_backend.benchmark.HmacSignerBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+@Threads(8)
+@State(Scope.Benchmark)
+public class HmacSignerBenchmark {
+
+    private static final String SECRET = "benchmark-secret";
+
+    /** Typical stream-URL signing input */
+    private final String data = "https://res.cloudinary.com/demo/video/upload/v1/media_videos/sample.mp4|1757002232021";
+    private final byte[] dataBytes = data.getBytes(StandardCharsets.UTF_8);
+
+    private HmacSigner pooled;
+    private Mac shared;
+    private ThreadLocal<Mac> perThread;
+
+    @Setup
+    public void setUp() throws Exception {
+        pooled = new HmacSigner();
+        ReflectionTestUtils.setField(pooled, "secret", SECRET);
+        ReflectionTestUtils.setField(pooled, "keys", "");
+        ReflectionTestUtils.setField(pooled, "activeKeyId", "");
+        ReflectionTestUtils.setField(pooled, "poolMaxIdle", 0);
+        pooled.init();
+
+        shared = newMac();
+        perThread = ThreadLocal.withInitial(() -> {
+            try {
+                return newMac();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @State(Scope.Thread)
+    public static class Output {
+        final byte[] signature = new byte[HmacSigner.SIGNATURE_LENGTH];
+    }
+
+    @Benchmark
+    public String lockedSharedMac() {
+        byte[] raw;
+        synchronized (shared) {
+            raw = shared.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    @Benchmark
+    public String threadLocalMac() {
+        byte[] raw = perThread.get().doFinal(data.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    @Benchmark
+    public String pooledString() {
+        return pooled.sign(data);
+    }
+
+    @Benchmark
+    public byte[] pooledByteBuffer(Output output) {
+        pooled.sign(HmacSigner.LEGACY_KEY_ID, ByteBuffer.wrap(dataBytes), output.signature, 0);
+        return output.signature;
+    }
+
+    private static Mac newMac() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return mac;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HmacSignerBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.bharath.media_backend.benchmark;
+
+import com.bharath.media_backend.ratelimit.InMemoryRateLimiter;
+import com.bharath.media_backend.ratelimit.RateLimitPolicy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Striped in-process limiter vs the original {@code ConcurrentHashMap.compute}
+ * fixed-window limiter from MediaService, under 8-thread contention.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *        -Dexec.mainClass=com.bharath.media_backend.benchmark.RateLimiterBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    /** Distinct client IPs: 64 hammers a few hot keys, 1M models IP churn past the striped table's cap */
+    @Param({"64", "1048576"})
+    public int distinctIps;
+
+    private final RateLimitPolicy policy = new RateLimitPolicy("view", 5, Duration.ofSeconds(60));
+    private InMemoryRateLimiter striped;
+    private LegacyLimiter legacy;
+    String[] ips;
+
+    @Setup
+    public void setUp() {
+        striped = new InMemoryRateLimiter(100_000, 64);
+        legacy = new LegacyLimiter();
+        ips = new String[distinctIps];
+        for (int i = 0; i < distinctIps; i++) {
+            ips[i] = "10." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        int next;
+
+        @Setup
+        public void setUp(RateLimiterBenchmark bench) {
+            next = ThreadLocalRandom.current().nextInt(bench.ips.length);
+        }
+
+        String nextIp(RateLimiterBenchmark bench) {
+            next = (next + 1) & (bench.ips.length - 1);
+            return bench.ips[next];
+        }
+    }
+
+    @Benchmark
+    public boolean stripedTokenBucket(Client client) {
+        return striped.tryAcquire(policy, 42L, client.nextIp(this)).allowed();
+    }
+
+    @Benchmark
+    public boolean legacyComputeMap(Client client) {
+        return legacy.isRateLimited(42L, client.nextIp(this));
+    }
+
+    /** Copy of the pre-RateLimiter MediaService implementation, kept as the baseline */
+    static class LegacyLimiter {
+        private static final int MAX_REQUESTS = 5;
+        private static final long WINDOW_MILLIS = 60_000;
+        private final ConcurrentHashMap<String, RequestInfo> requestMap = new ConcurrentHashMap<>();
+
+        boolean isRateLimited(Long mediaId, String ip) {
+            String key = mediaId + ":" + ip;
+            long now = Instant.now().toEpochMilli();
+            RequestInfo updated = requestMap.compute(key, (k, existing) -> {
+                if (existing == null || now - existing.timestamp > WINDOW_MILLIS) {
+                    return new RequestInfo(1, now);
+                }
+                if (existing.count >= MAX_REQUESTS) {
+                    return existing;
+                }
+                existing.count++;
+                return existing;
+            });
+            return updated.count > MAX_REQUESTS;
+        }
+
+        private static class RequestInfo {
+            int count;
+            long timestamp;
+
+            RequestInfo(int count, long timestamp) {
+                this.count = count;
+                this.timestamp = timestamp;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
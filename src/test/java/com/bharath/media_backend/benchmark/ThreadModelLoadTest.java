@@ -0,0 +1,138 @@
+package com.bharath.media_backend.benchmark;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Load test of Tomcat's 200-thread pool vs virtual threads in the scenario that
+ * hurts this service: slow blocking requests (uploads waiting on Cloudinary)
+ * hold request threads while quick ones (stream redirects) queue behind them.
+ *
+ * Each mode starts an embedded Tomcat with one servlet that sleeps to simulate
+ * blocking I/O: {@value #SLOW_MILLIS} ms for /upload, {@value #FAST_MILLIS} ms
+ * for /stream. {@value #SLOW_REQUESTS} uploads are in flight while
+ * {@value #FAST_REQUESTS} redirects are measured. Not a JMH benchmark: the
+ * numbers are latency percentiles under a fixed load.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *        -Dexec.mainClass=com.bharath.media_backend.benchmark.ThreadModelLoadTest
+ */
+public class ThreadModelLoadTest {
+
+    static final int SLOW_REQUESTS = 400;
+    static final int SLOW_MILLIS = 2000;
+    static final int FAST_REQUESTS = 2000;
+    static final int FAST_CONCURRENCY = 50;
+    static final int FAST_MILLIS = 5;
+
+    public static void main(String[] args) throws Exception {
+        for (boolean virtual : new boolean[]{false, true}) {
+            run(virtual);
+        }
+    }
+
+    private static void run(boolean virtual) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat").toString());
+        tomcat.setPort(0);
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "simulated", new SimulatedIoServlet());
+        context.addServletMappingDecoded("/*", "simulated");
+
+        Connector connector = tomcat.getConnector();
+        if (virtual) {
+            connector.getProtocolHandler().setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        } else {
+            connector.setProperty("maxThreads", "200"); // Spring Boot's default
+        }
+        tomcat.start();
+        String base = "http://localhost:" + connector.getLocalPort();
+
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .executor(clientThreads)
+                    .build();
+
+            List<CompletableFuture<HttpResponse<Void>>> uploads = new ArrayList<>();
+            for (int i = 0; i < SLOW_REQUESTS; i++) {
+                uploads.add(client.sendAsync(request(base + "/upload"), HttpResponse.BodyHandlers.discarding()));
+            }
+            Thread.sleep(200); // let the uploads occupy request threads
+
+            long[] latencies = new long[FAST_REQUESTS];
+            Semaphore permits = new Semaphore(FAST_CONCURRENCY);
+            List<CompletableFuture<Void>> redirects = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < FAST_REQUESTS; i++) {
+                permits.acquire();
+                int index = i;
+                long sent = System.nanoTime();
+                redirects.add(client.sendAsync(request(base + "/stream"), HttpResponse.BodyHandlers.discarding())
+                        .thenAccept(response -> latencies[index] = System.nanoTime() - sent)
+                        .whenComplete((ignored, error) -> permits.release()));
+            }
+            CompletableFuture.allOf(redirects.toArray(CompletableFuture[]::new)).join();
+            long elapsed = System.nanoTime() - start;
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+
+            Arrays.sort(latencies);
+            System.out.printf("%-8s redirects: p50 %6.1f ms  p99 %7.1f ms  max %7.1f ms  %6.0f req/s%n",
+                    virtual ? "virtual" : "platform",
+                    millis(latencies[FAST_REQUESTS / 2]),
+                    millis(latencies[(int) (FAST_REQUESTS * 0.99)]),
+                    millis(latencies[FAST_REQUESTS - 1]),
+                    FAST_REQUESTS / (elapsed / 1e9));
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static HttpRequest request(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(60)).build();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /** Sleeps stand in for JDBC, Redis and Cloudinary calls */
+    static class SimulatedIoServlet extends HttpServlet {
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            boolean upload = req.getRequestURI().startsWith("/upload");
+            try {
+                Thread.sleep(upload ? SLOW_MILLIS : FAST_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (upload) {
+                resp.setStatus(HttpServletResponse.SC_OK);
+            } else {
+                resp.setStatus(HttpServletResponse.SC_FOUND);
+                resp.setHeader("Location", "https://res.cloudinary.com/demo/video/upload/sample.mp4");
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.bharath.media_backend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analytics for one media, computed the old way (load every view log row and
+ * count in the JVM) vs pushed into the database (COUNT / COUNT DISTINCT /
+ * date_trunc GROUP BY, as in MediaViewLogRepository), plus a top-10 ranking.
+ * Uses H2 in PostgreSQL mode, in memory; 10% of rows belong to the measured media.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *        -Dexec.mainClass=com.bharath.media_backend.benchmark.ViewAnalyticsBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class ViewAnalyticsBenchmark {
+
+    private static final long MEDIA_ID = 1L;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private Connection connection;
+
+    /** What an entity row costs to materialise */
+    record ViewRow(long id, long mediaId, String viewedByIp, Timestamp timestamp) {}
+
+    record Analytics(long totalViews, long uniqueIps, Map<LocalDate, Long> viewsPerDay) {}
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:views" + rows + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE media_view_logs (
+                        id bigint PRIMARY KEY,
+                        media_id bigint NOT NULL,
+                        viewed_by_ip varchar(255) NOT NULL,
+                        ts timestamp NOT NULL
+                    )""");
+            // 10 media, 50k distinct IPs, spread over 30 days
+            statement.execute("""
+                    INSERT INTO media_view_logs
+                    SELECT X, MOD(X, 10) + 1, CONCAT('10.0.', MOD(X * 7919, 50000)),
+                           DATEADD('SECOND', MOD(X * 37, 2592000), TIMESTAMP '2025-01-01 00:00:00')
+                    FROM SYSTEM_RANGE(1, %d)""".formatted(rows));
+            statement.execute("CREATE INDEX idx_media_view_logs_media_ts ON media_view_logs (media_id, ts)");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public Analytics inJvm() throws SQLException {
+        List<ViewRow> logs = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT id, media_id, viewed_by_ip, ts FROM media_view_logs WHERE media_id = ?")) {
+            query.setLong(1, MEDIA_ID);
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    logs.add(new ViewRow(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getTimestamp(4)));
+                }
+            }
+        }
+        Set<String> ips = new HashSet<>();
+        Map<LocalDate, Long> perDay = new TreeMap<>();
+        for (ViewRow log : logs) {
+            ips.add(log.viewedByIp());
+            perDay.merge(log.timestamp().toLocalDateTime().toLocalDate(), 1L, Long::sum);
+        }
+        return new Analytics(logs.size(), ips.size(), perDay);
+    }
+
+    @Benchmark
+    public Analytics inDatabase() throws SQLException {
+        long total;
+        long unique;
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT COUNT(*), COUNT(DISTINCT viewed_by_ip) FROM media_view_logs WHERE media_id = ?")) {
+            query.setLong(1, MEDIA_ID);
+            try (ResultSet rs = query.executeQuery()) {
+                rs.next();
+                total = rs.getLong(1);
+                unique = rs.getLong(2);
+            }
+        }
+        Map<LocalDate, Long> perDay = new LinkedHashMap<>();
+        try (PreparedStatement query = connection.prepareStatement("""
+                SELECT date_trunc('day', ts), COUNT(*) FROM media_view_logs
+                WHERE media_id = ? GROUP BY 1 ORDER BY 1""")) {
+            query.setLong(1, MEDIA_ID);
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    perDay.put(rs.getObject(1, LocalDateTime.class).toLocalDate(), rs.getLong(2));
+                }
+            }
+        }
+        return new Analytics(total, unique, perDay);
+    }
+
+    @Benchmark
+    public List<long[]> topMediaInJvm() throws SQLException {
+        Map<Long, Long> counts = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, media_id, viewed_by_ip, ts FROM media_view_logs")) {
+            while (rs.next()) {
+                ViewRow row = new ViewRow(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getTimestamp(4));
+                counts.merge(row.mediaId(), 1L, Long::sum);
+            }
+        }
+        List<long[]> top = new ArrayList<>();
+        counts.forEach((mediaId, views) -> top.add(new long[]{mediaId, views}));
+        top.sort((a, b) -> Long.compare(b[1], a[1]));
+        return top.subList(0, Math.min(10, top.size()));
+    }
+
+    @Benchmark
+    public List<long[]> topMediaInDatabase() throws SQLException {
+        List<long[]> top = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT media_id, COUNT(*) AS views FROM media_view_logs
+                     GROUP BY media_id ORDER BY views DESC, media_id LIMIT 10""")) {
+            while (rs.next()) {
+                top.add(new long[]{rs.getLong(1), rs.getLong(2)});
+            }
+        }
+        return top;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ViewAnalyticsBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
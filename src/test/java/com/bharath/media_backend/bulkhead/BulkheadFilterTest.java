@@ -0,0 +1,70 @@
+package com.bharath.media_backend.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Bulkhead upload;
+    private BulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upload = new Bulkhead("upload", 1, 0, Duration.ZERO, meterRegistry);
+        Bulkhead streaming = new Bulkhead("streaming", 10, 0, Duration.ZERO, meterRegistry);
+        filter = new BulkheadFilter(Map.of(RouteClass.UPLOAD, upload, RouteClass.STREAMING, streaming),
+                new ObjectMapper());
+    }
+
+    private MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    @Test
+    void testRouteClasses() {
+        assertEquals(RouteClass.UPLOAD, RouteClass.of("POST", "/media"));
+        assertEquals(RouteClass.UPLOAD, RouteClass.of("PUT", "/media/uploads/abc/chunks"));
+        assertEquals(RouteClass.STREAMING, RouteClass.of("GET", "/media/7/stream"));
+        assertEquals(RouteClass.STREAMING, RouteClass.of("GET", "/files/clip.mp4"));
+        assertEquals(RouteClass.STREAMING, RouteClass.of("GET", "/media/7/abr/0123456789ab-media-7-720p-seg_00001.ts"));
+        assertEquals(RouteClass.ANALYTICS, RouteClass.of("GET", "/media/7/analytics/views"));
+        assertEquals(RouteClass.AUTH, RouteClass.of("POST", "/auth/login"));
+        assertNull(RouteClass.of("POST", "/media/7/view"));
+    }
+
+    @Test
+    void testFullBulkheadRejectsWithoutTouchingOthers() throws Exception {
+        assertTrue(upload.tryAcquire()); // an upload in progress
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/media/upload"), rejected, new MockFilterChain());
+        MockHttpServletResponse stream = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/media/7/stream"), stream, new MockFilterChain());
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1, meterRegistry.get("media.bulkhead.rejected").tag("bulkhead", "upload").counter().count());
+        assertEquals(200, stream.getStatus());
+    }
+
+    @Test
+    void testSlotIsReleasedAfterRequest() throws Exception {
+        filter.doFilter(request("POST", "/media/upload"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(0, upload.active());
+    }
+}
@@ -1,19 +1,22 @@
 package com.bharath.media_backend.controller;
 
+import com.bharath.media_backend.service.FileStreamingService;
 import com.bharath.media_backend.service.FileUploadService;
+import com.bharath.media_backend.service.StoredFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -23,12 +26,20 @@ class FileUploadControllerTest {
     @Mock
     private FileUploadService fileUploadService;
 
-    @InjectMocks
     private FileUploadController fileUploadController;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        fileUploadController = new FileUploadController(fileUploadService, new FileStreamingService(49152));
+    }
+
+    private static StoredFile stored(Path file) throws IOException {
+        return StoredFile.of(file.getFileName().toString(), file, null, Files.size(file),
+                Files.getLastModifiedTime(file).toMillis());
     }
 
     @Test
@@ -68,39 +79,56 @@ class FileUploadControllerTest {
     }
 
     @Test
-    void testDownloadSuccess() throws MalformedURLException {
-        Resource resource = new ByteArrayResource("Hello".getBytes()) {
-            @Override
-            public String getFilename() {
-                return "test.txt";
-            }
-        };
-        when(fileUploadService.loadFileAsResource("test.txt")).thenReturn(resource);
-
-        ResponseEntity<Resource> response = fileUploadController.downloadFile("test.txt");
+    void testDownloadSuccess() throws IOException {
+        Path file = Files.write(tempDir.resolve("test.txt"), "Hello".getBytes());
+        when(fileUploadService.lookup("test.txt")).thenReturn(Optional.of(stored(file)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        fileUploadController.downloadFile("test.txt", new MockHttpServletRequest("GET", "/media/files/test.txt"), response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("Hello", response.getContentAsString());
+        assertEquals("attachment; filename=\"=?UTF-8?Q?test.txt?=\"; filename*=UTF-8''test.txt",
+                response.getHeader("Content-Disposition"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        verify(fileUploadService, times(1)).lookup("test.txt");
+    }
 
-        assertEquals(200, response.getStatusCodeValue());
-        assertEquals("test.txt", response.getBody().getFilename());
-        verify(fileUploadService, times(1)).loadFileAsResource("test.txt");
+    @Test
+    void testStreamFileRange() throws IOException {
+        Path file = Files.write(tempDir.resolve("clip.mp4"), "0123456789".getBytes());
+        when(fileUploadService.lookup("clip.mp4")).thenReturn(Optional.of(stored(file)));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/clip.mp4");
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        fileUploadController.streamFile("clip.mp4", request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals("video/mp4", response.getContentType());
     }
 
     @Test
-    void testDownloadMalformedUrl() throws MalformedURLException {
-        when(fileUploadService.loadFileAsResource("test.txt")).thenThrow(new MalformedURLException());
+    void testDownloadInvalidPath() throws IOException {
+        when(fileUploadService.lookup("../test.txt")).thenReturn(Optional.empty());
+        MockHttpServletResponse response = new MockHttpServletResponse();
 
-        ResponseEntity<Resource> response = fileUploadController.downloadFile("test.txt");
+        fileUploadController.downloadFile("../test.txt", new MockHttpServletRequest("GET", "/media/files/../test.txt"), response);
 
-        assertEquals(400, response.getStatusCodeValue());
-        verify(fileUploadService, times(1)).loadFileAsResource("test.txt");
+        assertEquals(404, response.getStatus());
+        verify(fileUploadService, times(1)).lookup("../test.txt");
     }
 
     @Test
-    void testDownloadFileNotFound() throws MalformedURLException {
-        when(fileUploadService.loadFileAsResource("test.txt")).thenThrow(new RuntimeException("File not found"));
+    void testDownloadFileNotFound() throws IOException {
+        when(fileUploadService.lookup("test.txt")).thenReturn(Optional.empty());
+        MockHttpServletResponse response = new MockHttpServletResponse();
 
-        ResponseEntity<Resource> response = fileUploadController.downloadFile("test.txt");
+        fileUploadController.downloadFile("test.txt", new MockHttpServletRequest("GET", "/media/files/test.txt"), response);
 
-        assertEquals(404, response.getStatusCodeValue());
-        verify(fileUploadService, times(1)).loadFileAsResource("test.txt");
+        assertEquals(404, response.getStatus());
+        verify(fileUploadService, times(1)).lookup("test.txt");
     }
 }
@@ -1,10 +1,15 @@
 package com.bharath.media_backend.controller;
 
 
-import com.bharath.media_backend.api.dto.MediaCreateRequest;
 import com.bharath.media_backend.api.dto.StreamUrlResponse;
-import com.bharath.media_backend.domain.MediaViewLog;
+import com.bharath.media_backend.api.dto.UploadJobResponse;
+import com.bharath.media_backend.api.dto.ViewAnalyticsResponse;
+import com.bharath.media_backend.api.dto.ViewLogPage;
+import com.bharath.media_backend.domain.UploadJob;
 import com.bharath.media_backend.service.MediaService;
+import com.bharath.media_backend.service.UploadJobService;
+import com.bharath.media_backend.service.ViewAnalyticsService;
+import com.bharath.media_backend.service.ViewLogQueryService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,11 +20,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 class MediaControllerTest {
@@ -27,6 +33,15 @@ class MediaControllerTest {
     @Mock
     private MediaService mediaService;
 
+    @Mock
+    private UploadJobService uploadJobService;
+
+    @Mock
+    private ViewLogQueryService viewLogQueryService;
+
+    @Mock
+    private ViewAnalyticsService viewAnalyticsService;
+
     @InjectMocks
     private MediaController mediaController;
 
@@ -38,14 +53,28 @@ class MediaControllerTest {
     @Test
     void testCreateMedia() throws IOException {
         MockMultipartFile file = new MockMultipartFile("file", "video.mp4", "video/mp4", "dummy content".getBytes());
-        when(mediaService.uploadToCloudinary(file)).thenReturn("http://cloudinary/video.mp4");
-        when(mediaService.createMedia(any(MediaCreateRequest.class))).thenReturn("Media saved successfully");
+        UploadJob job = UploadJob.builder().id(5L).status(UploadJob.Status.PENDING).attempts(0).build();
+        when(uploadJobService.submit("Test Title", "video", file)).thenReturn(job);
+
+        ResponseEntity<UploadJobResponse> response = mediaController.createMedia("Test Title", "video", file);
+
+        assertEquals(202, response.getStatusCodeValue());
+        assertEquals("/media/jobs/5", response.getHeaders().getLocation().toString());
+        assertEquals(5L, response.getBody().getId());
+        assertEquals("PENDING", response.getBody().getStatus());
+        verify(uploadJobService, times(1)).submit("Test Title", "video", file);
+        verifyNoInteractions(mediaService);
+    }
+
+    @Test
+    void testGetUploadJob() {
+        UploadJob job = UploadJob.builder().id(5L).status(UploadJob.Status.SUCCEEDED).attempts(1).mediaId(9L).build();
+        when(uploadJobService.getJob(5L)).thenReturn(job);
 
-        String response = mediaController.createMedia("Test Title", "video", file);
+        UploadJobResponse response = mediaController.getUploadJob(5L);
 
-        assertEquals("Media saved successfully", response);
-        verify(mediaService, times(1)).uploadToCloudinary(file);
-        verify(mediaService, times(1)).createMedia(any(MediaCreateRequest.class));
+        assertEquals("SUCCEEDED", response.getStatus());
+        assertEquals(9L, response.getMediaId());
     }
 
     @Test
@@ -61,15 +90,27 @@ class MediaControllerTest {
     }
 
 
+    @Test
+    void testStreamMediaWithToken() throws IOException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(mediaService.streamMedia(request, 1L, "v0.abc.def", null))
+                .thenReturn(ResponseEntity.status(302).header("Location", "http://cloudinary/video.mp4").build());
+
+        ResponseEntity<?> response = mediaController.streamMedia(request, 1L, "v0.abc.def", null, null, null);
+
+        assertEquals(302, response.getStatusCodeValue());
+        verify(mediaService, times(1)).streamMedia(request, 1L, "v0.abc.def", null);
+    }
+
     @Test
     void testGetViewLogs() {
-        List<MediaViewLog> logs = Collections.emptyList();
-        when(mediaService.getViewLogs(1L)).thenReturn(logs);
+        ViewLogPage page = new ViewLogPage(Collections.emptyList(), null);
+        when(viewLogQueryService.page(1L, null, null, "abc", 50)).thenReturn(page);
 
-        List<MediaViewLog> response = mediaController.getViewLogs(1L);
+        ViewLogPage response = mediaController.getViewLogs(1L, null, null, "abc", 50);
 
-        assertEquals(logs, response);
-        verify(mediaService, times(1)).getViewLogs(1L);
+        assertEquals(page, response);
+        verify(viewLogQueryService, times(1)).page(1L, null, null, "abc", 50);
     }
 
     @Test
@@ -93,4 +134,15 @@ class MediaControllerTest {
         assertEquals(analytics, response.getBody());
         verify(mediaService, times(1)).getAnalytics(1L);
     }
+
+    @Test
+    void testGetViewStatsParsesGranularity() {
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant to = Instant.parse("2025-01-02T00:00:00Z");
+        ViewAnalyticsResponse stats = new ViewAnalyticsResponse(1L, from, to, "hour", 0, 0, Collections.emptyList());
+        when(viewAnalyticsService.viewStats(1L, from, to, ViewAnalyticsService.Granularity.HOUR)).thenReturn(stats);
+
+        assertEquals(stats, mediaController.getViewStats(1L, from, to, "Hour"));
+        assertThrows(IllegalArgumentException.class, () -> mediaController.getViewStats(1L, from, to, "minute"));
+    }
 }
@@ -0,0 +1,103 @@
+package com.bharath.media_backend.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final RateLimitPolicy fivePerMinute = new RateLimitPolicy("view", 5, Duration.ofSeconds(60));
+
+    @Test
+    void testAllowsBurstThenDenies() {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(1_000, 4, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(fivePerMinute, 1L, "10.0.0.1").allowed());
+        }
+        RateLimitDecision denied = limiter.tryAcquire(fivePerMinute, 1L, "10.0.0.1");
+
+        assertFalse(denied.allowed());
+        assertEquals(12_000, denied.retryAfterMillis());
+        assertEquals(12, denied.retryAfterSeconds());
+    }
+
+    @Test
+    void testRefillsOverTime() {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(1_000, 4, now::get);
+        for (int i = 0; i < 5; i++) limiter.tryAcquire(fivePerMinute, 1L, "10.0.0.1");
+
+        now.addAndGet(12_000);
+
+        assertTrue(limiter.tryAcquire(fivePerMinute, 1L, "10.0.0.1").allowed());
+        assertFalse(limiter.tryAcquire(fivePerMinute, 1L, "10.0.0.1").allowed());
+    }
+
+    @Test
+    void testKeysAreIndependentPerMediaIpAndPolicy() {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(1_000, 4, now::get);
+        RateLimitPolicy stream = new RateLimitPolicy("stream", 5, Duration.ofSeconds(60));
+        for (int i = 0; i < 5; i++) limiter.tryAcquire(fivePerMinute, 1L, "10.0.0.1");
+
+        assertTrue(limiter.tryAcquire(fivePerMinute, 2L, "10.0.0.1").allowed());
+        assertTrue(limiter.tryAcquire(fivePerMinute, 1L, "10.0.0.2").allowed());
+        assertTrue(limiter.tryAcquire(fivePerMinute, 1L, "2001:db8::1").allowed());
+        assertTrue(limiter.tryAcquire(stream, 1L, "10.0.0.1").allowed());
+    }
+
+    @Test
+    void testMemoryStaysCappedUnderIpChurn() {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(1_024, 8, now::get);
+
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire(fivePerMinute, 1L, "10." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff));
+        }
+
+        assertEquals(1_024, limiter.capacity());
+        assertTrue(limiter.size() <= limiter.capacity());
+    }
+
+    @Test
+    void testIdleKeysExpireWithoutSweep() {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(1_024, 8, now::get);
+        for (int i = 0; i < 500; i++) limiter.tryAcquire(fivePerMinute, (long) i, "10.0.0.1");
+        assertEquals(500, limiter.size());
+
+        now.addAndGet(60_000);
+
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void testConcurrentRequestsNeverExceedBurst() throws InterruptedException {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(1_000, 4, now::get);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_000; i++) {
+            pool.submit(() -> {
+                if (limiter.tryAcquire(fivePerMinute, 1L, "10.0.0.1").allowed()) allowed.incrementAndGet();
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(5, allowed.get());
+    }
+
+    @Test
+    void testPacksIpv4Exactly() {
+        assertEquals(0x0A000001L, IpKeys.parseIpv4("10.0.0.1"));
+        assertEquals(-1, IpKeys.parseIpv4("256.0.0.1"));
+        assertEquals(-1, IpKeys.parseIpv4("10.0.0"));
+        assertEquals(-1, IpKeys.parseIpv4("::1"));
+        assertNotEquals(IpKeys.low("2001:db8::1"), IpKeys.low("2001:db8::2"));
+    }
+}
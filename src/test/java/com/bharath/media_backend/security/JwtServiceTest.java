@@ -0,0 +1,61 @@
+package com.bharath.media_backend.security;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService(meterRegistry);
+        ReflectionTestUtils.setField(jwtService, "secret", "0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(jwtService, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxSize", 100L);
+        jwtService.init();
+    }
+
+    private double cacheRequests(String result) {
+        return meterRegistry.get("security.jwt.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    void testRepeatedTokenIsVerifiedOnce() {
+        String token = jwtService.generateToken("admin@example.com", "ADMIN");
+
+        JwtService.VerifiedToken first = jwtService.authenticate(token);
+        JwtService.VerifiedToken second = jwtService.authenticate(token);
+
+        assertEquals("admin@example.com", first.subject());
+        assertEquals("ROLE_ADMIN", first.authorities().get(0).getAuthority());
+        assertSame(first, second);
+        assertEquals(1, cacheRequests("miss"));
+        assertEquals(1, cacheRequests("hit"));
+        assertEquals(1, meterRegistry.get("security.jwt.verify").timer().count());
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() {
+        String token = jwtService.generateToken("admin@example.com", "ADMIN");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.authenticate(tampered));
+        assertEquals(1, meterRegistry.get("security.jwt.invalid").counter().count());
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        ReflectionTestUtils.setField(jwtService, "ttlMs", -1_000L);
+        String token = jwtService.generateToken("admin@example.com", "ADMIN");
+
+        assertThrows(JwtException.class, () -> jwtService.authenticate(token));
+    }
+}
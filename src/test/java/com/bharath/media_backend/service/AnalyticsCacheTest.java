@@ -0,0 +1,109 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AnalyticsCacheTest {
+
+    private static final Instant DAY_ONE = Instant.parse("2025-03-01T10:00:00Z");
+
+    /** One redis.execute call */
+    private record Call(RedisScript<?> script, List<String> keys, List<Object> argv) {}
+
+    @Mock
+    private StringRedisTemplate redis;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOps;
+
+    private final List<Call> calls = new ArrayList<>();
+    private AnalyticsCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(inv -> {
+            Object[] all = inv.getArguments();
+            calls.add(new Call(inv.getArgument(0), inv.getArgument(1), List.of(Arrays.copyOfRange(all, 2, all.length))));
+            return 1L;
+        });
+        when(redis.<Object, Object>opsForHash()).thenReturn(hashOps);
+        cache = new AnalyticsCache(redis, new SimpleMeterRegistry(), Duration.ofMinutes(10));
+    }
+
+    private static MediaViewLog view(long mediaId, Instant at) {
+        return MediaViewLog.builder().mediaId(mediaId).viewedByIp("10.0.0.1").timestamp(at).build();
+    }
+
+    /** ARGV field/value pairs as a map */
+    private static Map<Object, Object> pairs(List<Object> argv) {
+        assertEquals(0, argv.size() % 2);
+        Map<Object, Object> fields = new HashMap<>();
+        for (int i = 0; i < argv.size(); i += 2) {
+            fields.put(argv.get(i), argv.get(i + 1));
+        }
+        return fields;
+    }
+
+    @Test
+    void testIncrementsGoOnlyThroughTheIfPresentScript() {
+        cache.onViewsWritten(List.of(view(1L, DAY_ONE), view(1L, DAY_ONE),
+                view(1L, DAY_ONE.plus(Duration.ofDays(1))), view(2L, DAY_ONE)));
+
+        Map<String, Call> byKey = new HashMap<>();
+        calls.forEach(call -> byKey.put(call.keys().get(0), call));
+        assertEquals(Set.of("analytics:media:1", "analytics:media:2"), byKey.keySet());
+        calls.forEach(call -> {
+            assertSame(AnalyticsCache.INCREMENT_IF_PRESENT, call.script());
+            assertEquals(1, call.keys().size());
+        });
+        assertEquals(Map.of("total", "3", "d:2025-03-01", "2", "d:2025-03-02", "1"),
+                pairs(byKey.get("analytics:media:1").argv()));
+        assertEquals(Map.of("total", "1", "d:2025-03-01", "1"), pairs(byKey.get("analytics:media:2").argv()));
+        // Nothing written outside the script, so a missing entry is never created partially
+        verify(redis, never()).opsForHash();
+    }
+
+    @Test
+    void testPopulateGoesOnlyThroughTheIfAbsentScript() {
+        cache.populate(1L, new AnalyticsCache.Entry(5, Map.of("2025-03-01", 3L, "2025-03-02", 2L)));
+
+        assertEquals(1, calls.size());
+        Call call = calls.get(0);
+        assertSame(AnalyticsCache.POPULATE_IF_ABSENT, call.script());
+        assertEquals(List.of("analytics:media:1"), call.keys());
+        assertEquals("600", call.argv().get(0)); // TTL in seconds comes first
+        assertEquals(Map.of("total", "5", "d:2025-03-01", "3", "d:2025-03-02", "2"),
+                pairs(call.argv().subList(1, call.argv().size())));
+        verify(redis, never()).opsForHash();
+    }
+
+    @Test
+    void testGetReadsTotalAndDaysFromTheHash() {
+        when(hashOps.entries("analytics:media:1")).thenReturn(Map.of("total", "7", "d:2025-03-02", "1", "d:2025-03-01", "6"));
+        when(hashOps.entries("analytics:media:2")).thenReturn(Map.of());
+
+        AnalyticsCache.Entry entry = cache.get(1L).orElseThrow();
+
+        assertEquals(7, entry.totalViews());
+        assertEquals(List.of("2025-03-01", "2025-03-02"), List.copyOf(entry.viewsPerDay().keySet()));
+        assertEquals(6L, entry.viewsPerDay().get("2025-03-01"));
+        assertTrue(cache.get(2L).isEmpty());
+    }
+}
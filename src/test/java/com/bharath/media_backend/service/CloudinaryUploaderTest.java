@@ -0,0 +1,107 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.exception.UploadCapacityExceededException;
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class CloudinaryUploaderTest {
+
+    private static final int CHUNK = 5 * 1024 * 1024;
+
+    @Mock
+    private Cloudinary cloudinary;
+
+    @Mock
+    private Uploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(cloudinary.uploader()).thenReturn(uploader);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUploadsInChunksWithContentRange() throws IOException {
+        when(uploader.upload(any(), anyMap())).thenReturn(Map.of("url", "http://cloudinary/video.mp4"));
+        CloudinaryUploader cloudinaryUploader = new CloudinaryUploader(cloudinary, CHUNK, 3, 1, 2, 100);
+        long size = 2L * CHUNK + 10;
+
+        Map<?, ?> result = cloudinaryUploader.upload(new ByteArrayInputStream(new byte[(int) size]), size, Map.of());
+
+        ArgumentCaptor<byte[]> chunks = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<Map<String, Object>> options = ArgumentCaptor.forClass(Map.class);
+        verify(uploader, times(3)).upload(chunks.capture(), options.capture());
+        assertEquals(List.of(CHUNK, CHUNK, 10), chunks.getAllValues().stream().map(c -> c.length).toList());
+
+        Map<String, String> lastHeaders = (Map<String, String>) options.getAllValues().get(2).get("extra_headers");
+        assertEquals("bytes " + 2L * CHUNK + "-" + (size - 1) + "/" + size, lastHeaders.get("Content-Range"));
+        assertEquals("http://cloudinary/video.mp4", result.get("url"));
+    }
+
+    @Test
+    void testRetriesFailedChunk() throws IOException {
+        when(uploader.upload(any(), anyMap()))
+                .thenThrow(new IOException("connection reset"))
+                .thenReturn(Map.of("url", "http://cloudinary/video.mp4"));
+        CloudinaryUploader cloudinaryUploader = new CloudinaryUploader(cloudinary, CHUNK, 3, 1, 2, 100);
+
+        cloudinaryUploader.upload(new ByteArrayInputStream(new byte[100]), 100, Map.of());
+
+        verify(uploader, times(2)).upload(any(), anyMap());
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() throws IOException {
+        when(uploader.upload(any(), anyMap())).thenThrow(new IOException("connection reset"));
+        CloudinaryUploader cloudinaryUploader = new CloudinaryUploader(cloudinary, CHUNK, 2, 1, 2, 100);
+
+        assertThrows(IOException.class,
+                () -> cloudinaryUploader.upload(new ByteArrayInputStream(new byte[100]), 100, Map.of()));
+        verify(uploader, times(2)).upload(any(), anyMap());
+    }
+
+    @Test
+    void testRejectsWhenConcurrencyLimitReached() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(uploader.upload(any(), anyMap())).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return Map.of("url", "u");
+        });
+        CloudinaryUploader cloudinaryUploader = new CloudinaryUploader(cloudinary, CHUNK, 1, 1, 1, 50);
+
+        Thread first = new Thread(() -> {
+            try {
+                cloudinaryUploader.upload(new ByteArrayInputStream(new byte[10]), 10, Map.of());
+            } catch (IOException ignored) {
+            }
+        });
+        first.start();
+        started.await();
+
+        InputStream second = new ByteArrayInputStream(new byte[10]);
+        assertThrows(UploadCapacityExceededException.class, () -> cloudinaryUploader.upload(second, 10, Map.of()));
+
+        release.countDown();
+        first.join();
+    }
+}
@@ -0,0 +1,218 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.storage.MediaStorage;
+import com.bharath.media_backend.storage.S3MediaStorage;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeCacheTest {
+
+    private static final String LOCATION = "https://res.cloudinary.com/demo/video/upload/v1/media_videos/clip.mp4";
+    private static final int SEGMENT = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private final byte[] content = new byte[10 * SEGMENT + 100];
+    private final StubOrigin origin = new StubOrigin();
+
+    EdgeCacheTest() {
+        new Random(7).nextBytes(content);
+    }
+
+    private EdgeCache cache(long maxBytes) throws IOException {
+        return new EdgeCache(new SimpleMeterRegistry(), tempDir.toString(), SEGMENT, maxBytes, Duration.ofHours(1));
+    }
+
+    private byte[] read(EdgeCache cache, long offset, long length) throws IOException {
+        try (InputStream in = cache.open(origin, LOCATION, offset, length)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void testRangeIsFetchedOnceThenServedLocally() throws IOException {
+        EdgeCache cache = cache(1 << 20);
+
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 3500), read(cache, 1000, 2500));
+        assertEquals(4, origin.gets.get()); // segments 0 to 3
+
+        assertArrayEquals(Arrays.copyOfRange(content, 2000, 3000), read(cache, 2000, 1000));
+        assertArrayEquals(Arrays.copyOfRange(content, 10 * SEGMENT, content.length), read(cache, 10 * SEGMENT, 100));
+        assertEquals(5, origin.gets.get()); // only the short last segment was new
+        assertEquals(1, origin.sizes.get());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneOriginFetch() throws Exception {
+        EdgeCache cache = cache(1 << 20);
+        origin.gate = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(pool.submit(() -> read(cache, 0, SEGMENT)));
+            }
+            Thread.sleep(200); // let every reader reach the in-flight fetch
+            origin.gate.countDown();
+            for (Future<byte[]> read : reads) {
+                assertArrayEquals(Arrays.copyOfRange(content, 0, SEGMENT), read.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, origin.gets.get());
+    }
+
+    @Test
+    void testLeastRecentlyUsedSegmentIsEvicted() throws IOException {
+        EdgeCache cache = cache(2 * SEGMENT);
+
+        read(cache, 0, SEGMENT);
+        read(cache, SEGMENT, SEGMENT);
+        read(cache, 0, SEGMENT);          // segment 0 is now the most recent
+        read(cache, 2 * SEGMENT, SEGMENT); // evicts segment 1
+        assertEquals(3, origin.gets.get());
+        assertEquals(2 * SEGMENT, cache.cachedBytes());
+
+        read(cache, 0, SEGMENT);
+        assertEquals(3, origin.gets.get());
+        read(cache, SEGMENT, SEGMENT);
+        assertEquals(4, origin.gets.get());
+    }
+
+    @Test
+    void testSegmentsSurviveRestart() throws IOException {
+        read(cache(1 << 20), 0, 3 * SEGMENT);
+        assertEquals(3, origin.gets.get());
+
+        EdgeCache reloaded = cache(1 << 20);
+
+        assertEquals(3 * SEGMENT, reloaded.cachedBytes());
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 3 * SEGMENT), read(reloaded, 0, 3 * SEGMENT));
+        assertEquals(3, origin.gets.get());
+    }
+
+    @Test
+    void testOriginFailureIsNotCached() throws IOException {
+        EdgeCache cache = cache(1 << 20);
+        origin.failures.set(1);
+
+        assertThrows(IOException.class, () -> read(cache, 0, SEGMENT));
+        assertArrayEquals(Arrays.copyOfRange(content, 0, SEGMENT), read(cache, 0, SEGMENT));
+        assertEquals(2, origin.gets.get());
+        assertEquals(SEGMENT, cache.cachedBytes());
+    }
+
+    @Test
+    void testOriginIgnoringRangeStillFillsSegmentsCorrectly() throws IOException {
+        // Answers every GET with 200 and the whole object, as a CDN or proxy may
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/media/", exchange -> {
+            boolean head = "HEAD".equals(exchange.getRequestMethod());
+            exchange.getResponseHeaders().set("Content-Length", Integer.toString(content.length));
+            exchange.sendResponseHeaders(200, head ? -1 : content.length);
+            if (!head) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(content);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            S3MediaStorage s3 = new S3MediaStorage("http://127.0.0.1:" + server.getAddress().getPort(), "us-east-1",
+                    "media", "minio", "minio-secret", Duration.ofMinutes(15));
+            String location = "s3://media/clip.mp4";
+            EdgeCache cache = cache(1 << 20);
+
+            try (InputStream in = cache.open(s3, location, 3 * SEGMENT + 10, 2 * SEGMENT)) {
+                assertArrayEquals(Arrays.copyOfRange(content, 3 * SEGMENT + 10, 5 * SEGMENT + 10), in.readAllBytes());
+            }
+            try (InputStream in = cache.open(s3, location, 10 * SEGMENT, 100)) {
+                assertArrayEquals(Arrays.copyOfRange(content, 10 * SEGMENT, content.length), in.readAllBytes());
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /** Origin stand-in: serves {@code content} by range and counts calls */
+    private class StubOrigin implements MediaStorage {
+
+        final AtomicInteger gets = new AtomicInteger();
+        final AtomicInteger sizes = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        volatile CountDownLatch gate;
+
+        @Override
+        public String name() {
+            return "cloudinary";
+        }
+
+        @Override
+        public boolean owns(String location) {
+            return LOCATION.equals(location);
+        }
+
+        @Override
+        public String put(String filename, InputStream in, long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream get(String location) {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public InputStream get(String location, long offset, long length) throws IOException {
+            gets.incrementAndGet();
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) throw new IOException("origin down");
+            return new ByteArrayInputStream(content, (int) offset, (int) length);
+        }
+
+        @Override
+        public long size(String location) throws IOException {
+            sizes.incrementAndGet();
+            if (!owns(location)) throw new NoSuchFileException(location);
+            return content.length;
+        }
+
+        @Override
+        public boolean delete(String location) {
+            return false;
+        }
+    }
+}
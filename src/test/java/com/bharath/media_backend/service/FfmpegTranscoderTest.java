@@ -0,0 +1,62 @@
+package com.bharath.media_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FfmpegTranscoderTest {
+
+    private final FfmpegTranscoder transcoder = new FfmpegTranscoder("ffmpeg", "ffprobe",
+            "480:1400:128, 1080:5000:192,720:2800:128", 6, 0, Duration.ofHours(1));
+
+    @Test
+    void testProbeOutputIsParsed() {
+        FfmpegTranscoder.Probe probe = FfmpegTranscoder.parseProbe("""
+                codec_type=video
+                height=720
+                codec_type=audio
+                height=N/A
+                duration=93.480000
+                """);
+
+        assertEquals(new FfmpegTranscoder.Probe(93.48, 720, true, true), probe);
+        assertThrows(IllegalArgumentException.class, () -> FfmpegTranscoder.parseProbe("duration=1.0\n"));
+    }
+
+    @Test
+    void testLadderStopsAtSourceHeight() {
+        List<FfmpegTranscoder.Variant> variants = transcoder.variantsFor(new FfmpegTranscoder.Probe(60, 720, true, true));
+
+        assertEquals(List.of("720p", "480p"), variants.stream().map(FfmpegTranscoder.Variant::name).toList());
+        assertEquals(List.of(new FfmpegTranscoder.Variant(240, 1400, 128)),
+                transcoder.variantsFor(new FfmpegTranscoder.Probe(60, 241, true, false)));
+        assertTrue(transcoder.variantsFor(new FfmpegTranscoder.Probe(60, 0, false, true)).isEmpty());
+    }
+
+    @Test
+    void testHlsCommandMapsOneStreamPerVariant() {
+        FfmpegTranscoder.Probe probe = new FfmpegTranscoder.Probe(60, 1080, true, true);
+        List<String> command = transcoder.hlsCommand(Path.of("in.mp4"), probe, transcoder.variantsFor(probe));
+
+        String streamMap = command.get(command.indexOf("-var_stream_map") + 1);
+        assertEquals("v:0,a:0,name:1080p v:1,a:1,name:720p v:2,a:2,name:480p", streamMap);
+        assertEquals("[0:v]split=3[s0][s1][s2];[s0]scale=-2:1080[v0];[s1]scale=-2:720[v1];[s2]scale=-2:480[v2]",
+                command.get(command.indexOf("-filter_complex") + 1));
+        assertEquals("%v/index.m3u8", command.get(command.size() - 1));
+        assertEquals(1, command.stream().filter("-preset"::equals).count());
+    }
+
+    @Test
+    void testAudioOnlySourceGetsOneAudioVariant() {
+        FfmpegTranscoder.Probe probe = new FfmpegTranscoder.Probe(60, 0, false, true);
+        List<String> command = transcoder.dashCommand(Path.of("in.mp3"), probe, List.of());
+
+        assertFalse(command.contains("-filter_complex"));
+        assertEquals("id=0,streams=a", command.get(command.indexOf("-adaptation_sets") + 1));
+        assertEquals(FfmpegTranscoder.DASH_MANIFEST, command.get(command.size() - 1));
+    }
+}
@@ -0,0 +1,140 @@
+package com.bharath.media_backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileStreamingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileStreamingService service;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new FileStreamingService(16);
+        file = Files.write(tempDir.resolve("clip.bin"), "0123456789abcdefghij".getBytes());
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(file, false, request, response);
+        return response;
+    }
+
+    private MockHttpServletRequest get(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/clip.bin");
+        if (range != null) request.addHeader("Range", range);
+        return request;
+    }
+
+    @Test
+    void testSuffixAndOpenEndedRanges() throws IOException {
+        MockHttpServletResponse suffix = serve(get("bytes=-5"));
+        assertEquals(206, suffix.getStatus());
+        assertEquals("fghij", suffix.getContentAsString());
+        assertEquals("bytes 15-19/20", suffix.getHeader("Content-Range"));
+
+        MockHttpServletResponse openEnded = serve(get("bytes=18-"));
+        assertEquals("ij", openEnded.getContentAsString());
+        assertEquals(2, openEnded.getContentLengthLong());
+    }
+
+    @Test
+    void testMultipleRangesUseMultipartByteranges() throws IOException {
+        MockHttpServletResponse response = serve(get("bytes=0-1, 10-11"));
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String body = response.getContentAsString();
+        assertTrue(body.contains("Content-Range: bytes 0-1/20\r\n\r\n01"));
+        assertTrue(body.contains("Content-Range: bytes 10-11/20\r\n\r\nab"));
+        assertEquals(body.length(), response.getContentLengthLong());
+    }
+
+    @Test
+    void testOverlappingRangesAreCoalesced() throws IOException {
+        MockHttpServletResponse response = serve(get("bytes=0-4,3-7"));
+
+        assertEquals("bytes 0-7/20", response.getHeader("Content-Range"));
+        assertEquals("01234567", response.getContentAsString());
+    }
+
+    @Test
+    void testFilenameIsEncodedInContentDisposition() throws IOException {
+        StoredFile odd = StoredFile.of("a\"b;c\r\né.bin", file, null, 20, 0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.serve(odd, true, get(null), response);
+
+        String disposition = response.getHeader("Content-Disposition");
+        assertTrue(disposition.startsWith("attachment; "));
+        assertTrue(disposition.endsWith("; filename*=UTF-8''a%22b%3Bc%0D%0A%C3%A9.bin"));
+        assertFalse(disposition.contains("\r") || disposition.contains("\n"));
+    }
+
+    @Test
+    void testDateIfRangeNeverMatchesWithoutLastModified() {
+        for (String ifRange : new String[]{"not a date", "Tue, 01 Jul 2025 10:00:00 GMT"}) {
+            MockHttpServletRequest request = get("bytes=0-1");
+            request.addHeader("If-Range", ifRange);
+
+            assertNull(FileStreamingService.parseRanges(request, 20, "\"e\"", Long.MIN_VALUE));
+        }
+    }
+
+    @Test
+    void testUnsatisfiableRange() throws IOException {
+        MockHttpServletResponse response = serve(get("bytes=50-60"));
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void testStaleIfRangeServesWholeFile() throws IOException {
+        MockHttpServletRequest request = get("bytes=0-1");
+        request.addHeader("If-Range", "\"stale\"");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(20, response.getContentAsString().length());
+    }
+
+    @Test
+    void testIfNoneMatchReturnsNotModified() throws IOException {
+        String etag = serve(get(null)).getHeader("ETag");
+        MockHttpServletRequest request = get(null);
+        request.addHeader("If-None-Match", etag);
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals("", response.getContentAsString());
+    }
+
+    @Test
+    void testSendfileUsedWhenConnectorSupportsIt() throws IOException {
+        MockHttpServletRequest request = get("bytes=0-");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(0L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(20L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,121 @@
+package com.bharath.media_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileUploadServiceTest {
+
+    private static final String HELLO_SHA256 = "185f8db32271fe25f561a6fc938b2e264306ec304eda518007d1764826381969";
+
+    @TempDir
+    Path uploadDir;
+
+    private BlobStore blobStore;
+    private FileIndex index;
+    private FileUploadService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        blobStore = new BlobStore(uploadDir.toString());
+        service = newService();
+    }
+
+    /** A fresh index and service over the same directory, as after a restart */
+    private FileUploadService newService() throws IOException {
+        index = new FileIndex(blobStore, uploadDir.toString(), true);
+        return new FileUploadService(blobStore, index, new SimpleMeterRegistry(), Duration.ZERO);
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "video/mp4", content.getBytes());
+    }
+
+    private List<Path> blobs() throws IOException {
+        List<Path> blobs = new ArrayList<>();
+        blobStore.forEach(blobs::add);
+        return blobs;
+    }
+
+    @Test
+    void testIdenticalUploadIsStoredOnce() throws IOException {
+        String first = service.storeFile(file("sample.mp4", "Hello"));
+        String second = service.storeFile(file("sample.mp4", "Hello"));
+        String renamed = service.storeFile(file("copy.mp4", "Hello"));
+
+        assertEquals("/files/185f8db32271-sample.mp4", first);
+        assertEquals(first, second);
+        assertEquals("/files/185f8db32271-copy.mp4", renamed);
+        assertEquals(List.of(blobStore.path(HELLO_SHA256)), blobs());
+        assertEquals("Hello", Files.readString(service.lookup("185f8db32271-copy.mp4").orElseThrow().path()));
+    }
+
+    @Test
+    void testStoreExistingSkipsTheBody() throws IOException {
+        assertTrue(service.storeExisting(HELLO_SHA256, "a.mp4").isEmpty());
+
+        service.storeFile(file("sample.mp4", "Hello"));
+
+        assertEquals("/files/185f8db32271-a.mp4", service.storeExisting(HELLO_SHA256, "a.mp4").orElseThrow());
+        assertThrows(IllegalArgumentException.class, () -> service.storeExisting("not-a-hash", "a.mp4"));
+    }
+
+    @Test
+    void testBlobIsCollectedWhenLastNameIsDeleted() throws IOException {
+        service.storeFile(file("a.mp4", "Hello"));
+        service.storeFile(file("b.mp4", "Hello"));
+
+        assertTrue(service.deleteFile("185f8db32271-a.mp4"));
+        assertEquals(0, service.collectGarbage());
+
+        // Counts survive a restart because they are rebuilt from the index
+        index.saveSnapshot();
+        service = newService();
+        assertTrue(service.deleteFile("185f8db32271-b.mp4"));
+        assertEquals(1, service.collectGarbage());
+        assertTrue(blobs().isEmpty());
+        assertTrue(service.lookup("185f8db32271-b.mp4").isEmpty());
+    }
+
+    @Test
+    void testFlatFilesAreServedThenMigratedUnderTheSameName() throws IOException {
+        for (String name : List.of("1756993493880-sample.mp4", "1757063759110-sample.mp4")) {
+            Files.writeString(uploadDir.resolve(name), "Hello");
+        }
+        service = newService();
+        assertTrue(service.lookup("1756993493880-sample.mp4").orElseThrow().legacy());
+        assertTrue(service.lookup("../etc/passwd").isEmpty());
+
+        new FlatUploadMigrator(service, index).run(null);
+
+        StoredFile migrated = service.lookup("1757063759110-sample.mp4").orElseThrow();
+        assertEquals(HELLO_SHA256, migrated.sha256());
+        assertEquals("video/mp4", migrated.contentType());
+        assertFalse(Files.exists(uploadDir.resolve("1756993493880-sample.mp4")));
+        assertEquals(List.of(blobStore.path(HELLO_SHA256)), blobs());
+    }
+
+    @Test
+    void testIndexReloadsFromSnapshotAndChangedShards() throws IOException {
+        service.storeFile(file("a.mp4", "Hello"));
+        index.saveSnapshot();
+        service.storeFile(file("b.mp4", "World"));
+
+        service = newService();
+
+        assertEquals(2, index.size());
+        assertEquals(5, service.lookup("185f8db32271-a.mp4").orElseThrow().size());
+        assertTrue(service.lookup("78ae647dc554-b.mp4").isPresent());
+    }
+}
@@ -0,0 +1,56 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalTrendingTrackerTest {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private final LocalTrendingTracker tracker = new LocalTrendingTracker(List.of(HOUR), 2, 256, 4);
+
+    private List<MediaViewLog> views(long mediaId, int count, Instant at) {
+        List<MediaViewLog> views = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            views.add(MediaViewLog.builder().mediaId(mediaId).viewedByIp("10.0.0." + i).timestamp(at).build());
+        }
+        return views;
+    }
+
+    @Test
+    void testRecentViewsOutrankOlderOnes() {
+        Instant now = Instant.now();
+        tracker.onViewsWritten(views(1L, 10, now.minus(Duration.ofHours(3)))); // decays to ~1.25
+        tracker.onViewsWritten(views(2L, 4, now));
+
+        List<TrendingTracker.Score> top = tracker.top(HOUR, 10);
+
+        assertEquals(2L, top.get(0).mediaId());
+        assertEquals(4.0, top.get(0).score(), 0.1);
+        assertEquals(1.25, top.get(1).score(), 0.1);
+    }
+
+    @Test
+    void testCapacityEvictsLowestScore() {
+        Instant now = Instant.now();
+        tracker.onViewsWritten(views(1L, 5, now));
+        tracker.onViewsWritten(views(2L, 1, now));
+        tracker.onViewsWritten(views(3L, 3, now));
+
+        List<TrendingTracker.Score> top = tracker.top(HOUR, 10);
+
+        assertEquals(List.of(1L, 3L), top.stream().map(TrendingTracker.Score::mediaId).toList());
+    }
+
+    @Test
+    void testUnknownWindowIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> tracker.top(Duration.ofMinutes(5), 10));
+    }
+}
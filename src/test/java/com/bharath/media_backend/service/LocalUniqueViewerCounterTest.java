@@ -0,0 +1,41 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalUniqueViewerCounterTest {
+
+    private static MediaViewLog view(String ip, Instant at) {
+        return MediaViewLog.builder().mediaId(1L).viewedByIp(ip).timestamp(at).build();
+    }
+
+    @Test
+    void testRangeCountsUnionOfDays() {
+        LocalUniqueViewerCounter counter = new LocalUniqueViewerCounter(14, 30);
+        Instant now = Instant.now();
+        counter.onViewsWritten(List.of(
+                view("10.0.0.1", now), view("10.0.0.2", now),
+                view("10.0.0.1", now.minus(1, ChronoUnit.DAYS)), view("10.0.0.3", now.minus(1, ChronoUnit.DAYS))));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        assertEquals(3, counter.countUnique(1L, today.minusDays(1), today));
+        assertEquals(2, counter.countUnique(1L, today, today));
+    }
+
+    @Test
+    void testHugeRangeIsClampedToRetentionWindow() {
+        LocalUniqueViewerCounter counter = new LocalUniqueViewerCounter(14, 30);
+        counter.onViewsWritten(List.of(view("10.0.0.1", Instant.now())));
+
+        assertEquals(1, counter.countUnique(1L, LocalDate.of(1970, 1, 1), LocalDate.of(2100, 1, 1)));
+        assertEquals(0, counter.countUnique(1L, LocalDate.of(1970, 1, 1), LocalDate.of(1999, 1, 1)));
+    }
+}
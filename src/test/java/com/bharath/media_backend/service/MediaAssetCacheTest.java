@@ -0,0 +1,85 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaAsset;
+import com.bharath.media_backend.repo.MediaAssetRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MediaAssetCacheTest {
+
+    @Mock
+    private MediaAssetRepository mediaRepo;
+
+    @Mock
+    private StringRedisTemplate redis;
+
+    private MediaAssetCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cache = new MediaAssetCache(mediaRepo, redis, new ObjectMapper(), new SimpleMeterRegistry(),
+                1 << 20, Duration.ofHours(1), Duration.ofSeconds(30), false, Duration.ofHours(6));
+    }
+
+    private MediaAsset asset(long id) {
+        return MediaAsset.builder().id(id).title("Test").type("video")
+                .fileUrl("http://cloudinary/video.mp4").createdAt(Instant.now()).build();
+    }
+
+    @Test
+    void testRepeatedLookupsHitDatabaseOnce() {
+        when(mediaRepo.findById(1L)).thenReturn(Optional.of(asset(1L)));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Test", cache.find(1L).orElseThrow().getTitle());
+        }
+
+        verify(mediaRepo, times(1)).findById(1L);
+        verifyNoInteractions(redis);
+    }
+
+    @Test
+    void testUnknownIdIsNegativelyCached() {
+        when(mediaRepo.findById(99L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.find(99L).isEmpty());
+        assertTrue(cache.find(99L).isEmpty());
+
+        verify(mediaRepo, times(1)).findById(99L);
+    }
+
+    @Test
+    void testPutReplacesCachedMiss() {
+        when(mediaRepo.findById(2L)).thenReturn(Optional.empty());
+        assertTrue(cache.find(2L).isEmpty());
+
+        cache.put(asset(2L));
+
+        assertTrue(cache.find(2L).isPresent());
+        verify(mediaRepo, times(1)).findById(2L);
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        when(mediaRepo.findById(3L)).thenReturn(Optional.of(asset(3L)));
+        cache.find(3L);
+
+        cache.invalidate(3L);
+        cache.find(3L);
+
+        verify(mediaRepo, times(2)).findById(3L);
+    }
+}
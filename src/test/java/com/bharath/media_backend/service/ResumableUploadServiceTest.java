@@ -0,0 +1,105 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.api.dto.UploadSessionCreateRequest;
+import com.bharath.media_backend.api.dto.UploadSessionResponse;
+import com.bharath.media_backend.exception.UploadSessionConflictException;
+import com.bharath.media_backend.exception.UploadSessionNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumableUploadServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ResumableUploadService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new ResumableUploadService(new ObjectMapper(), uploadDir.toString(),
+                1024, 1 << 20, Duration.ofHours(1));
+    }
+
+    @Test
+    void testOutOfOrderAndRetriedChunksAssemble() throws IOException {
+        byte[] data = new byte[2500];
+        new Random(7).nextBytes(data);
+        String id = open("clip.mp4", data.length);
+
+        put(id, data, 2048, 452);
+        put(id, data, 0, 1024);
+        put(id, data, 1024, 1024);
+        UploadSessionResponse status = put(id, data, 1024, 1024); // retry of the same chunk
+
+        assertTrue(status.isComplete());
+        assertEquals(data.length, status.getReceivedBytes());
+
+        byte[] assembled = service.complete(id, (file, filename) -> {
+            assertEquals("clip.mp4", filename);
+            return Files.readAllBytes(file);
+        });
+        assertArrayEquals(data, assembled);
+        assertThrows(UploadSessionNotFoundException.class, () -> service.status(id));
+    }
+
+    @Test
+    void testOverlappingChunkRejected() throws IOException {
+        byte[] data = new byte[2000];
+        String id = open("clip.mp4", data.length);
+        put(id, data, 0, 1000);
+
+        assertThrows(UploadSessionConflictException.class, () -> put(id, data, 500, 1000));
+    }
+
+    @Test
+    void testCompleteWithGapKeepsSessionResumable() throws IOException {
+        byte[] data = new byte[2000];
+        new Random(11).nextBytes(data);
+        String id = open("clip.mp4", data.length);
+        put(id, data, 1000, 1000);
+
+        assertThrows(UploadSessionConflictException.class,
+                () -> service.complete(id, (file, filename) -> Files.size(file)));
+
+        UploadSessionResponse status = put(id, data, 0, 1000);
+        assertEquals(1, status.getReceivedRanges().size());
+        assertArrayEquals(data, service.complete(id, (file, filename) -> Files.readAllBytes(file)));
+    }
+
+    @Test
+    void testChunkLargerThanLimitRejected() throws IOException {
+        byte[] data = new byte[4096];
+        String id = open("clip.mp4", data.length);
+
+        assertThrows(IllegalArgumentException.class, () -> put(id, data, 0, 2048));
+    }
+
+    @Test
+    void testUnknownSessionId() {
+        assertThrows(UploadSessionNotFoundException.class, () -> service.status("../../etc"));
+    }
+
+    private String open(String filename, long size) throws IOException {
+        UploadSessionCreateRequest request = new UploadSessionCreateRequest();
+        request.setFilename(filename);
+        request.setSize(size);
+        return service.create(request).getId();
+    }
+
+    private UploadSessionResponse put(String id, byte[] data, int offset, int length) throws IOException {
+        byte[] chunk = Arrays.copyOfRange(data, offset, offset + length);
+        return service.writeChunk(id, offset, length, new ByteArrayInputStream(chunk));
+    }
+}
@@ -0,0 +1,150 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.api.dto.MediaCreateRequest;
+import com.bharath.media_backend.domain.MediaAsset;
+import com.bharath.media_backend.domain.UploadJob;
+import com.bharath.media_backend.exception.UploadCapacityExceededException;
+import com.bharath.media_backend.repo.UploadJobRepository;
+import com.bharath.media_backend.storage.MediaStorage;
+import com.bharath.media_backend.storage.MediaStorageRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UploadJobWorkerTest {
+
+    @Mock
+    private UploadJobRepository uploadJobRepo;
+
+    @Mock
+    private MediaService mediaService;
+
+    @Mock
+    private MediaStorageRegistry storages;
+
+    @Mock
+    private MediaStorage storage;
+
+    @TempDir
+    Path tempDir;
+
+    private UploadJobWorker worker;
+    private Path staged;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        worker = new UploadJobWorker(uploadJobRepo, mediaService, storages, TransactionOperations.withoutTransaction(),
+                new SimpleMeterRegistry(), 1, 3, 1000, 60_000, Duration.ofMinutes(15), "node-a");
+        staged = Files.write(tempDir.resolve("video.mp4"), "dummy content".getBytes());
+        when(uploadJobRepo.save(any(UploadJob.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(storages.primary()).thenReturn(storage);
+    }
+
+    private UploadJob job(int attempts) {
+        UploadJob job = UploadJob.builder()
+                .id(7L).status(UploadJob.Status.PROCESSING).title("Test Title").type("video")
+                .originalFilename("video.mp4").stagedPath(staged.toString()).size(13)
+                .attempts(attempts).nextAttemptAt(Instant.now()).createdAt(Instant.now())
+                .build();
+        when(uploadJobRepo.findById(7L)).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    @Test
+    void testSuccessfulJobCreatesMediaAndRemovesStagedFile() throws IOException {
+        UploadJob job = job(1);
+        when(storage.put("video.mp4", staged)).thenReturn("http://cloudinary/video.mp4");
+        when(mediaService.createMediaAsset(any(MediaCreateRequest.class)))
+                .thenReturn(MediaAsset.builder().id(42L).build());
+
+        worker.process(7L);
+
+        assertEquals(UploadJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals(42L, job.getMediaId());
+        assertEquals("http://cloudinary/video.mp4", job.getFileUrl());
+        assertFalse(Files.exists(staged));
+    }
+
+    @Test
+    void testFailureIsRetriedWithBackoff() throws IOException {
+        UploadJob job = job(2);
+        when(storage.put("video.mp4", staged)).thenThrow(new IOException("CDN timeout"));
+
+        Instant before = Instant.now();
+        worker.process(7L);
+
+        assertEquals(UploadJob.Status.PENDING, job.getStatus());
+        // Second attempt failed: 1000 ms << 1
+        assertFalse(job.getNextAttemptAt().isBefore(before.plusMillis(2000)));
+        assertTrue(job.getLastError().contains("CDN timeout"));
+        assertTrue(Files.exists(staged));
+    }
+
+    @Test
+    void testFailsAfterMaxAttempts() throws IOException {
+        UploadJob job = job(3);
+        when(storage.put("video.mp4", staged)).thenThrow(new IOException("CDN timeout"));
+
+        worker.process(7L);
+
+        assertEquals(UploadJob.Status.FAILED, job.getStatus());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    void testRetryAfterUploadOnlySavesRecord() throws IOException {
+        UploadJob job = job(2);
+        job.setFileUrl("http://cloudinary/video.mp4");
+        when(mediaService.createMediaAsset(any(MediaCreateRequest.class)))
+                .thenReturn(MediaAsset.builder().id(42L).build());
+
+        worker.process(7L);
+
+        assertEquals(UploadJob.Status.SUCCEEDED, job.getStatus());
+        verify(storage, never()).put(anyString(), any(Path.class));
+    }
+
+    @Test
+    void testCapacityRejectionDoesNotSpendAttempt() throws IOException {
+        UploadJob job = job(1);
+        when(storage.put("video.mp4", staged)).thenThrow(new UploadCapacityExceededException("busy"));
+
+        worker.process(7L);
+
+        assertEquals(UploadJob.Status.PENDING, job.getStatus());
+        assertEquals(0, job.getAttempts());
+    }
+
+    @Test
+    void testExpiredLeaseDoesNotCompleteJobTwice() throws IOException {
+        UploadJob job = job(1);
+        job.setFileUrl("http://cloudinary/video.mp4");
+        when(mediaService.createMediaAsset(any(MediaCreateRequest.class)))
+                .thenReturn(MediaAsset.builder().id(42L).build());
+        // Requeued and claimed elsewhere meanwhile: the version no longer matches
+        when(uploadJobRepo.save(any(UploadJob.class))).thenThrow(new OptimisticLockingFailureException("stale"));
+
+        worker.process(7L);
+
+        verify(uploadJobRepo, times(1)).save(any(UploadJob.class));
+        assertTrue(Files.exists(staged));
+    }
+}
@@ -0,0 +1,87 @@
+package com.bharath.media_backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ViewLogPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    @Mock
+    private ViewRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testCreatesCurrentAndUpcomingMonthlyPartitions() {
+        ViewLogPartitionManager manager = new ViewLogPartitionManager(jdbc, TransactionOperations.withoutTransaction(), rollupService,
+                ViewLogPartitionManager.Granularity.MONTH, 1, 0);
+
+        manager.createUpcoming(LocalDate.of(2025, 12, 15));
+
+        verify(jdbc).execute("CREATE TABLE IF NOT EXISTS media_view_logs_p202512 PARTITION OF media_view_logs"
+                + " FOR VALUES FROM ('2025-12-01T00:00:00Z') TO ('2026-01-01T00:00:00Z')");
+        verify(jdbc).execute("CREATE TABLE IF NOT EXISTS media_view_logs_p202601 PARTITION OF media_view_logs"
+                + " FOR VALUES FROM ('2026-01-01T00:00:00Z') TO ('2026-02-01T00:00:00Z')");
+    }
+
+    @Test
+    void testRowsInDefaultPartitionAreMovedIntoNewPartition() {
+        ViewLogPartitionManager manager = new ViewLogPartitionManager(jdbc, TransactionOperations.withoutTransaction(), rollupService,
+                ViewLogPartitionManager.Granularity.MONTH, 0, 0);
+        String create = "CREATE TABLE IF NOT EXISTS media_view_logs_p202512 PARTITION OF media_view_logs"
+                + " FOR VALUES FROM ('2025-12-01T00:00:00Z') TO ('2026-01-01T00:00:00Z')";
+        doThrow(new DataIntegrityViolationException("updated partition constraint for default partition would be violated"))
+                .doNothing()
+                .when(jdbc).execute(create);
+        when(jdbc.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), any(Timestamp.class), any(Timestamp.class))).thenReturn(true);
+        when(jdbc.queryForObject(startsWith("SELECT to_regclass"), eq(Boolean.class), anyString())).thenReturn(false);
+        when(jdbc.update(startsWith("INSERT INTO media_view_logs_p202512"), any(Timestamp.class), any(Timestamp.class))).thenReturn(3);
+
+        manager.createUpcoming(LocalDate.of(2025, 12, 15));
+
+        InOrder order = inOrder(jdbc);
+        order.verify(jdbc).execute("LOCK TABLE media_view_logs IN ACCESS EXCLUSIVE MODE");
+        order.verify(jdbc).execute("ALTER TABLE media_view_logs DETACH PARTITION media_view_logs_default");
+        order.verify(jdbc).execute(create);
+        order.verify(jdbc).update(startsWith("INSERT INTO media_view_logs_p202512"), any(Timestamp.class), any(Timestamp.class));
+        order.verify(jdbc).update(startsWith("DELETE FROM media_view_logs_default"), any(Timestamp.class), any(Timestamp.class));
+        order.verify(jdbc).execute("ALTER TABLE media_view_logs ATTACH PARTITION media_view_logs_default DEFAULT");
+    }
+
+    @Test
+    void testDropsOnlyExpiredPartitionsAfterRebuildingRollups() {
+        ViewLogPartitionManager manager = new ViewLogPartitionManager(jdbc, TransactionOperations.withoutTransaction(), rollupService,
+                ViewLogPartitionManager.Granularity.DAY, 0, 30);
+        when(jdbc.queryForList(anyString(), eq(String.class))).thenReturn(List.of(
+                "media_view_logs_p202501", "media_view_logs_p20250201", "media_view_logs_p20250215",
+                "media_view_logs_default"));
+
+        manager.dropExpired(LocalDate.of(2025, 2, 10));
+
+        verify(rollupService).rebuild(Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2025-02-01T00:00:00Z"));
+        verify(rollupService).rebuild(Instant.parse("2025-02-01T00:00:00Z"), Instant.parse("2025-02-02T00:00:00Z"));
+        verify(jdbc).execute("DROP TABLE IF EXISTS media_view_logs_p202501");
+        verify(jdbc).execute("DROP TABLE IF EXISTS media_view_logs_p20250201");
+        verify(jdbc, never()).execute("DROP TABLE IF EXISTS media_view_logs_p20250215");
+        verify(jdbc, never()).execute("DROP TABLE IF EXISTS media_view_logs_default");
+    }
+}
@@ -0,0 +1,90 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.api.dto.ViewLogEntry;
+import com.bharath.media_backend.api.dto.ViewLogPage;
+import com.bharath.media_backend.domain.MediaAsset;
+import com.bharath.media_backend.repo.MediaViewLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ViewLogQueryServiceTest {
+
+    @Mock
+    private MediaViewLogRepository mediaViewLogRepo;
+
+    @Mock
+    private MediaAssetCache mediaAssetCache;
+
+    private ViewLogQueryService service;
+
+    private final Instant t0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mediaAssetCache.find(1L)).thenReturn(Optional.of(MediaAsset.builder().id(1L).build()));
+        service = new ViewLogQueryService(mediaViewLogRepo, mediaAssetCache);
+    }
+
+    private ViewLogEntry row(long id, Instant timestamp) {
+        return new ViewLogEntry(id, 1L, "10.0.0." + id, timestamp);
+    }
+
+    @Test
+    void testPageReturnsCursorThatResumesAfterLastRow() {
+        when(mediaViewLogRepo.findPage(eq(1L), eq(Instant.EPOCH), eq(Long.MIN_VALUE), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(row(1, t0), row(2, t0), row(3, t0.plusSeconds(1))));
+
+        ViewLogPage first = service.page(1L, null, null, null, 2);
+
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+
+        service.page(1L, null, null, first.getNextCursor(), 2);
+        verify(mediaViewLogRepo).findPage(eq(1L), eq(t0), eq(2L), any(), eq(PageRequest.of(0, 3)));
+    }
+
+    @Test
+    void testLastPageHasNoCursor() {
+        when(mediaViewLogRepo.findPage(any(), any(), any(), any(), any())).thenReturn(List.of(row(1, t0)));
+
+        assertNull(service.page(1L, null, null, null, 2).getNextCursor());
+    }
+
+    @Test
+    void testInvalidCursorAndLimitAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.page(1L, null, null, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.page(1L, null, null, null, 5000));
+    }
+
+    @Test
+    void testCsvAndNdjsonWriters() throws IOException {
+        List<ViewLogEntry> rows = List.of(row(1, t0), new ViewLogEntry(2L, 1L, "a,\"b\"", t0));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        assertEquals(2, ViewLogQueryService.writeCsv(rows.iterator(), csv));
+        assertEquals("id,media_id,viewed_by_ip,timestamp\r\n"
+                + "1,1,10.0.0.1,2025-01-01T00:00:00Z\r\n"
+                + "2,1,\"a,\"\"b\"\"\",2025-01-01T00:00:00Z\r\n", csv.toString());
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(2, ViewLogQueryService.writeNdjson(rows.iterator(), ndjson));
+        String[] lines = ndjson.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":1,\"mediaId\":1,\"viewedByIp\":\"10.0.0.1\",\"timestamp\":\"2025-01-01T00:00:00Z\"}", lines[0]);
+    }
+}
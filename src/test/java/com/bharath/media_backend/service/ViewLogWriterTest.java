@@ -0,0 +1,93 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.domain.MediaViewLog;
+import com.bharath.media_backend.repo.MediaViewLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ViewLogWriterTest {
+
+    @Mock
+    private MediaViewLogRepository mediaViewLogRepo;
+
+    @Mock
+    private ViewRollupService rollupService;
+
+    @Mock
+    private ViewLogListener listener;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ViewLogWriter writer(int capacity, int batchSize, ViewLogWriter.OverflowPolicy policy) {
+        return new ViewLogWriter(mediaViewLogRepo, rollupService, List.of(listener), TransactionOperations.withoutTransaction(), meterRegistry,
+                capacity, batchSize, 50, policy, 10, 5_000);
+    }
+
+    private MediaViewLog view(long mediaId) {
+        return MediaViewLog.builder().mediaId(mediaId).viewedByIp("10.0.0.1").timestamp(Instant.now()).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlushesInBatches() throws InterruptedException {
+        ViewLogWriter writer = writer(100, 10, ViewLogWriter.OverflowPolicy.DROP_NEWEST);
+        writer.start();
+        for (int i = 0; i < 25; i++) {
+            assertTrue(writer.enqueue(view(1L)));
+        }
+        writer.stop();
+
+        ArgumentCaptor<List<MediaViewLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mediaViewLogRepo, atLeast(3)).saveAll(captor.capture());
+        int total = captor.getAllValues().stream().mapToInt(List::size).sum();
+        assertEquals(25, total);
+        assertTrue(captor.getAllValues().stream().allMatch(batch -> batch.size() <= 10));
+        assertEquals(0, writer.queueDepth());
+    }
+
+    @Test
+    void testDropNewestWhenFull() throws InterruptedException {
+        ViewLogWriter writer = writer(2, 10, ViewLogWriter.OverflowPolicy.DROP_NEWEST);
+        // Simulate a running writer whose drain thread is stalled
+        writer.start();
+        doAnswer(inv -> { Thread.sleep(200); return null; }).when(mediaViewLogRepo).saveAll(anyList());
+
+        int accepted = 0;
+        for (int i = 0; i < 50; i++) {
+            if (writer.enqueue(view(1L))) accepted++;
+        }
+        writer.stop();
+
+        assertTrue(accepted < 50);
+        assertEquals(50 - accepted, meterRegistry.get("media.viewlog.dropped").counter().count());
+    }
+
+    @Test
+    void testWritesSynchronouslyWhenNotRunning() {
+        ViewLogWriter writer = writer(10, 10, ViewLogWriter.OverflowPolicy.DROP_NEWEST);
+
+        assertTrue(writer.enqueue(view(7L)));
+
+        verify(mediaViewLogRepo, times(1)).saveAll(anyList());
+        verify(rollupService, times(1)).apply(anyList());
+        verify(listener, times(1)).onViewsWritten(anyList());
+    }
+}
@@ -0,0 +1,53 @@
+package com.bharath.media_backend.service;
+
+import com.bharath.media_backend.repo.MediaViewDailyStatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ViewRollupServiceTest {
+
+    @Mock
+    private MediaViewDailyStatRepository statRepo;
+
+    private ViewRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new ViewRollupService(statRepo);
+    }
+
+    @Test
+    void testRebuildWidensPastRangeToWholeDays() {
+        service.rebuild(Instant.parse("2025-01-01T10:00:00Z"), Instant.parse("2025-01-03T05:00:00Z"));
+
+        verify(statRepo).rebuildRange(Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2025-01-04T00:00:00Z"));
+    }
+
+    @Test
+    void testRebuildAllStopsBeforeToday() {
+        Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+
+        service.rebuildAll();
+
+        verify(statRepo).rebuildRange(Instant.EPOCH, today);
+    }
+
+    @Test
+    void testRebuildOfTodayOnlyDoesNothing() {
+        Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+
+        assertEquals(0, service.rebuild(today, today.plus(1, ChronoUnit.HOURS)));
+
+        verify(statRepo, never()).rebuildRange(any(), any());
+    }
+}
@@ -0,0 +1,133 @@
+package com.bharath.media_backend.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs the driver against a minimal in-process stand-in for an S3/MinIO endpoint */
+class S3MediaStorageTest {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private S3MediaStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/media/", this::handle);
+        server.start();
+        storage = new S3MediaStorage("http://127.0.0.1:" + server.getAddress().getPort(), "us-east-1", "media",
+                "minio", "minio-secret", Duration.ofMinutes(15));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String auth = exchange.getRequestHeaders().getFirst("Authorization");
+        if (auth == null || !auth.startsWith("AWS4-HMAC-SHA256 Credential=minio/")) {
+            exchange.sendResponseHeaders(403, -1);
+            exchange.close();
+            return;
+        }
+        String key = exchange.getRequestURI().getPath();
+        byte[] object = objects.get(key);
+        switch (exchange.getRequestMethod()) {
+            case "PUT" -> {
+                try (InputStream in = exchange.getRequestBody()) {
+                    objects.put(key, in.readAllBytes());
+                }
+                exchange.sendResponseHeaders(200, -1);
+            }
+            case "DELETE" -> {
+                objects.remove(key);
+                exchange.sendResponseHeaders(204, -1);
+            }
+            case "HEAD" -> {
+                if (object != null) exchange.getResponseHeaders().set("Content-Length", Integer.toString(object.length));
+                exchange.sendResponseHeaders(object == null ? 404 : 200, -1);
+            }
+            default -> {
+                if (object == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    break;
+                }
+                String range = exchange.getRequestHeaders().getFirst("Range");
+                Matcher m = range == null ? null : RANGE.matcher(range);
+                boolean ranged = m != null && m.matches();
+                byte[] body = ranged
+                        ? Arrays.copyOfRange(object, Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)) + 1)
+                        : object;
+                if (ranged) {
+                    exchange.getResponseHeaders().set("Content-Range",
+                            "bytes " + m.group(1) + "-" + m.group(2) + "/" + object.length);
+                }
+                exchange.sendResponseHeaders(ranged ? 206 : 200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        }
+        exchange.close();
+    }
+
+    @Test
+    void testPutGetRangeAndSize() throws IOException {
+        byte[] content = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+        String location = storage.put("clip one.mp4", new ByteArrayInputStream(content), content.length);
+
+        assertTrue(location.startsWith("s3://media/media/"));
+        assertTrue(location.endsWith("-clip one.mp4"));
+        assertTrue(storage.owns(location));
+        assertEquals(content.length, storage.size(location));
+        try (InputStream in = storage.get(location)) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        try (InputStream in = storage.get(location, 4, 6)) {
+            assertEquals("456789", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testDeleteAndMissingObject() throws IOException {
+        byte[] content = "bytes".getBytes(StandardCharsets.UTF_8);
+        String location = storage.put("a.mp4", new ByteArrayInputStream(content), content.length);
+
+        assertTrue(storage.delete(location));
+        assertFalse(storage.delete(location));
+        assertThrows(NoSuchFileException.class, () -> storage.get(location));
+    }
+
+    @Test
+    void testPublicUrlIsPresigned() {
+        String url = storage.publicUrl("s3://media/media/x-a.mp4");
+
+        assertTrue(url.startsWith("http://127.0.0.1:" + server.getAddress().getPort() + "/media/media/x-a.mp4?"));
+        assertTrue(url.contains("X-Amz-Expires=900"));
+        assertTrue(url.contains("&X-Amz-Signature="));
+        assertFalse(storage.owns("/files/x-a.mp4"));
+    }
+}
@@ -0,0 +1,34 @@
+package com.bharath.media_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void testEstimatesNeverUndercountAndStayClose() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        for (long key = 0; key < 5000; key++) {
+            sketch.add(key, 1);
+        }
+        for (int i = 0; i < 1000; i++) {
+            sketch.add(42L, 1);
+        }
+
+        double estimate = sketch.estimate(42L);
+        assertTrue(estimate >= 1001);
+        // e / w * total = 2.7 / 1024 * 6000 ~ 16
+        assertTrue(estimate < 1001 + 16, "estimate " + estimate);
+    }
+
+    @Test
+    void testScale() {
+        CountMinSketch sketch = new CountMinSketch(64, 2);
+        sketch.add(7L, 8);
+
+        sketch.scale(0.25);
+
+        assertEquals(2.0, sketch.estimate(7L));
+    }
+}
@@ -0,0 +1,104 @@
+package com.bharath.media_backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HmacSignerTest {
+
+    private static HmacSigner signer(String secret) throws Exception {
+        HmacSigner signer = new HmacSigner();
+        ReflectionTestUtils.setField(signer, "secret", secret);
+        ReflectionTestUtils.setField(signer, "keys", "");
+        ReflectionTestUtils.setField(signer, "activeKeyId", "");
+        ReflectionTestUtils.setField(signer, "poolMaxIdle", 4);
+        signer.init();
+        return signer;
+    }
+
+    private static String reference(String secret, byte[] data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(data));
+    }
+
+    @Test
+    void testMatchesReferenceForAsciiLongAndNonAsciiInput() throws Exception {
+        HmacSigner signer = signer("s3cret");
+        String[] inputs = {
+                "",
+                "https://res.cloudinary.com/demo/video.mp4|1757002232021",
+                "x".repeat(5000), // longer than the scratch buffer
+                "caf\u00e9|\uD83D\uDE00|" + "y".repeat(2000) // non-ASCII, incl. a surrogate pair
+        };
+        for (String input : inputs) {
+            String expected = reference("s3cret", input.getBytes(StandardCharsets.UTF_8));
+            assertEquals(expected, signer.sign(input));
+            assertTrue(signer.verify(HmacSigner.LEGACY_KEY_ID, input, expected));
+
+            byte[] out = new byte[HmacSigner.SIGNATURE_LENGTH + 2];
+            signer.sign(HmacSigner.LEGACY_KEY_ID, ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)), out, 2);
+            assertEquals(expected, new String(out, 2, HmacSigner.SIGNATURE_LENGTH, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void testVerifyRejectsWrongSignature() throws Exception {
+        HmacSigner signer = signer("s3cret");
+        String good = signer.sign("data");
+        String bad = (good.charAt(0) == 'A' ? 'B' : 'A') + good.substring(1);
+
+        assertFalse(signer.verify(HmacSigner.LEGACY_KEY_ID, "data", bad));
+        assertFalse(signer.verify(HmacSigner.LEGACY_KEY_ID, "data", good.substring(1)));
+        assertFalse(signer.verify("unknown", "data", good));
+    }
+
+    /** A shared Mac corrupts signatures under contention; the pool must not */
+    @Test
+    void testConcurrentSigningIsCorrect() throws Exception {
+        HmacSigner signer = signer("s3cret");
+        int threads = 16;
+        int perThread = 5_000;
+        List<String> inputs = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            String input = "/media/" + i + "|" + (1757002232021L + i) + "|" + "z".repeat(i * 7);
+            inputs.add(input);
+            expected.add(reference("s3cret", input.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger mismatches = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    int k = (seed * 31 + i) & 255;
+                    if (!expected.get(k).equals(signer.sign(inputs.get(k)))) mismatches.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(0, mismatches.get());
+    }
+}
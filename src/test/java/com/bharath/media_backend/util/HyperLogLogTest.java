@@ -0,0 +1,75 @@
+package com.bharath.media_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    private static String ip(int i) {
+        return (i >>> 24 & 0xff) + "." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff);
+    }
+
+    /** Relative error vs an exact HashSet count must stay within 3 standard errors */
+    private void assertCloseToExact(int precision, int distinct, int duplicatesPerIp) {
+        HyperLogLog hll = new HyperLogLog(precision);
+        Set<String> exact = new HashSet<>();
+        for (int i = 0; i < distinct; i++) {
+            for (int d = 0; d < duplicatesPerIp; d++) {
+                hll.add(ip(i));
+                exact.add(ip(i));
+            }
+        }
+        double error = Math.abs(hll.cardinality() - exact.size()) / (double) exact.size();
+        double allowed = 3 * HyperLogLog.standardError(precision);
+        assertTrue(error <= allowed,
+                "p=" + precision + " n=" + distinct + " error " + error + " > " + allowed);
+    }
+
+    @Test
+    void testMatchesExactCountsAcrossCardinalities() {
+        assertCloseToExact(14, 100, 3);
+        assertCloseToExact(14, 10_000, 2);
+        assertCloseToExact(14, 500_000, 1);
+    }
+
+    @Test
+    void testPrecisionTradeOff() {
+        assertCloseToExact(10, 200_000, 1);
+        assertCloseToExact(16, 200_000, 1);
+        assertTrue(HyperLogLog.standardError(16) < HyperLogLog.standardError(10));
+    }
+
+    @Test
+    void testMergedDailySketchesEstimateUnion() {
+        HyperLogLog day1 = new HyperLogLog(14);
+        HyperLogLog day2 = new HyperLogLog(14);
+        // 60k on day 1, 60k on day 2, 20k overlap -> 100k distinct
+        for (int i = 0; i < 60_000; i++) day1.add(ip(i));
+        for (int i = 40_000; i < 100_000; i++) day2.add(ip(i));
+
+        long union = day1.copy().merge(day2).cardinality();
+
+        assertEquals(100_000, union, 100_000 * 3 * HyperLogLog.standardError(14));
+    }
+
+    @Test
+    void testSerializationRoundTrip() {
+        HyperLogLog hll = new HyperLogLog(12);
+        for (int i = 0; i < 5_000; i++) hll.add(ip(i));
+
+        HyperLogLog restored = HyperLogLog.fromBytes(hll.toBytes());
+
+        assertEquals(hll.cardinality(), restored.cardinality());
+        assertEquals(12, restored.getPrecision());
+    }
+
+    @Test
+    void testRejectsMismatchedPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(12).merge(new HyperLogLog(14)));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+}
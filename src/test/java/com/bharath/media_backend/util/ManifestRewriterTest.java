@@ -0,0 +1,76 @@
+package com.bharath.media_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ManifestRewriterTest {
+
+    @Test
+    void testHlsUriLinesAndAttributesAreRewritten() {
+        String master = """
+                #EXTM3U
+                #EXT-X-VERSION:3
+                #EXT-X-MEDIA:TYPE=AUDIO,GROUP-ID="aac",URI="audio/index.m3u8"
+                #EXT-X-STREAM-INF:BANDWIDTH=5350000,RESOLUTION=1920x1080,CODECS="avc1.640028,mp4a.40.2"
+                1080p/index.m3u8
+
+                #EXT-X-STREAM-INF:BANDWIDTH=2996000,RESOLUTION=1280x720
+                720p/index.m3u8
+                """;
+
+        String rewritten = ManifestRewriter.rewrite(master, uri -> uri + "?t=tok");
+
+        assertEquals("""
+                #EXTM3U
+                #EXT-X-VERSION:3
+                #EXT-X-MEDIA:TYPE=AUDIO,GROUP-ID="aac",URI="audio/index.m3u8?t=tok"
+                #EXT-X-STREAM-INF:BANDWIDTH=5350000,RESOLUTION=1920x1080,CODECS="avc1.640028,mp4a.40.2"
+                1080p/index.m3u8?t=tok
+
+                #EXT-X-STREAM-INF:BANDWIDTH=2996000,RESOLUTION=1280x720
+                720p/index.m3u8?t=tok
+                """, rewritten);
+    }
+
+    @Test
+    void testHlsMediaPlaylistKeepsTagsAndLineEndings() {
+        String playlist = "#EXTM3U\r\n#EXT-X-TARGETDURATION:6\r\n#EXTINF:6.000000,\r\nseg_00000.ts\r\n#EXT-X-ENDLIST";
+
+        String rewritten = ManifestRewriter.rewrite(playlist, uri -> "abc-" + uri);
+
+        assertEquals("#EXTM3U\r\n#EXT-X-TARGETDURATION:6\r\n#EXTINF:6.000000,\r\nabc-seg_00000.ts\r\n#EXT-X-ENDLIST", rewritten);
+    }
+
+    @Test
+    void testDashSegmentAttributesAreRewritten() {
+        String mpd = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <MPD xmlns="urn:mpeg:dash:schema:mpd:2011" mediaPresentationDuration="PT12.0S">
+                  <Representation id="0" mimeType="video/mp4" bandwidth="5000000">
+                    <SegmentList timescale="1000" duration="6000">
+                      <Initialization sourceURL="init-0.m4s"/>
+                      <SegmentURL media="chunk-0-00001.m4s"/>
+                      <SegmentURL media="chunk-0-00002.m4s"/>
+                    </SegmentList>
+                  </Representation>
+                </MPD>
+                """;
+
+        String rewritten = ManifestRewriter.rewrite(mpd, uri -> "abc-" + uri);
+
+        assertTrue(rewritten.contains("<Initialization sourceURL=\"abc-init-0.m4s\"/>"));
+        assertTrue(rewritten.contains("<SegmentURL media=\"abc-chunk-0-00001.m4s\"/>"));
+        assertTrue(rewritten.contains("<SegmentURL media=\"abc-chunk-0-00002.m4s\"/>"));
+        assertTrue(rewritten.contains("mimeType=\"video/mp4\""));
+        assertEquals(mpd.length() + 3 * "abc-".length(), rewritten.length());
+    }
+
+    @Test
+    void testIsManifest() {
+        assertTrue(ManifestRewriter.isManifest("0123456789ab-media-7-master.m3u8"));
+        assertTrue(ManifestRewriter.isManifest("manifest.mpd"));
+        assertFalse(ManifestRewriter.isManifest("seg_00001.ts"));
+        assertFalse(ManifestRewriter.isManifest("chunk-0-00001.m4s"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.bharath.media_backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamTokenCodecTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private static HmacSigner signer(String keys, String activeKeyId) throws Exception {
+        HmacSigner signer = new HmacSigner();
+        ReflectionTestUtils.setField(signer, "secret", "legacy-secret");
+        ReflectionTestUtils.setField(signer, "keys", keys);
+        ReflectionTestUtils.setField(signer, "activeKeyId", activeKeyId);
+        signer.init();
+        return signer;
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        StreamTokenCodec codec = new StreamTokenCodec(signer("", ""));
+        String token = codec.encode(42L, NOW + 60_000, "https://res.cloudinary.com/demo/video.mp4?a=1|b");
+
+        StreamTokenCodec.Claims claims = codec.decode(token, NOW).orElseThrow();
+
+        assertTrue(token.startsWith(HmacSigner.LEGACY_KEY_ID + "."));
+        assertEquals(42L, claims.mediaId());
+        assertEquals("https://res.cloudinary.com/demo/video.mp4?a=1|b", claims.location());
+    }
+
+    @Test
+    void testExpiredTokenRejected() throws Exception {
+        StreamTokenCodec codec = new StreamTokenCodec(signer("", ""));
+        String token = codec.encode(42L, NOW - 1, "/files/a.mp4");
+
+        assertTrue(codec.decode(token, NOW).isEmpty());
+    }
+
+    @Test
+    void testTamperedPayloadRejected() throws Exception {
+        StreamTokenCodec codec = new StreamTokenCodec(signer("", ""));
+        String token = codec.encode(42L, NOW + 60_000, "/files/a.mp4");
+        String other = codec.encode(43L, NOW + 60_000, "/files/a.mp4");
+
+        String[] parts = token.split("\\.");
+        String[] otherParts = other.split("\\.");
+        String spliced = parts[0] + "." + otherParts[1] + "." + parts[2];
+
+        assertTrue(codec.decode(spliced, NOW).isEmpty());
+        assertTrue(codec.decode("garbage", NOW).isEmpty());
+        assertTrue(codec.decode(null, NOW).isEmpty());
+    }
+
+    @Test
+    void testRotatedKeyStillVerifiesUntilRemoved() throws Exception {
+        String issuedWithK1 = new StreamTokenCodec(signer("k1:first", "k1")).encode(7L, NOW + 60_000, "/files/a.mp4");
+
+        StreamTokenCodec rotated = new StreamTokenCodec(signer("k2:second,k1:first", "k2"));
+        assertTrue(rotated.decode(issuedWithK1, NOW).isPresent());
+        assertTrue(rotated.encode(7L, NOW + 60_000, "/files/a.mp4").startsWith("k2."));
+
+        StreamTokenCodec retired = new StreamTokenCodec(signer("k2:second", "k2"));
+        assertTrue(retired.decode(issuedWithK1, NOW).isEmpty());
+    }
+}